@@ -7,6 +7,7 @@ import com.restaurant.authservice.repository.AuthRepository;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.factorymodule.BaseCrudFactory;
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.SecondaryKey;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.redismodule.factory.CacheConfigFactory;
 import com.restaurant.redismodule.service.ICacheService;
@@ -15,6 +16,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static com.restaurant.authservice.entity.AuthEntity.UserRole.ADMIN;
@@ -113,25 +115,36 @@ public class AuthFactory extends BaseCrudFactory<Long, AuthDto, Long, AuthEntity
         throw new DataFactoryException("Please provide id or filter with username/email");
     }
 
+    @Override
+    protected List<SecondaryKey<AuthDto>> secondaryKeys() {
+        return List.of(SecondaryKey.of("email",
+                filter -> filter instanceof AuthFilter authFilter ? authFilter.getEmail() : null,
+                AuthDto::getEmail));
+    }
+
     @Override
     public <F extends IFilter> AuthDto getModel(F filter) throws CacheException, DataFactoryException {
         if (filter instanceof AuthFilter authFilter) {
 
             if (authFilter.getEmail() != null) {
-                AuthEntity authEntity = crudRepository.findByEmail(authFilter.getEmail())
-                        .orElse(null);
-                if (authEntity != null) {
-                    Long id = authEntity.getId();
-                    AuthDto savedModel = getModel(id, filter);
-                    return crudRepository.findById(savedModel.getId())
-                            .map(this::convertToModel)
-                            .orElse(null);
-                }
+                // Resolved through the email index when cached, by email in the database otherwise
+                return getModel(null, filter);
             }
         }
         throw new DataFactoryException("Please provide filter with username/email");
     }
 
+    /**
+     * Gets the model with its password hash, to authenticate. Always read from the database:
+     * the password is write-only in JSON, so a cached model never carries it.
+     *
+     * @param email the email
+     * @return the model, null when no account has the email
+     */
+    public AuthDto getCredentials(String email) {
+        return crudRepository.findByEmail(email).map(this::convertToModel).orElse(null);
+    }
+
     @Override
     public <F extends IFilter> boolean exists(Long id, F filter) throws DataFactoryException {
         if (id != null) {
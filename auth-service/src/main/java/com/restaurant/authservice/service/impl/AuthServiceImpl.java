@@ -157,14 +157,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private AuthDto authenticateUser(String email, String password) {
-        AuthFilter authFilter = AuthFilter.builder().email(email).build();
-
-        AuthDto authDto;
-        try {
-            authDto = authFactory.getModel(authFilter);
-        } catch (CacheException | DataFactoryException e) {
-            throw new IllegalArgumentException("Invalid email or password");
-        }
+        AuthDto authDto = authFactory.getCredentials(email);
 
         if (authDto == null || !passwordEncoder.matches(password, authDto.getPassword())) {
             throw new IllegalArgumentException("Invalid email or password");
@@ -0,0 +1,129 @@
+package com.restaurant.authservice.factory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.authservice.dto.AuthDto;
+import com.restaurant.authservice.dto.AuthFilter;
+import com.restaurant.authservice.dto.LoginRequest;
+import com.restaurant.authservice.dto.LoginResponse;
+import com.restaurant.authservice.dto.SessionDto;
+import com.restaurant.authservice.entity.AuthEntity;
+import com.restaurant.authservice.repository.AuthRepository;
+import com.restaurant.authservice.service.AuthProducerService;
+import com.restaurant.authservice.service.SessionService;
+import com.restaurant.authservice.service.impl.AuthServiceImpl;
+import com.restaurant.authservice.service.impl.JwtServiceImpl;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.codec.JacksonCacheCodec;
+import com.restaurant.redismodule.config.RedisProperties;
+import com.restaurant.redismodule.embedded.EmbeddedRedisStore;
+import com.restaurant.redismodule.service.EmbeddedRedisService;
+import com.restaurant.redismodule.service.impl.CacheService;
+import com.restaurant.redismodule.service.impl.EmbeddedAsyncCacheService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
+import com.restaurant.redismodule.support.RedisNearCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuthFactoryTest {
+
+    private static final String EMAIL = "guest@restaurant.com";
+    private static final String PASSWORD = "s3cret-pass";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final AuthRepository repository = mock(AuthRepository.class);
+
+    private EmbeddedRedisStore store;
+    private AuthFactory authFactory;
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        RedisProperties properties = new RedisProperties();
+        CacheCodec codec = new JacksonCacheCodec(new ObjectMapper().findAndRegisterModules());
+        store = new EmbeddedRedisStore(properties.getEmbedded());
+        EmbeddedRedisService redisService = new EmbeddedRedisService(store, codec);
+        CacheService cacheService = new CacheService(redisService, new RedisCircuitBreaker(properties),
+                new EmbeddedAsyncCacheService(redisService), properties, new RedisNearCache(properties, codec));
+        authFactory = new AuthFactory(cacheService, repository);
+
+        AuthEntity entity = AuthEntity.builder()
+                .id(1L)
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .isActive(true)
+                .role(AuthEntity.UserRole.USER)
+                .build();
+        when(repository.findById(1L)).thenReturn(Optional.of(entity));
+        when(repository.findByEmail(EMAIL)).thenReturn(Optional.of(entity));
+
+        SessionService sessionService = mock(SessionService.class);
+        when(sessionService.createSession(eq(1L), eq(EMAIL), any(), any()))
+                .thenReturn(SessionDto.builder().id("session-1").userId(1L).userEmail(EMAIL).build());
+        JwtServiceImpl jwtService = mock(JwtServiceImpl.class);
+        when(jwtService.generateAccessToken(any())).thenReturn("access");
+        when(jwtService.generateRefreshToken(any())).thenReturn("refresh");
+
+        authService = new AuthServiceImpl(authFactory, passwordEncoder, mock(AuthProducerService.class),
+                sessionService, jwtService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void cachedModelHasNoPassword() throws Exception {
+        AuthFilter filter = AuthFilter.builder().email(EMAIL).build();
+        authFactory.getModel(filter);
+
+        AuthDto cached = authFactory.getModel(filter);
+
+        assertEquals(EMAIL, cached.getEmail());
+        assertNull(cached.getPassword());
+        assertNotNull(authFactory.getCredentials(EMAIL).getPassword());
+    }
+
+    @Test
+    void loginTwiceWithTheAccountCached() throws Exception {
+        authFactory.getModel(AuthFilter.builder().email(EMAIL).build());
+
+        LoginResponse first = authService.login(login(PASSWORD), "device", "10.0.0.1");
+        LoginResponse second = authService.login(login(PASSWORD), "device", "10.0.0.1");
+
+        assertEquals("access", first.getAccessToken());
+        assertEquals("access", second.getAccessToken());
+        assertEquals("session-1", second.getSessionId());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> authService.login(login("wrong"), "device", "10.0.0.1"));
+    }
+
+    @Test
+    void unknownEmailIsRejected() {
+        when(repository.findByEmail(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> authService.login(login(PASSWORD), "device", "10.0.0.1"));
+    }
+
+    private static LoginRequest login(String password) {
+        return LoginRequest.builder().email(EMAIL).password(password).build();
+    }
+}
@@ -22,6 +22,15 @@ public interface IEndpointModel {
         return getEndpoint();
     }
 
+    /**
+     * Gets path pattern the endpoint config applies to.
+     *
+     * @return the path pattern
+     */
+    default String getPathPattern() {
+        return getEndpoint();
+    }
+
     /**
      * Gets channel.
      *
@@ -57,6 +66,16 @@ public interface IEndpointModel {
      */
     Long getLimitTime();
 
+    /**
+     * Whether each request path gets its own rate limit bucket, rather than one bucket for the
+     * path pattern. For a config covering unrelated routes, so they do not share one budget.
+     *
+     * @return the boolean
+     */
+    default boolean isRateLimitPerPath() {
+        return false;
+    }
+
     /**
      * Is public boolean.
      *
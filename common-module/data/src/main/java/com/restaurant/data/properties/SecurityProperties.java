@@ -6,6 +6,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
 
@@ -28,6 +29,15 @@ public class SecurityProperties {
     @JsonProperty("key")
     private Key key;
 
+    @JsonProperty("endpoint-reload")
+    private EndpointReload endpointReload = new EndpointReload();
+
+    @JsonProperty("rate-limit")
+    private RateLimit rateLimit = new RateLimit();
+
+    @JsonProperty("instrumentation")
+    private Instrumentation instrumentation = new Instrumentation();
+
     /**
      * The type Cors.
      */
@@ -68,4 +78,105 @@ public class SecurityProperties {
         @JsonProperty("private-key")
         private String privateKey;
     }
+
+    /**
+     * The type Endpoint reload, polling of the endpoint config table so changes apply without a restart.
+     */
+    @Getter
+    @Setter
+    public static class EndpointReload {
+
+        @JsonProperty("enabled")
+        private boolean enabled = true;
+
+        /**
+         * Delay between two polls for rows updated since the previous one.
+         */
+        @JsonProperty("interval")
+        private Duration interval = Duration.ofSeconds(30);
+
+        /**
+         * Delay between two full reloads, which also catch rows edited without touching updated_at.
+         * updated_at is only set by the application, so this is how long an edit made directly in
+         * the table takes to apply.
+         */
+        @JsonProperty("full-reload-interval")
+        private Duration fullReloadInterval = Duration.ofMinutes(1);
+
+        /**
+         * How far each poll reaches back before the high-water mark, for rows committed late.
+         */
+        @JsonProperty("overlap")
+        private Duration overlap = Duration.ofSeconds(10);
+    }
+
+    /**
+     * The type Rate limit, bounds of the in-process token bucket store.
+     */
+    @Getter
+    @Setter
+    public static class RateLimit {
+
+        /**
+         * Buckets kept at most, the least recently used one is evicted past it.
+         */
+        @JsonProperty("max-buckets")
+        private int maxBuckets = 100_000;
+
+        /**
+         * Longest a bucket is kept without requests, shorter when the limit window is shorter.
+         */
+        @JsonProperty("max-idle")
+        private Duration maxIdle = Duration.ofHours(1);
+
+        /**
+         * Whether limits are shared by every instance through Redis rather than applied per instance.
+         */
+        @JsonProperty("distributed")
+        private boolean distributed = false;
+
+        /**
+         * Share of a limit an instance takes from Redis at once and serves locally. Tokens taken
+         * but not used before the refill are lost, so an endpoint may admit up to
+         * instances x prefetch-ratio x limit fewer requests per interval than its limit, never more.
+         * 0 takes one token per request.
+         */
+        @JsonProperty("prefetch-ratio")
+        private double prefetchRatio = 0.05;
+
+        /**
+         * Regex of the proxy addresses trusted to append X-Forwarded-For, such as the gateway.
+         * Requests are limited by the rightmost hop that is not one of them, the hops left of it
+         * are set by the client. A peer that is not trusted is the client itself. Matches
+         * loopback and private network addresses by default, as Tomcat's RemoteIpValve does.
+         */
+        @JsonProperty("trusted-proxies")
+        private String trustedProxies = "10\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}"
+                + "|192\\.168\\.\\d{1,3}\\.\\d{1,3}"
+                + "|172\\.(1[6-9]|2\\d|3[01])\\.\\d{1,3}\\.\\d{1,3}"
+                + "|127\\.\\d{1,3}\\.\\d{1,3}\\.\\d{1,3}"
+                + "|0:0:0:0:0:0:0:1|::1";
+    }
+
+    /**
+     * The type Instrumentation, timers of the security filters and endpoint lookup.
+     */
+    @Getter
+    @Setter
+    public static class Instrumentation {
+
+        /**
+         * Whether filters, endpoint lookup and session validation are timed, tagged by endpoint
+         * pattern, security type and outcome. Off, requests run the filters untimed.
+         */
+        @JsonProperty("enabled")
+        private boolean enabled = true;
+
+        /**
+         * Whether each timed step is also reported to the client in a Server-Timing header, for
+         * debugging only since it exposes the security steps of the endpoint.
+         */
+        @JsonProperty("server-timing")
+        private boolean serverTiming = false;
+    }
 }
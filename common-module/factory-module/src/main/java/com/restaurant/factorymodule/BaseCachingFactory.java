@@ -1,17 +1,36 @@
 package com.restaurant.factorymodule;
 
 
+import com.restaurant.data.enums.IBaseErrorCode;
+import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.redismodule.factory.CacheConfigFactory;
 import com.restaurant.redismodule.factory.ICachingFactory;
+import com.restaurant.redismodule.model.CacheEntry;
+import com.restaurant.redismodule.model.CacheEnvelope;
 import com.restaurant.redismodule.service.ICacheService;
 import com.restaurant.data.model.IFilter;
+import com.restaurant.utils.MapperUtil;
+import com.restaurant.utils.cache.BoundedLocalCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * .
@@ -22,11 +41,27 @@ import java.util.List;
 @Slf4j
 public abstract class BaseCachingFactory<M> implements ICachingFactory<M> {
 
+    /**
+     * Identifies this JVM in invalidation messages so it skips its own broadcasts.
+     */
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private static final String INVALIDATE_ALL = "*";
+
+    private static final char MESSAGE_SEPARATOR = '|';
+
     /**
      * The Cache service.
      */
     protected final ICacheService iCacheService;
 
+    /**
+     * In-process (L1) model cache, created on first use when {@link CacheConfigFactory#localCache()} is on.
+     */
+    private volatile BoundedLocalCache<String, M> localCache;
+
+    private volatile boolean localCacheResolved;
+
     /**
      * Instantiates a new Base caching factory.
      *
@@ -45,74 +80,785 @@ public abstract class BaseCachingFactory<M> implements ICachingFactory<M> {
 
     @Override
     public M getCacheModel(Object key) {
+        try {
+            return getCacheModel(key, null);
+        } catch (DataFactoryException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets cache model, throwing notFound when a not-found tombstone is cached for the key.
+     *
+     * @param key      the key
+     * @param notFound the error to throw on a tombstone, null to return null instead
+     * @return the cache model
+     * @throws DataFactoryException the data factory exception
+     */
+    protected M getCacheModel(Object key, IBaseErrorCode notFound) throws DataFactoryException {
+        CacheEntry<M> cached = null;
         try {
             if (cacheFactory().cacheModel()) {
-                return iCacheService.getCache(
-                        makeSingleKeyCache(key, cacheFactory().getModelClass()),
-                        cacheFactory().getModelClass());
+                String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+                BoundedLocalCache<String, M> local = localCache();
+                if (local != null) {
+                    M localModel = local.get(cacheKey);
+                    if (localModel != null) {
+                        return copyModel(localModel);
+                    }
+                }
+                cached = readEntry(cacheKey);
+                if (cached == null || !cached.isTombstone()) {
+                    M model = toModel(key, cached);
+                    if (model != null && local != null) {
+                        local.put(cacheKey, copyModel(model), cacheFactory().singleTtl());
+                    }
+                    return model;
+                }
             }
         } catch (Exception e) {
             log.warn("Cache GetModel exception. Error: {}", e.getMessage());
         }
+        if (notFound != null && cached != null && cached.isTombstone()) {
+            throw new DataFactoryException(notFound);
+        }
         return null;
     }
 
+    /**
+     * Gets cached models of several keys, checking the local cache first and then
+     * Redis with a single MGET.
+     *
+     * @param <K>       the key type
+     * @param keys      the keys
+     * @param tombstone collects the keys cached as not found
+     * @return the hits by key
+     */
+    protected <K> Map<K, M> getCacheModels(Collection<K> keys, Set<K> tombstone) {
+        Map<K, M> hits = new HashMap<>();
+        if (!cacheFactory().cacheModel() || keys.isEmpty()) {
+            return hits;
+        }
+        try {
+            BoundedLocalCache<String, M> local = localCache();
+            List<K> remoteKeys = new ArrayList<>(keys.size());
+            List<String> remoteCacheKeys = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+                M localModel = local == null ? null : local.get(cacheKey);
+                if (localModel != null) {
+                    hits.put(key, copyModel(localModel));
+                } else {
+                    remoteKeys.add(key);
+                    remoteCacheKeys.add(cacheKey);
+                }
+            }
+            if (remoteCacheKeys.isEmpty()) {
+                return hits;
+            }
+            List<CacheEntry<M>> cached = readEntries(remoteCacheKeys);
+            for (int i = 0; i < remoteKeys.size(); i++) {
+                if (cached.get(i) != null && cached.get(i).isTombstone()) {
+                    tombstone.add(remoteKeys.get(i));
+                    continue;
+                }
+                M model = toModel(remoteKeys.get(i), cached.get(i));
+                if (model != null) {
+                    hits.put(remoteKeys.get(i), model);
+                    if (local != null) {
+                        local.put(remoteCacheKeys.get(i), copyModel(model), cacheFactory().singleTtl());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Cache GetModels exception. Error: {}", e.getMessage());
+        }
+        return hits;
+    }
+
+    /**
+     * Cache several models in one pipeline. Meant for read-through fills, so other
+     * instances are not sent invalidations.
+     *
+     * @param <K>    the key type
+     * @param models the models by key
+     * @param ttl    the ttl
+     */
+    protected <K> void cachePutModels(Map<K, M> models, Duration ttl) {
+        if (!cacheFactory().cacheModel() || models.isEmpty()) {
+            return;
+        }
+        BoundedLocalCache<String, M> local = localCache();
+        Map<String, Object> values = new LinkedHashMap<>();
+        models.forEach((key, model) -> {
+            String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+            values.put(cacheKey, modelValue(model, jitter(ttl), 0L));
+            if (local != null) {
+                local.put(cacheKey, copyModel(model), ttl);
+            }
+        });
+        // One hard ttl for the batch, long enough for the latest jittered soft expiry
+        writeModels(values, storeTtl(ttl.plusMillis((long) (ttl.toMillis() * cacheFactory().ttlJitter()))));
+    }
+
     @Override
     public void cachePutModel(Object key, M value, Duration ttl) {
+        cachePutModel(key, value, ttl, 0L);
+    }
+
+    /**
+     * Cache put model, with the time it took to load for refresh-ahead.
+     *
+     * @param key        the key
+     * @param value      the value
+     * @param ttl        the ttl
+     * @param loadMillis the load millis
+     */
+    protected void cachePutModel(Object key, M value, Duration ttl, long loadMillis) {
         if (cacheFactory().cacheModel()) {
-            iCacheService.set(
-                    makeSingleKeyCache(key, cacheFactory().getModelClass()),
-                    value,
-                    ttl
-            );
+            String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+            Duration fresh = jitter(ttl);
+            writeModel(cacheKey, modelValue(value, fresh, loadMillis), storeTtl(fresh));
+            BoundedLocalCache<String, M> local = localCache();
+            if (local != null) {
+                local.put(cacheKey, copyModel(value), ttl);
+                publishInvalidation(cacheKey);
+            }
         }
     }
 
+    /**
+     * Cache an updated model. Stored as a hash, only the properties that differ from the old
+     * model are written, and only while the hash is cached: a missing hash is loaded in full
+     * on the next read. Stored plain, the whole model is rewritten.
+     *
+     * @param key      the key
+     * @param oldModel the model before the update
+     * @param model    the updated model
+     * @param ttl      the ttl
+     */
+    protected void cacheUpdateModel(Object key, M oldModel, M model, Duration ttl) {
+        if (!cacheFactory().cacheModel()) {
+            return;
+        }
+        if (!cacheFactory().cacheAsHash() || oldModel == null) {
+            cachePutModel(key, model, ttl);
+            return;
+        }
+        String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+        Map<String, Object> before = CacheEntry.toHash(oldModel, null);
+        Map<String, Object> after = CacheEntry.toHash(model, null);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        after.forEach((field, value) -> {
+            if (!value.equals(before.get(field))) {
+                changed.put(field, value);
+            }
+        });
+        List<String> removed = new ArrayList<>();
+        for (String field : before.keySet()) {
+            if (!after.containsKey(field)) {
+                removed.add(field);
+            }
+        }
+        Duration fresh = jitter(ttl);
+        if (cacheFactory().refreshAhead()) {
+            // The update is as fresh as a load, restart the soft expiry
+            changed.put(CacheEntry.HASH_SOFT_EXPIRE_AT, System.currentTimeMillis() + fresh.toMillis());
+        }
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            updateModel(cacheKey, changed, removed, storeTtl(fresh));
+        }
+        BoundedLocalCache<String, M> local = localCache();
+        if (local != null) {
+            local.put(cacheKey, copyModel(model), ttl);
+            publishInvalidation(cacheKey);
+        }
+    }
+
+    /**
+     * Gets some properties of a cached model with one HMGET, without decoding the whole model.
+     * Needs {@link CacheConfigFactory#cacheAsHash()}, a property that is null in the model is
+     * not stored and reads as null.
+     *
+     * @param key    the key
+     * @param fields the property names
+     * @return the values by property name, null on miss
+     */
+    protected Map<String, Object> getCacheModelFields(Object key, List<String> fields) {
+        if (!cacheFactory().cacheModel() || !cacheFactory().cacheAsHash() || fields.isEmpty()) {
+            return null;
+        }
+        String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+        List<String> read = new ArrayList<>(fields);
+        // The tombstone field tells a missing model from one whose requested properties are all null
+        read.add(TOMBSTONE);
+        List<Object> values = iCacheService.getHashFields(cacheKey, read);
+        if (values.get(fields.size()) != null || values.subList(0, fields.size()).stream().allMatch(Objects::isNull)) {
+            return null;
+        }
+        Map<String, Object> projection = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            projection.put(fields.get(i), values.get(i));
+        }
+        return projection;
+    }
+
+    /**
+     * Cache a not-found lookup, by key when given, else by filter within the list generation
+     * so the next write of the model clears it. No-op unless negative caching is on.
+     *
+     * @param key        the key, may be null
+     * @param filter     the filter, may be null
+     * @param generation the list generation, may be null
+     */
+    protected void cacheNotFound(Object key, IFilter filter, Long generation) {
+        if (!cacheFactory().cacheModel() || !cacheFactory().negativeCache()) {
+            return;
+        }
+        if (key != null) {
+            writeModel(makeSingleKeyCache(key, cacheFactory().getModelClass()), modelTombstone(),
+                    cacheFactory().negativeCacheTtl());
+        } else if (filter != null && generation != null) {
+            String notFoundKey = makeKeyNotFound(filter, generation);
+            if (notFoundKey != null) {
+                writeCache(notFoundKey, TOMBSTONE, cacheFactory().negativeCacheTtl());
+            }
+        }
+    }
+
+    /**
+     * Cache several not-found keys in one pipeline. No-op unless negative caching is on.
+     *
+     * @param <K>  the key type
+     * @param keys the keys
+     */
+    protected <K> void cacheNotFound(Collection<K> keys) {
+        if (!cacheFactory().cacheModel() || !cacheFactory().negativeCache() || keys.isEmpty()) {
+            return;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (K key : keys) {
+            values.put(makeSingleKeyCache(key, cacheFactory().getModelClass()), modelTombstone());
+        }
+        writeModels(values, cacheFactory().negativeCacheTtl());
+    }
+
+    /**
+     * Gets the id an index entry points to, null on miss.
+     *
+     * @param <K>      the id type
+     * @param name     the secondary key name
+     * @param value    the secondary key value
+     * @param idClass  the id class
+     * @return the id
+     */
+    protected <K> K getCacheIndex(String name, Object value, Class<K> idClass) {
+        if (!cacheFactory().cacheModel()) {
+            return null;
+        }
+        try {
+            return iCacheService.getCache(makeKeyIndex(cacheFactory().getModelClass(), name, value), idClass);
+        } catch (Exception e) {
+            log.warn("Cache GetIndex exception. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cache index entries pointing secondary key values to an id.
+     *
+     * @param values the secondary key values by name
+     * @param id     the id
+     * @param ttl    the ttl
+     */
+    protected void cacheIndexes(Map<String, Object> values, Object id, Duration ttl) {
+        if (!cacheFactory().cacheModel() || values.isEmpty() || id == null) {
+            return;
+        }
+        Map<String, Object> entries = new LinkedHashMap<>();
+        values.forEach((name, value) -> entries.put(makeKeyIndex(cacheFactory().getModelClass(), name, value), id));
+        writeCache(entries, ttl);
+    }
+
+    /**
+     * Clear the index entry of a secondary key value.
+     *
+     * @param name  the secondary key name
+     * @param value the secondary key value
+     */
+    protected void clearCacheIndex(String name, Object value) {
+        if (cacheFactory().cacheModel()) {
+            deleteCache(makeKeyIndex(cacheFactory().getModelClass(), name, value));
+        }
+    }
+
+    /**
+     * Whether a not-found lookup by filter is cached within the list generation.
+     *
+     * @param filter     the filter
+     * @param generation the list generation
+     * @return the boolean
+     */
+    protected boolean isNotFoundCached(IFilter filter, long generation) {
+        String notFoundKey = makeKeyNotFound(filter, generation);
+        if (notFoundKey == null) {
+            return false;
+        }
+        try {
+            return TOMBSTONE.equals(iCacheService.getCache(notFoundKey, Object.class));
+        } catch (Exception e) {
+            log.warn("Cache GetNotFound exception. Error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Keyed on the full filter rather than its hash, so a filter with a colliding hash cannot
+     * tombstone the records of another. Null when the filter cannot be written as a key.
+     */
+    private String makeKeyNotFound(IFilter filter, long generation) {
+        String filterKey = makeKeyFilter(cacheFactory().getModelClass(), filter);
+        return filterKey == null ? null : filterKey + getSpecial() + "not_found" + getSpecial() + generation;
+    }
+
     @Override
     public void clearCacheModelByKey(Object key) {
         if (cacheFactory().cacheModel()) {
-            iCacheService.delete(
-                    makeSingleKeyCache(key, cacheFactory().getModelClass())
-            );
+            String cacheKey = makeSingleKeyCache(key, cacheFactory().getModelClass());
+            BoundedLocalCache<String, M> local = localCache();
+            if (local != null) {
+                local.invalidate(cacheKey);
+            }
+            deleteCache(cacheKey);
+            if (local != null) {
+                publishInvalidation(cacheKey);
+            }
         }
     }
 
     @Override
     public void clearCacheModelByPattern() {
         if (cacheFactory().cacheModel()) {
-            iCacheService.deletePattern(cacheFactory().getModelClass().getSimpleName());
+            BoundedLocalCache<String, M> local = localCache();
+            if (local != null) {
+                local.invalidateAll();
+            }
+            iCacheService.deletePattern(makeKeyPattern(cacheFactory().getModelClass()));
+            if (local != null) {
+                publishInvalidation(INVALIDATE_ALL);
+            }
         }
     }
 
     @Override
     public void clearCacheListModel() throws CacheException, JsonProcessingException {
         if (cacheFactory().cacheListModel()) {
-            iCacheService.deletePattern(
-                    makeKeyCacheList(cacheFactory().getModelClass(), null)
-            );
+            // Moving to a new generation orphans every cached list at once, they expire with their ttl.
+            // Always on the caller, even with cacheAsync: a dropped increment would leave stale lists served
+            String generationKey = makeKeyCacheListGeneration(cacheFactory().getModelClass());
+            Long generation = iCacheService.increment(generationKey);
+            log.debug("List cache of {} moved to generation {}", cacheFactory().getModelClass().getSimpleName(), generation);
         }
     }
 
     @Override
     public <F extends IFilter> List<M> getCacheListModel(F filter) {
-        if (cacheFactory().cacheListModel()) {
-            return iCacheService.getList(
-                    makeKeyCacheList(cacheFactory().getModelClass(), filter),
-                    cacheFactory().getModelClass()
+        return getCacheListModel(filter, listGeneration());
+    }
+
+    /**
+     * Gets cache list model within a generation.
+     *
+     * @param <F>        the type parameter
+     * @param filter     the filter
+     * @param generation the generation, null when unknown
+     * @return the cache list model
+     */
+    protected <F extends IFilter> List<M> getCacheListModel(F filter, Long generation) {
+        if (!cacheFactory().cacheListModel() || generation == null) {
+            return Collections.emptyList();
+        }
+        String cacheKey = makeKeyCacheList(cacheFactory().getModelClass(), filter, generation);
+        try {
+            CacheEntry<List<M>> cached = iCacheService.getCache(
+                    cacheKey,
+                    CacheEntry.type(TypeFactory.defaultInstance()
+                            .constructCollectionType(List.class, cacheFactory().getModelClass()))
             );
+            if (cached == null || cached.isTombstone() || cached.getValue() == null) {
+                return Collections.emptyList();
+            }
+            if (cached.getEnvelope() != null && cacheFactory().refreshAhead() && isRefreshDue(cached.getEnvelope())) {
+                refreshList(filter, generation);
+            }
+            return cached.getValue();
+        } catch (Exception e) {
+            log.warn("Cache GetList exception. Error: {}", e.getMessage());
+            return Collections.emptyList();
         }
-        return Collections.emptyList();
     }
 
     @Override
     public <F extends IFilter> void cacheListModel(F iFilter, List<M> value, Duration ttl) throws CacheException {
-        if (cacheFactory().cacheListModel()) {
-            iCacheService.set(
-                    makeKeyCacheList(cacheFactory().getModelClass(), iFilter),
-                    value,
-                    ttl
+        cacheListModel(iFilter, value, ttl, listGeneration(), 0L);
+    }
+
+    /**
+     * Cache list model within a generation. Pass the generation read before loading the
+     * list, so a write racing the load leaves the result in an already orphaned generation.
+     *
+     * @param <F>        the type parameter
+     * @param iFilter    the filter
+     * @param value      the value
+     * @param ttl        the ttl
+     * @param generation the generation, null when unknown
+     * @param loadMillis the load millis
+     */
+    protected <F extends IFilter> void cacheListModel(F iFilter, List<M> value, Duration ttl, Long generation,
+                                                      long loadMillis) {
+        if (cacheFactory().cacheListModel() && generation != null) {
+            Duration fresh = jitter(ttl);
+            writeCache(
+                    makeKeyCacheList(cacheFactory().getModelClass(), iFilter, generation),
+                    cacheValue(value, fresh, loadMillis),
+                    storeTtl(fresh)
+            );
+        }
+    }
+
+    /**
+     * Gets a cached page within a generation.
+     *
+     * @param <F>        the type parameter
+     * @param filter     the filter
+     * @param query      the page query
+     * @param generation the generation, null when unknown
+     * @return the page, null on miss
+     */
+    protected <F extends IFilter> PageResult<M> getCachePage(F filter, PageQuery query, Long generation) {
+        if (!cacheFactory().cacheListModel() || generation == null) {
+            return null;
+        }
+        try {
+            PageResult<M> cached = iCacheService.getCache(
+                    makeKeyCachePage(filter, query, generation),
+                    TypeFactory.defaultInstance().constructParametricType(PageResult.class, cacheFactory().getModelClass())
+            );
+            return cached == null || cached.getItems() == null ? null : cached;
+        } catch (Exception e) {
+            log.warn("Cache GetPage exception. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Cache a page within a generation, each page is its own bounded entry.
+     *
+     * @param <F>        the type parameter
+     * @param filter     the filter
+     * @param query      the page query
+     * @param page       the page
+     * @param ttl        the ttl
+     * @param generation the generation, null when unknown
+     */
+    protected <F extends IFilter> void cachePage(F filter, PageQuery query, PageResult<M> page, Duration ttl, Long generation) {
+        if (cacheFactory().cacheListModel() && generation != null) {
+            writeCache(makeKeyCachePage(filter, query, generation), page, jitter(ttl));
+        }
+    }
+
+    /**
+     * Make key cache page string. The page fingerprint is appended as is, cursors are case-sensitive.
+     *
+     * @param filter     the filter
+     * @param query      the page query
+     * @param generation the generation
+     * @return the string
+     */
+    protected String makeKeyCachePage(IFilter filter, PageQuery query, long generation) {
+        return makeKeyCacheList(cacheFactory().getModelClass(), filter, generation)
+                + getSpecial() + "page" + getSpecial() + query.fingerprint();
+    }
+
+    /**
+     * Current list cache generation, 0 before the first write and null when it cannot be read.
+     *
+     * @return the generation
+     */
+    protected Long listGeneration() {
+        if (!cacheFactory().cacheListModel()) {
+            return null;
+        }
+        try {
+            Long generation = iCacheService.getCache(
+                    makeKeyCacheListGeneration(cacheFactory().getModelClass()),
+                    Long.class
             );
+            return generation == null ? 0L : generation;
+        } catch (Exception e) {
+            log.warn("Cache list generation exception. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Called when a cached model is stale or picked for early refresh, with refresh-ahead on.
+     *
+     * @param key the key
+     */
+    protected void refreshModel(Object key) {
+    }
+
+    /**
+     * Called when a cached list is stale or picked for early refresh, with refresh-ahead on.
+     *
+     * @param filter     the filter
+     * @param generation the generation
+     */
+    protected void refreshList(IFilter filter, long generation) {
+    }
+
+    /**
+     * Whether a refresh-ahead entry should be refreshed now: always once past its soft
+     * expiry, and before that with a probability rising as expiry nears (XFetch), scaled
+     * by the load time and {@link CacheConfigFactory#earlyRefreshBeta()}.
+     *
+     * @param envelope the envelope
+     * @return the boolean
+     */
+    protected boolean isRefreshDue(CacheEnvelope envelope) {
+        long remaining = envelope.getSoftExpireAt() - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return true;
+        }
+        double beta = cacheFactory().earlyRefreshBeta();
+        if (beta <= 0) {
+            return false;
+        }
+        double gap = Math.max(envelope.getLoadMillis(), 1L) * beta
+                * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return gap >= remaining;
+    }
+
+    /**
+     * Ttl with {@link CacheConfigFactory#ttlJitter()} randomly added or removed.
+     *
+     * @param ttl the ttl
+     * @return the duration
+     */
+    protected Duration jitter(Duration ttl) {
+        double jitter = cacheFactory().ttlJitter();
+        if (jitter <= 0 || ttl.isZero() || ttl.isNegative()) {
+            return ttl;
+        }
+        double factor = 1.0 + jitter * (2.0 * ThreadLocalRandom.current().nextDouble() - 1.0);
+        return Duration.ofMillis(Math.max(1L, (long) (ttl.toMillis() * factor)));
+    }
+
+    /**
+     * Write a value, off the request thread when {@link CacheConfigFactory#cacheAsync()} is on.
+     * All writes of a factory take the same path, so they reach Redis in the order they were made.
+     */
+    private void writeCache(String cacheKey, Object value, Duration ttl) {
+        if (cacheFactory().cacheAsync()) {
+            iCacheService.async().setAsync(cacheKey, value, ttl);
+        } else {
+            iCacheService.set(cacheKey, value, ttl);
+        }
+    }
+
+    private void writeCache(Map<String, ?> values, Duration ttl) {
+        if (cacheFactory().cacheAsync()) {
+            iCacheService.async().multiSetAsync(values, ttl);
+        } else {
+            iCacheService.multiSet(values, ttl);
+        }
+    }
+
+    /**
+     * Write a model entry, as a hash of its properties when {@link CacheConfigFactory#cacheAsHash()} is on.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeModel(String cacheKey, Object value, Duration ttl) {
+        if (!cacheFactory().cacheAsHash()) {
+            writeCache(cacheKey, value, ttl);
+        } else if (cacheFactory().cacheAsync()) {
+            iCacheService.async().setHashAsync(cacheKey, (Map<String, ?>) value, ttl);
+        } else {
+            iCacheService.setHash(cacheKey, (Map<String, ?>) value, ttl);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeModels(Map<String, Object> values, Duration ttl) {
+        if (!cacheFactory().cacheAsHash()) {
+            writeCache(values, ttl);
+            return;
+        }
+        Map<String, Map<String, ?>> hashes = new LinkedHashMap<>();
+        values.forEach((cacheKey, value) -> hashes.put(cacheKey, (Map<String, ?>) value));
+        if (cacheFactory().cacheAsync()) {
+            iCacheService.async().multiSetHashAsync(hashes, ttl);
+        } else {
+            iCacheService.multiSetHash(hashes, ttl);
+        }
+    }
+
+    /**
+     * Apply a partial update to a model hash. An update that was dropped or failed is not
+     * retried: the entry is deleted instead, later partial updates would build on its stale fields.
+     */
+    private void updateModel(String cacheKey, Map<String, Object> changed, List<String> removed, Duration ttl) {
+        if (cacheFactory().cacheAsync()) {
+            iCacheService.async().updateHashAsync(cacheKey, changed, removed, ttl).thenAccept(updated -> {
+                if (updated == null) {
+                    iCacheService.async().deleteAsync(cacheKey);
+                }
+            });
+        } else if (iCacheService.updateHash(cacheKey, changed, removed, ttl) == null) {
+            iCacheService.delete(cacheKey);
+        }
+    }
+
+    private void deleteCache(String cacheKey) {
+        if (cacheFactory().cacheAsync()) {
+            iCacheService.async().deleteAsync(cacheKey);
+        } else {
+            iCacheService.delete(cacheKey);
+        }
+    }
+
+    private Object cacheValue(Object value, Duration fresh, long loadMillis) {
+        if (!cacheFactory().refreshAhead()) {
+            return value;
+        }
+        return new CacheEnvelope(value, System.currentTimeMillis() + fresh.toMillis(), loadMillis);
+    }
+
+    /**
+     * Value written for a model: its hash fields with the envelope metadata when stored as a
+     * hash, else the model, in an envelope with refresh-ahead on.
+     */
+    private Object modelValue(M value, Duration fresh, long loadMillis) {
+        if (!cacheFactory().cacheAsHash()) {
+            return cacheValue(value, fresh, loadMillis);
+        }
+        CacheEnvelope envelope = cacheFactory().refreshAhead()
+                ? new CacheEnvelope(null, System.currentTimeMillis() + fresh.toMillis(), loadMillis)
+                : null;
+        return CacheEntry.toHash(value, envelope);
+    }
+
+    private Object modelTombstone() {
+        return cacheFactory().cacheAsHash() ? CacheEntry.tombstoneHash() : TOMBSTONE;
+    }
+
+    private Duration storeTtl(Duration fresh) {
+        return cacheFactory().refreshAhead() ? fresh.plus(cacheFactory().staleTtl()) : fresh;
+    }
+
+    /**
+     * Cached entry to model, whether or not it was written in an envelope, so entries
+     * stay readable while refresh-ahead is switched on or off.
+     */
+    private M toModel(Object key, CacheEntry<M> cached) {
+        if (cached == null || cached.getValue() == null) {
+            return null;
+        }
+        if (cached.getEnvelope() != null && cacheFactory().refreshAhead() && isRefreshDue(cached.getEnvelope())) {
+            refreshModel(key);
+        }
+        return cached.getValue();
+    }
+
+    private CacheEntry<M> readEntry(String cacheKey) throws CacheException {
+        if (cacheFactory().cacheAsHash()) {
+            return CacheEntry.fromHash(iCacheService.getHash(cacheKey), cacheFactory().getModelClass());
+        }
+        return iCacheService.getCache(cacheKey, entryType());
+    }
+
+    private List<CacheEntry<M>> readEntries(List<String> cacheKeys) {
+        if (!cacheFactory().cacheAsHash()) {
+            return iCacheService.multiGet(cacheKeys, entryType());
+        }
+        List<CacheEntry<M>> entries = new ArrayList<>(cacheKeys.size());
+        for (Map<String, Object> fields : iCacheService.multiGetHash(cacheKeys)) {
+            entries.add(CacheEntry.fromHash(fields, cacheFactory().getModelClass()));
+        }
+        return entries;
+    }
+
+    /**
+     * Type of a cached model entry, decoded straight into the model class.
+     */
+    private JavaType entryType() {
+        return CacheEntry.type(cacheFactory().getModelClass());
+    }
+
+    /**
+     * Copy a model that would otherwise be shared between callers (local cache
+     * entries, coalesced loads), so a caller mutating its model never changes another's.
+     * Override with a cheaper copy (e.g. a builder) when the model allows it.
+     *
+     * @param model the model
+     * @return the copy
+     */
+    protected M copyModel(M model) {
+        return MapperUtil.convertValue(model, cacheFactory().getModelClass());
+    }
+
+    /**
+     * Local cache, or null when disabled. The first call also subscribes to
+     * invalidations broadcast by the other instances.
+     *
+     * @return the local cache
+     */
+    protected BoundedLocalCache<String, M> localCache() {
+        if (!localCacheResolved) {
+            synchronized (this) {
+                if (!localCacheResolved) {
+                    CacheConfigFactory<M> config = cacheFactory();
+                    if (config.localCache()) {
+                        localCache = new BoundedLocalCache<>(config.localCacheMaxSize(), config.localCacheTtl());
+                        iCacheService.subscribe(
+                                makeInvalidationChannel(config.getModelClass()),
+                                this::onInvalidation
+                        );
+                    }
+                    localCacheResolved = true;
+                }
+            }
+        }
+        return localCache;
+    }
+
+    private void publishInvalidation(String cacheKey) {
+        String channel = makeInvalidationChannel(cacheFactory().getModelClass());
+        String message = INSTANCE_ID + MESSAGE_SEPARATOR + cacheKey;
+        if (cacheFactory().cacheAsync()) {
+            iCacheService.async().publishAsync(channel, message);
+        } else {
+            iCacheService.publish(channel, message);
+        }
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || message.startsWith(INSTANCE_ID)) {
+            return;
+        }
+        BoundedLocalCache<String, M> local = localCache;
+        if (local == null) {
+            return;
+        }
+        String cacheKey = message.substring(separator + 1);
+        if (INVALIDATE_ALL.equals(cacheKey)) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(cacheKey);
         }
+        log.debug("Local cache invalidated for key: {}", cacheKey);
     }
 
 }
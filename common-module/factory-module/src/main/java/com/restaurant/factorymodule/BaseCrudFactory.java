@@ -5,15 +5,39 @@ import com.restaurant.data.model.IBaseModel;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.factorymodule.enums.FactoryResponseCode;
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
+import com.restaurant.factorymodule.repository.IScrollableRepository;
+import com.restaurant.factorymodule.support.KeysetCursor;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.redismodule.service.ICacheService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.util.ClassUtils;
 
+import java.beans.PropertyDescriptor;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 public abstract class BaseCrudFactory<I extends Serializable, //id model
@@ -25,6 +49,11 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
      */
     protected final R crudRepository;
 
+    /**
+     * Entity class, resolved from the type arguments on first use.
+     */
+    private volatile Class<E> entityClass;
+
     /**
      * Instantiates a new Base caching factory.
      *
@@ -44,6 +73,21 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
         return model;
     }
 
+    @Override
+    protected Map<I, M> aroundGetModels(List<I> ids) throws DataFactoryException {
+        List<K> entityIds = new ArrayList<>(ids.size());
+        for (I id : ids) {
+            entityIds.add(convertId(id));
+        }
+        Map<I, M> models = new HashMap<>();
+        for (E entity : getListEntityByIds(entityIds)) {
+            M model = convertToModel(entity);
+            postGetModel(model, entity);
+            models.put(model.getId(), model);
+        }
+        return models;
+    }
+
     @Override
     protected M aroundCreate(M model) {
         E entity = crudRepository.save(createConvertToEntity(model));
@@ -55,9 +99,13 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
     @Override
     protected M aroundUpdate(M model, IFilter filter) throws DataFactoryException, CacheException {
         E oldEntity = getEntity(model.getId(), filter).orElseThrow(() -> new DataFactoryException(notFound()));
+        // Converted before the save, which may update the loaded entity in place
+        M oldModel = secondaryKeys().isEmpty() && !cacheFactory().cacheAsHash() ? null : convertToModel(oldEntity);
+        Map<String, Object> oldKeys = secondaryKeys().isEmpty() ? Map.of() : secondaryKeyValues(oldModel);
         oldEntity = crudRepository.save(updateConvertToEntity(model, oldEntity));
         model = convertToModel(oldEntity);
-        postUpdate(model, oldEntity);
+        clearMovedSecondaryKeys(oldKeys, model);
+        postUpdate(model, oldModel, oldEntity);
         return model;
     }
 
@@ -78,6 +126,129 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
         return models;
     }
 
+    @Override
+    protected PageResult<M> aroundGetPage(IFilter filter, PageQuery query) throws DataFactoryException {
+        String sortKey = query.sortKey();
+        Sort sort = resolveSort(query);
+        ScrollPosition position = query.getCursor() == null || query.getCursor().isBlank()
+                ? ScrollPosition.keyset()
+                : KeysetCursor.decode(query.getCursor(), sortKey, keyTypes(sort));
+        Window<E> window = getWindowEntity(filter, position, sort, query.resolvedSize());
+
+        List<M> models = new ArrayList<>(window.size());
+        for (E entity : window) {
+            models.add(convertToModel(entity));
+        }
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = KeysetCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), sortKey);
+        }
+        return new PageResult<>(models, nextCursor, nextCursor != null);
+    }
+
+    @Override
+    protected Stream<M> aroundStreamModels(IFilter filter, int batchSize) throws DataFactoryException {
+        Sort sort = Sort.by(PageQuery.DEFAULT_SORT);
+        // The first window is read eagerly so an unsupported filter fails here, not mid-stream
+        Window<E> first = getWindowEntity(filter, ScrollPosition.keyset(), sort, batchSize);
+        Iterator<E> entities = new Iterator<>() {
+            private Window<E> window = first;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (index >= window.size()) {
+                    if (window.isEmpty() || !window.hasNext()) {
+                        return false;
+                    }
+                    try {
+                        window = getWindowEntity(filter, window.positionAt(window.size() - 1), sort, batchSize);
+                    } catch (DataFactoryException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                    index = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return window.getContent().get(index++);
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(entities, Spliterator.ORDERED | Spliterator.NONNULL),
+                false
+        ).map(this::convertToModel);
+    }
+
+    /**
+     * Gets one window of entities. Unfiltered windows are read through
+     * {@link IScrollableRepository}, override for filters.
+     *
+     * @param <F>      the type parameter
+     * @param filter   the filter
+     * @param position the position
+     * @param sort     the sort
+     * @param limit    the limit
+     * @return the window
+     * @throws DataFactoryException the data factory exception
+     */
+    @SuppressWarnings("unchecked")
+    protected <F extends IFilter> Window<E> getWindowEntity(F filter, ScrollPosition position, Sort sort, int limit)
+            throws DataFactoryException {
+        if (filter == null && crudRepository instanceof IScrollableRepository<?, ?> scrollable) {
+            return ((IScrollableRepository<E, K>) scrollable).findAllBy(position, sort, Limit.of(limit));
+        }
+        throw new DataFactoryException("pls Override");
+    }
+
+    /**
+     * Properties a page may be sorted by, id is always appended as tie-breaker.
+     *
+     * @return the sortable properties
+     */
+    protected Set<String> sortableProperties() {
+        return Set.of(PageQuery.DEFAULT_SORT);
+    }
+
+    private Sort resolveSort(PageQuery query) throws DataFactoryException {
+        String property = query.resolvedSort();
+        if (!sortableProperties().contains(property)) {
+            throw new DataFactoryException(FactoryResponseCode.INVALID_SORT);
+        }
+        Sort sort = Sort.by(query.resolvedDirection(), property);
+        if (!PageQuery.DEFAULT_SORT.equals(property)) {
+            sort = sort.and(Sort.by(query.resolvedDirection(), PageQuery.DEFAULT_SORT));
+        }
+        return sort;
+    }
+
+    private Map<String, Class<?>> keyTypes(Sort sort) {
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityClass(), order.getProperty());
+            types.put(order.getProperty(), descriptor == null
+                    ? Object.class
+                    : ClassUtils.resolvePrimitiveIfNecessary(descriptor.getPropertyType()));
+        }
+        return types;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<E> entityClass() {
+        Class<E> resolved = entityClass;
+        if (resolved == null) {
+            Class<?>[] arguments = GenericTypeResolver.resolveTypeArguments(getClass(), BaseCrudFactory.class);
+            resolved = (Class<E>) (arguments == null || arguments[3] == null ? Object.class : arguments[3]);
+            entityClass = resolved;
+        }
+        return resolved;
+    }
+
     /**
      * Convert to model m.
      *
@@ -104,7 +275,8 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
     protected abstract E updateConvertToEntity(M model, E oldEntity);
 
     /**
-     * Post create - Cache the newly created model and clear list cache.
+     * Post create - Cache the newly created model and clear list cache, which also
+     * drops not-found tombstones of its id and of filter lookups.
      *
      * @param model  the model
      * @param entity the entity
@@ -112,9 +284,11 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
     protected void postCreate(M model, E entity) {
         try {
             if (model != null && model.getId() != null) {
+                // Overwrites a tombstone cached for the id
                 cachePutModel(model.getId(), model);
+                cacheSecondaryKeys(model);
             }
-            // Clear list cache as the collection has changed
+            // Clear list cache as the collection has changed, filter tombstones go with it
             clearCacheListModel();
         } catch (Exception e) {
             log.warn("Failed to cache after create. Error: {}", e.getMessage());
@@ -130,6 +304,9 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
         try {
             if (entity != null && entity.getId() != null) {
                 clearCacheModelByKey(entity.getId());
+                if (!secondaryKeys().isEmpty()) {
+                    clearSecondaryKeys(secondaryKeyValues(convertToModel(entity)));
+                }
             }
             // Clear list cache as the collection has changed
             clearCacheListModel();
@@ -138,6 +315,29 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
         }
     }
 
+    /**
+     * Clear index entries of secondary key values the update moved away from, before
+     * the new ones are cached.
+     *
+     * @param oldKeys the secondary key values before the update
+     * @param model   the updated model
+     */
+    protected void clearMovedSecondaryKeys(Map<String, Object> oldKeys, M model) {
+        if (oldKeys.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Object> newKeys = secondaryKeyValues(model);
+            oldKeys.forEach((name, value) -> {
+                if (!value.equals(newKeys.get(name))) {
+                    clearCacheIndex(name, value);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to clear moved secondary keys. Error: {}", e.getMessage());
+        }
+    }
+
     /**
      * Post get model.
      *
@@ -155,12 +355,30 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
      * @throws CacheException the cache exception
      */
     protected void postUpdate(M model, E entity) throws CacheException {
+        postUpdate(model, null, entity);
+    }
+
+    /**
+     * Post update - Update the cached model and clear list cache. Models cached as hashes
+     * get only the properties changed since the old model written.
+     *
+     * @param model    the model
+     * @param oldModel the model before the update, null when unknown
+     * @param entity   the entity
+     * @throws CacheException the cache exception
+     */
+    protected void postUpdate(M model, M oldModel, E entity) throws CacheException {
         try {
             if (model != null && model.getId() != null) {
-                // Clear old cache first
-                clearCacheModelByKey(model.getId());
-                // Cache the updated model
-                cachePutModel(model.getId(), model);
+                if (cacheFactory().cacheAsHash() && oldModel != null) {
+                    cacheUpdateModel(model.getId(), oldModel, model, cacheFactory().singleTtl());
+                } else {
+                    // Clear old cache first
+                    clearCacheModelByKey(model.getId());
+                    // Cache the updated model
+                    cachePutModel(model.getId(), model);
+                }
+                cacheSecondaryKeys(model);
             }
             // Clear list cache as the data has changed
             clearCacheListModel();
@@ -201,6 +419,17 @@ public abstract class BaseCrudFactory<I extends Serializable, //id model
         return crudRepository.findAll();
     }
 
+    /**
+     * Gets entities of several ids in one query.
+     *
+     * @param ids the ids
+     * @return the entities found
+     * @throws DataFactoryException the data factory exception
+     */
+    protected Iterable<E> getListEntityByIds(Collection<K> ids) throws DataFactoryException {
+        return crudRepository.findAllById(ids);
+    }
+
     @Override
     public Long count() {
         return crudRepository.count();
@@ -5,16 +5,63 @@ import com.restaurant.data.enums.NotFound;
 import com.restaurant.data.model.IBaseModel;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.BatchResult;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
+import com.restaurant.factorymodule.model.SecondaryKey;
+import com.restaurant.factorymodule.support.SingleFlight;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.redismodule.factory.CacheConfigFactory;
 import com.restaurant.redismodule.service.ICacheService;
+import com.restaurant.utils.MapperUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.GenericTypeResolver;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 @Slf4j
 public abstract class BaseDataFactory<I extends Serializable, M extends IBaseModel<I>> extends BaseCachingFactory<M> implements IDataFactory<I, M> {
+
+    /**
+     * Runs refresh-ahead loads off the request threads, shared by all factories.
+     * Refreshes beyond its queue are skipped, the stale entry is served until the next try.
+     */
+    private static final ThreadPoolExecutor REFRESH_EXECUTOR = newRefreshExecutor();
+
+    /**
+     * Coalesces concurrent cache misses, created on first use.
+     */
+    private volatile SingleFlight singleFlight;
+
+    /**
+     * Keys with a refresh queued or running, so a hot key is refreshed once.
+     */
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Id class, resolved from the type arguments on first use.
+     */
+    private volatile Class<I> idClass;
+
     /**
      * Instantiates a new Base caching factory.
      *
@@ -53,22 +100,71 @@ public abstract class BaseDataFactory<I extends Serializable, M extends IBaseMod
         // Check cache first (Read operations cache at BaseDataFactory level)
         M model = null;
         if (id != null) {
-            model = getCacheModel(id);
+            // Throws notFound when a tombstone is cached for the id
+            model = getCacheModel(id, notFound());
+        } else if (filter != null) {
+            model = getCacheModelBySecondaryKey(filter);
         }
         if (model != null) {
-            log.info("Cache hit for key: {}", id);
+            log.info("Cache hit for key: {}", id != null ? id : model.getId());
             return model;
         }
         
         // Flow: preGetModel → aroundGetModel → postGetModel (in subclass)
         log.info("Cache miss, fetching from database for key: {}", id);
-        filter = preGetModel(id, filter);
-        model = aroundGetModel(id, filter);
-        
-        // Cache the result after successful fetch
-        if (id != null && model != null) {
+        final F preFilter = preGetModel(id, filter);
+        final Long generation = id == null && preFilter != null && cacheFactory().negativeCache()
+                ? listGeneration() : null;
+        if (generation != null && isNotFoundCached(preFilter, generation)) {
+            throw new DataFactoryException(notFound());
+        }
+        String flightKey = singleFlightKey(id, preFilter);
+        if (flightKey == null) {
+            return loadModel(id, preFilter, generation);
+        }
+        // Only one loader per key hits the database, concurrent misses wait for its result
+        return loadOnce(flightKey, () -> loadModel(id, preFilter, generation), this::copyModel);
+    }
+
+    /**
+     * Gets a model holding only the id and the given properties, read with one HMGET when it is
+     * cached as a hash, else the full model. Suits checks ahead of an update, which reads the
+     * entity anyway.
+     *
+     * @param id     the id
+     * @param fields the property names
+     * @return the model
+     * @throws CacheException       the cache exception
+     * @throws DataFactoryException the data factory exception
+     */
+    public M getModelFields(I id, List<String> fields) throws CacheException, DataFactoryException {
+        Map<String, Object> projection = getCacheModelFields(id, fields);
+        if (projection == null) {
+            return getModel(id, null);
+        }
+        Map<String, Object> properties = new LinkedHashMap<>(projection);
+        properties.put("id", id);
+        return MapperUtil.convertValue(properties, cacheFactory().getModelClass());
+    }
+
+    private M loadModel(I id, IFilter filter, Long generation) throws CacheException, DataFactoryException {
+        long start = System.nanoTime();
+        M model;
+        try {
+            model = aroundGetModel(id, filter);
+        } catch (DataFactoryException e) {
+            if (Objects.equals(e.getIBaseErrorCode(), notFound())) {
+                cacheNotFound(id, filter, generation);
+            }
+            throw e;
+        }
+
+        // Cache the result after successful fetch, a model found by filter under its own id
+        I modelId = id != null ? id : model == null ? null : model.getId();
+        if (modelId != null) {
             try {
-                cachePutModel(id, model);
+                cachePutModel(modelId, model, cacheFactory().singleTtl(), elapsedMillis(start));
+                cacheSecondaryKeys(model);
             } catch (Exception e) {
                 log.warn("Failed to cache model. Error: {}", e.getMessage());
             }
@@ -76,6 +172,121 @@ public abstract class BaseDataFactory<I extends Serializable, M extends IBaseMod
         return model;
     }
 
+    /**
+     * Secondary keys of the model, in the order the filter lookup checks them.
+     * Override to make filter lookups by a natural key hit the cache.
+     *
+     * @return the secondary keys
+     */
+    protected List<SecondaryKey<M>> secondaryKeys() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Gets the cached model a filter looks up by secondary key. Only the first key the filter
+     * has a value for is tried, as the filter lookup does; an index entry that no longer
+     * matches its model is ignored and rewritten by the filter lookup.
+     */
+    private M getCacheModelBySecondaryKey(IFilter filter) {
+        for (SecondaryKey<M> key : secondaryKeys()) {
+            Object value = key.getFromFilter().apply(filter);
+            if (value == null) {
+                continue;
+            }
+            I cachedId = getCacheIndex(key.getName(), value, idClass());
+            M model = cachedId == null ? null : getCacheModel(cachedId);
+            return model != null && Objects.equals(key.getFromModel().apply(model), value) ? model : null;
+        }
+        return null;
+    }
+
+    /**
+     * Cache the index entries of the model's secondary keys.
+     *
+     * @param model the model
+     */
+    protected void cacheSecondaryKeys(M model) {
+        if (model != null && model.getId() != null && !secondaryKeys().isEmpty()) {
+            cacheIndexes(secondaryKeyValues(model), model.getId(), cacheFactory().singleTtl());
+        }
+    }
+
+    /**
+     * Clear the index entries of secondary key values, e.g. the values of a deleted model.
+     *
+     * @param values the secondary key values by name
+     */
+    protected void clearSecondaryKeys(Map<String, Object> values) {
+        values.forEach(this::clearCacheIndex);
+    }
+
+    /**
+     * Secondary key values of the model by name, without the null ones.
+     *
+     * @param model the model
+     * @return the values
+     */
+    protected Map<String, Object> secondaryKeyValues(M model) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (SecondaryKey<M> key : secondaryKeys()) {
+            Object value = key.getFromModel().apply(model);
+            if (value != null) {
+                values.put(key.getName(), value);
+            }
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<I> idClass() {
+        Class<I> resolved = idClass;
+        if (resolved == null) {
+            Class<?>[] arguments = GenericTypeResolver.resolveTypeArguments(getClass(), BaseDataFactory.class);
+            resolved = (Class<I>) (arguments == null || arguments[0] == null ? Object.class : arguments[0]);
+            idClass = resolved;
+        }
+        return resolved;
+    }
+
+    @Override
+    public BatchResult<I, M> getModels(Collection<I> ids) throws CacheException, DataFactoryException {
+        Set<I> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+
+        Set<I> tombstone = new HashSet<>();
+        Map<I, M> found = new HashMap<>(getCacheModels(distinctIds, tombstone));
+        List<I> misses = new ArrayList<>();
+        for (I id : distinctIds) {
+            if (!found.containsKey(id) && !tombstone.contains(id)) {
+                misses.add(id);
+            }
+        }
+        log.debug("Batch cache hit {}/{}", found.size(), distinctIds.size());
+
+        if (!misses.isEmpty()) {
+            Map<I, M> loaded = aroundGetModels(misses);
+            found.putAll(loaded);
+            try {
+                cachePutModels(loaded, cacheFactory().singleTtl());
+                cacheNotFound(misses.stream().filter(id -> !loaded.containsKey(id)).toList());
+            } catch (Exception e) {
+                log.warn("Failed to cache models. Error: {}", e.getMessage());
+            }
+        }
+
+        List<M> models = new ArrayList<>(found.size());
+        List<I> missingIds = new ArrayList<>();
+        for (I id : distinctIds) {
+            M model = found.get(id);
+            if (model != null) {
+                models.add(model);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BatchResult<>(models, missingIds);
+    }
+
     @Override
     public <F extends IFilter> M getModel(F filter) throws CacheException, DataFactoryException {
         return getModel(null, filter);
@@ -95,7 +306,8 @@ public abstract class BaseDataFactory<I extends Serializable, M extends IBaseMod
     @Override
     public <F extends IFilter> List<M> getList(F iFilter) throws CacheException, DataFactoryException {
         // Check cache first (Read operations cache at BaseDataFactory level)
-        List<M> models = getCacheListModel(iFilter);
+        final Long generation = listGeneration();
+        List<M> models = getCacheListModel(iFilter, generation);
         if (!models.isEmpty()) {
             log.debug("Cache hit for list with filter: {}", iFilter);
             return models;
@@ -103,12 +315,21 @@ public abstract class BaseDataFactory<I extends Serializable, M extends IBaseMod
         
         // Flow: preGetList (optional) → aroundGetListModel → postGetList (optional)
         log.debug("Cache miss, fetching list from database with filter: {}", iFilter);
-        models = aroundGetListModel(iFilter);
-        
-        // Cache the result after successful fetch
+        final String flightKey = generation == null ? null : listFlightKey(iFilter, generation);
+        if (flightKey == null) {
+            return loadList(iFilter, generation);
+        }
+        return loadOnce(flightKey, () -> loadList(iFilter, generation), this::copyModels);
+    }
+
+    private List<M> loadList(IFilter iFilter, Long generation) throws CacheException, DataFactoryException {
+        long start = System.nanoTime();
+        List<M> models = aroundGetListModel(iFilter);
+
+        // Cache the result after successful fetch, under the generation it was read in
         if (models != null && !models.isEmpty()) {
             try {
-                cacheListModel(iFilter, models);
+                cacheListModel(iFilter, models, cacheFactory().cacheListTtl(), generation, elapsedMillis(start));
             } catch (Exception e) {
                 log.warn("Failed to cache list. Error: {}", e.getMessage());
             }
@@ -121,6 +342,156 @@ public abstract class BaseDataFactory<I extends Serializable, M extends IBaseMod
         return getList(null);
     }
 
+    @Override
+    public <F extends IFilter> PageResult<M> getPage(F iFilter, PageQuery query) throws CacheException, DataFactoryException {
+        final PageQuery pageQuery = query == null ? new PageQuery() : query;
+        final Long generation = listGeneration();
+        PageResult<M> page = getCachePage(iFilter, pageQuery, generation);
+        if (page != null) {
+            log.debug("Cache hit for page {} with filter: {}", pageQuery.fingerprint(), iFilter);
+            return page;
+        }
+
+        page = aroundGetPage(iFilter, pageQuery);
+        try {
+            cachePage(iFilter, pageQuery, page, cacheFactory().cacheListTtl(), generation);
+        } catch (Exception e) {
+            log.warn("Failed to cache page. Error: {}", e.getMessage());
+        }
+        return page;
+    }
+
+    @Override
+    public <F extends IFilter> Stream<M> streamModels(F iFilter, int batchSize) throws DataFactoryException {
+        return aroundStreamModels(iFilter, PageQuery.clampSize(batchSize));
+    }
+
+    /**
+     * Single flight used to coalesce cache misses of this factory.
+     *
+     * @return the single flight
+     */
+    public SingleFlight singleFlight() {
+        SingleFlight current = singleFlight;
+        if (current == null) {
+            synchronized (this) {
+                current = singleFlight;
+                if (current == null) {
+                    current = new SingleFlight(cacheFactory().getModelClass().getSimpleName());
+                    singleFlight = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Single flight key, null when the lookup cannot be keyed and must not be coalesced.
+     *
+     * @param id     the id
+     * @param filter the filter
+     * @return the key
+     */
+    protected String singleFlightKey(I id, IFilter filter) {
+        if (id != null) {
+            return makeSingleKeyCache(id, cacheFactory().getModelClass());
+        }
+        if (filter != null) {
+            String filterKey = makeKeyFilter(cacheFactory().getModelClass(), filter);
+            return filterKey == null ? null : filterKey + getSpecial() + "model";
+        }
+        return null;
+    }
+
+    /**
+     * Single flight key of a list load within a generation, null when the filter cannot be keyed.
+     *
+     * @param filter     the filter
+     * @param generation the generation
+     * @return the key
+     */
+    protected String listFlightKey(IFilter filter, long generation) {
+        String filterKey = makeKeyFilter(cacheFactory().getModelClass(), filter);
+        return filterKey == null ? null : filterKey + getSpecial() + "list" + getSpecial() + "g" + generation;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void refreshModel(Object key) {
+        final I id = (I) key;
+        final String flightKey = makeSingleKeyCache(id, cacheFactory().getModelClass());
+        scheduleRefresh(flightKey, () -> loadOnce(flightKey, () -> loadModel(id, null, null), UnaryOperator.identity()));
+    }
+
+    @Override
+    protected void refreshList(IFilter filter, long generation) {
+        final String flightKey = listFlightKey(filter, generation);
+        if (flightKey == null) {
+            return;
+        }
+        scheduleRefresh(flightKey, () -> loadOnce(flightKey, () -> loadList(filter, generation), UnaryOperator.identity()));
+    }
+
+    private void scheduleRefresh(String key, SingleFlight.Loader<?> refresh) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            REFRESH_EXECUTOR.execute(() -> {
+                try {
+                    refresh.load();
+                    log.debug("Refreshed ahead key: {}", key);
+                } catch (Exception e) {
+                    log.warn("Refresh ahead failed for key: {}. Error: {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("Refresh ahead queue full, skipped key: {}", key);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static ThreadPoolExecutor newRefreshExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(256),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cache-refresh-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    private List<M> copyModels(List<M> models) {
+        List<M> copies = new ArrayList<>(models.size());
+        for (M model : models) {
+            copies.add(copyModel(model));
+        }
+        return copies;
+    }
+
+    private <V> V loadOnce(String key, SingleFlight.Loader<V> loader, UnaryOperator<V> followerCopy)
+            throws CacheException, DataFactoryException {
+        try {
+            return singleFlight().execute(key, loader, followerCopy);
+        } catch (CacheException | DataFactoryException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            throw new DataFactoryException("Interrupted while waiting for load of key: " + key);
+        } catch (Exception e) {
+            throw new DataFactoryException(e.getMessage());
+        }
+    }
+
     /**
      * Pre create m.
      *
@@ -214,6 +585,55 @@ public abstract class BaseDataFactory<I extends Serializable, M extends IBaseMod
      */
     protected abstract M aroundGetModel(I id, IFilter filter) throws DataFactoryException;
 
+    /**
+     * Around get models of several ids, ids not found are left out of the result.
+     * Loads one id at a time by default, override with a single query where possible.
+     *
+     * @param ids the ids
+     * @return the models by id
+     * @throws DataFactoryException the data factory exception
+     */
+    protected Map<I, M> aroundGetModels(List<I> ids) throws DataFactoryException {
+        Map<I, M> models = new HashMap<>();
+        for (I id : ids) {
+            try {
+                M model = aroundGetModel(id, null);
+                if (model != null) {
+                    models.put(id, model);
+                }
+            } catch (DataFactoryException e) {
+                if (!Objects.equals(e.getIBaseErrorCode(), notFound())) {
+                    throw e;
+                }
+            }
+        }
+        return models;
+    }
+
+    /**
+     * Around get page.
+     *
+     * @param filter the filter
+     * @param query  the page query
+     * @return the page
+     * @throws DataFactoryException the data factory exception
+     */
+    protected PageResult<M> aroundGetPage(IFilter filter, PageQuery query) throws DataFactoryException {
+        throw new DataFactoryException("pls Override");
+    }
+
+    /**
+     * Around stream models.
+     *
+     * @param filter    the filter
+     * @param batchSize the batch size
+     * @return the stream
+     * @throws DataFactoryException the data factory exception
+     */
+    protected Stream<M> aroundStreamModels(IFilter filter, int batchSize) throws DataFactoryException {
+        throw new DataFactoryException("pls Override");
+    }
+
     /**
      * Around get list model m.
      *
@@ -3,10 +3,15 @@ package com.restaurant.factorymodule;
 import com.restaurant.data.model.IBaseModel;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.BatchResult;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.redismodule.exception.CacheException;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * The interface Data factory.
@@ -101,6 +106,16 @@ public interface IDataFactory <I extends Serializable, M extends IBaseModel<I>>
      */
     <F extends IFilter> M getModel(F filter) throws CacheException, DataFactoryException;
 
+    /**
+     * Gets models of several ids with one cache round trip and one query for the misses.
+     *
+     * @param ids the ids
+     * @return the models in id order and the ids not found
+     * @throws CacheException       the cache exception
+     * @throws DataFactoryException the data factory exception
+     */
+    BatchResult<I, M> getModels(Collection<I> ids) throws CacheException, DataFactoryException;
+
     /**
      * Update m.
      *
@@ -143,4 +158,28 @@ public interface IDataFactory <I extends Serializable, M extends IBaseModel<I>>
      */
     List<M> getList() throws CacheException, DataFactoryException;
 
+    /**
+     * Gets one page of the list, keyset paged by the query's sort key.
+     *
+     * @param <F>     the type parameter
+     * @param iFilter the filter
+     * @param query   the page query
+     * @return the page
+     * @throws CacheException       the cache exception
+     * @throws DataFactoryException the data factory exception
+     */
+    <F extends IFilter> PageResult<M> getPage(F iFilter, PageQuery query) throws CacheException, DataFactoryException;
+
+    /**
+     * Stream the whole list in id order, fetching one window of batchSize at a time,
+     * so large tables are walked without holding them in memory. Not cached.
+     *
+     * @param <F>       the type parameter
+     * @param iFilter   the filter
+     * @param batchSize the batch size
+     * @return the stream
+     * @throws DataFactoryException the data factory exception
+     */
+    <F extends IFilter> Stream<M> streamModels(F iFilter, int batchSize) throws DataFactoryException;
+
 }
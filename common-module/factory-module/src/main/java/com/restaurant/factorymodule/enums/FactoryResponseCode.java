@@ -14,6 +14,16 @@ public enum FactoryResponseCode implements IBaseErrorCode {
      * Convert id fail factory response code.
      */
     CONVERT_ID_FAIL("96", "CONVERT_ID_FAIL", 400),
+
+    /**
+     * Invalid cursor factory response code.
+     */
+    INVALID_CURSOR("96", "INVALID_CURSOR", 400),
+
+    /**
+     * Invalid sort factory response code.
+     */
+    INVALID_SORT("96", "INVALID_SORT", 400),
     ;
     private final String errorCode;
     private final String messageCode;
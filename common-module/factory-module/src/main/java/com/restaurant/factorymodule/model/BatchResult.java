@@ -0,0 +1,37 @@
+package com.restaurant.factorymodule.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Result of a batch read by ids.
+ *
+ * @param <I> Id
+ * @param <M> Model
+ * @author namdx.
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResult<I, M> {
+
+    /**
+     * Models found, in the order of the requested ids.
+     */
+    private final List<M> models;
+
+    /**
+     * Requested ids without a model, in request order.
+     */
+    private final List<I> missingIds;
+
+    /**
+     * Whether every requested id was found.
+     *
+     * @return the boolean
+     */
+    public boolean isComplete() {
+        return missingIds.isEmpty();
+    }
+}
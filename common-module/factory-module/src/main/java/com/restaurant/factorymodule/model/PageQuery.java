@@ -0,0 +1,114 @@
+package com.restaurant.factorymodule.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.util.Objects;
+
+/**
+ * Page request of a keyset paged list.
+ *
+ * @author namdx.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageQuery {
+
+    /**
+     * The constant DEFAULT_SIZE.
+     */
+    public static final int DEFAULT_SIZE = 20;
+
+    /**
+     * The constant MAX_SIZE.
+     */
+    public static final int MAX_SIZE = 200;
+
+    /**
+     * The constant DEFAULT_SORT.
+     */
+    public static final String DEFAULT_SORT = "id";
+
+    /**
+     * Cursor returned with the previous page, null for the first page.
+     */
+    private String cursor;
+
+    /**
+     * Page size.
+     */
+    private Integer size;
+
+    /**
+     * Sort property.
+     */
+    private String sort;
+
+    /**
+     * Sort direction.
+     */
+    private Sort.Direction direction;
+
+    /**
+     * Page size within [1, MAX_SIZE].
+     *
+     * @return the size
+     */
+    public int resolvedSize() {
+        return clampSize(size);
+    }
+
+    /**
+     * Sort property, id when none is given.
+     *
+     * @return the sort property
+     */
+    public String resolvedSort() {
+        return sort == null || sort.isBlank() ? DEFAULT_SORT : sort;
+    }
+
+    /**
+     * Sort direction, ascending when none is given.
+     *
+     * @return the direction
+     */
+    public Sort.Direction resolvedDirection() {
+        return direction == null ? Sort.Direction.ASC : direction;
+    }
+
+    /**
+     * Sort key, also bound into cursors so a cursor is only valid for the sort it was issued for.
+     *
+     * @return the sort key
+     */
+    public String sortKey() {
+        return resolvedSort() + "," + resolvedDirection();
+    }
+
+    /**
+     * Identifies the page, used in cache keys.
+     *
+     * @return the fingerprint
+     */
+    public String fingerprint() {
+        return resolvedSize() + ":" + sortKey() + ":" + Objects.toString(cursor, "");
+    }
+
+    /**
+     * Clamp a page size within [1, MAX_SIZE].
+     *
+     * @param size the size
+     * @return the size
+     */
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.factorymodule.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset paged list.
+ *
+ * @param <M> Model
+ * @author namdx.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResult<M> {
+
+    /**
+     * Models of the page.
+     */
+    private List<M> items;
+
+    /**
+     * Cursor of the next page, null on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether a next page exists.
+     */
+    private boolean hasNext;
+}
@@ -0,0 +1,37 @@
+package com.restaurant.factorymodule.model;
+
+import com.restaurant.data.model.IFilter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * Natural key identifying one model besides its id (email, user id, confirmation code...).
+ * A filter lookup by the key resolves to the id through a small cache entry.
+ * <p>
+ * Only declare keys whose filter lookup is by that key alone: when {@link #fromFilter}
+ * gives a value, the filter must select exactly the model whose {@link #fromModel} equals it.
+ *
+ * @param <M> Model
+ * @author namdx.
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class SecondaryKey<M> {
+
+    /**
+     * Name of the key, part of the cache key of its index entries.
+     */
+    private final String name;
+
+    /**
+     * Value of the key in a filter, null when the filter does not look up by it.
+     */
+    private final Function<IFilter, Object> fromFilter;
+
+    /**
+     * Value of the key in a model.
+     */
+    private final Function<M, Object> fromModel;
+}
@@ -0,0 +1,29 @@
+package com.restaurant.factorymodule.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Repository mixin giving {@link com.restaurant.factorymodule.BaseCrudFactory} keyset paging.
+ *
+ * @param <E> Entity
+ * @param <K> Id entity
+ * @author namdx.
+ */
+@NoRepositoryBean
+public interface IScrollableRepository<E, K> extends Repository<E, K> {
+
+    /**
+     * Find one window of all entities.
+     *
+     * @param position the position
+     * @param sort     the sort
+     * @param limit    the limit
+     * @return the window
+     */
+    Window<E> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+}
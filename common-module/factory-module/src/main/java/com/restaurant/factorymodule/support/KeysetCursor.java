@@ -0,0 +1,121 @@
+package com.restaurant.factorymodule.support;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.restaurant.factorymodule.enums.FactoryResponseCode;
+import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.utils.MapperUtil;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque cursor tokens for keyset positions.
+ * <p>
+ * A token is the base64url JSON of the sort key and the typed keyset values, so it can be
+ * bound back to the query parameters. Only the value types below are accepted, and a token is
+ * only decoded when it carries exactly the keys of the sort, each of the property's type.
+ *
+ * @author namdx.
+ */
+public final class KeysetCursor {
+
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            "Long", Long.class,
+            "Integer", Integer.class,
+            "String", String.class,
+            "Boolean", Boolean.class,
+            "BigDecimal", BigDecimal.class,
+            "UUID", UUID.class,
+            "Instant", Instant.class,
+            "LocalDate", LocalDate.class,
+            "LocalTime", LocalTime.class,
+            "LocalDateTime", LocalDateTime.class
+    );
+
+    private static final String SORT = "s";
+    private static final String KEYS = "k";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encode a keyset position into a cursor token.
+     *
+     * @param position the position
+     * @param sortKey  the sort key the position belongs to
+     * @return the token
+     * @throws DataFactoryException the data factory exception
+     */
+    public static String encode(KeysetScrollPosition position, String sortKey) throws DataFactoryException {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> key : position.getKeys().entrySet()) {
+            Object value = key.getValue();
+            if (value == null || !TYPES.containsKey(value.getClass().getSimpleName())) {
+                throw new DataFactoryException(FactoryResponseCode.INVALID_SORT);
+            }
+            // Decimals as text, a JSON number would be read back as a double and lose digits
+            Object encoded = value instanceof BigDecimal decimal ? decimal.toString() : value;
+            keys.put(key.getKey(), List.of(value.getClass().getSimpleName(), encoded));
+        }
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put(SORT, sortKey);
+        token.put(KEYS, keys);
+        try {
+            byte[] json = MapperUtil.writeValueAsString(token).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new DataFactoryException(FactoryResponseCode.INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Decode a cursor token issued for the given sort key.
+     *
+     * @param cursor   the token
+     * @param sortKey  the sort key
+     * @param keyTypes the sorted properties and their types, {@code Object} when unknown
+     * @return the position
+     * @throws DataFactoryException when the token is malformed, was issued for another sort or its keys do not match it
+     */
+    public static KeysetScrollPosition decode(String cursor, String sortKey, Map<String, Class<?>> keyTypes)
+            throws DataFactoryException {
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> token = MapperUtil.readValue(json, new TypeReference<>() {
+            });
+            if (token == null || !sortKey.equals(token.get(SORT)) || !(token.get(KEYS) instanceof Map<?, ?> keys)
+                    || !keyTypes.keySet().equals(keys.keySet())) {
+                throw new DataFactoryException(FactoryResponseCode.INVALID_CURSOR);
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> key : keys.entrySet()) {
+                if (!(key.getValue() instanceof List<?> typed) || typed.size() != 2) {
+                    throw new DataFactoryException(FactoryResponseCode.INVALID_CURSOR);
+                }
+                Class<?> type = TYPES.get(String.valueOf(typed.get(0)));
+                Object value = type == null ? null : MapperUtil.convertValue(typed.get(1), type);
+                // A value the property cannot hold would only fail later, binding the query
+                if (value == null || !keyTypes.get(String.valueOf(key.getKey())).isInstance(value)) {
+                    throw new DataFactoryException(FactoryResponseCode.INVALID_CURSOR);
+                }
+                values.put(String.valueOf(key.getKey()), value);
+            }
+            return ScrollPosition.forward(values);
+        } catch (DataFactoryException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataFactoryException(FactoryResponseCode.INVALID_CURSOR);
+        }
+    }
+}
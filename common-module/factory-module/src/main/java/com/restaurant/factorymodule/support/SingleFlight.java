@@ -0,0 +1,137 @@
+package com.restaurant.factorymodule.support;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader,
+ * callers arriving while it is in flight wait for and share its result (or exception).
+ *
+ * @author namdx.
+ */
+@Slf4j
+public class SingleFlight {
+
+    /**
+     * Metric name of the load counters.
+     */
+    public static final String METRIC_NAME = "factory.cache.load";
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder loaded = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Instantiates a new Single flight and registers its counters, tagged by model name.
+     *
+     * @param name the model name
+     */
+    public SingleFlight(String name) {
+        FunctionCounter.builder(METRIC_NAME, loaded, LongAdder::sum)
+                .description("Cache misses that ran the loader")
+                .tags("model", name, "result", "loaded")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder(METRIC_NAME, coalesced, LongAdder::sum)
+                .description("Cache misses that waited on an in-flight loader")
+                .tags("model", name, "result", "coalesced")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Run the loader for the key, or join the load already in flight for it.
+     *
+     * @param <V>    the type parameter
+     * @param key    the key
+     * @param loader the loader
+     * @return the value
+     * @throws Exception the exception thrown by the loader
+     */
+    public <V> V execute(String key, Loader<V> loader) throws Exception {
+        return execute(key, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * Run the loader for the key, or join the load already in flight for it.
+     * Callers that joined receive {@code followerCopy} applied to the shared result.
+     *
+     * @param <V>          the type parameter
+     * @param key          the key
+     * @param loader       the loader
+     * @param followerCopy the copy applied for callers that joined
+     * @return the value
+     * @throws Exception the exception thrown by the loader
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String key, Loader<V> loader, UnaryOperator<V> followerCopy) throws Exception {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("Coalesced load for key: {}", key);
+            V shared = (V) await(existing);
+            return shared == null ? null : followerCopy.apply(shared);
+        }
+        loaded.increment();
+        try {
+            V value = loader.load();
+            own.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public long getLoadedCount() {
+        return loaded.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException | CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * The interface Loader.
+     *
+     * @param <V> the type parameter
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        /**
+         * Load v.
+         *
+         * @return the v
+         * @throws Exception the exception
+         */
+        V load() throws Exception;
+    }
+}
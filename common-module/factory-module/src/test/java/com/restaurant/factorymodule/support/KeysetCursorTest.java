@@ -0,0 +1,146 @@
+package com.restaurant.factorymodule.support;
+
+import com.restaurant.factorymodule.enums.FactoryResponseCode;
+import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.utils.MapperUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    private static final String SORT = "createdAt:desc,id:asc";
+    private static final Map<String, Class<?>> KEYS = keyTypes();
+    private static final Map<String, Class<?>> ID = Map.of("id", Long.class);
+
+    @Test
+    void roundTripKeepsValuesAndTypes() throws Exception {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("id", 42L);
+        keys.put("rank", 7);
+        keys.put("name", "pho bo");
+        keys.put("active", true);
+        keys.put("price", new BigDecimal("12345678901234567.50"));
+        keys.put("uuid", UUID.fromString("8f14e45f-ceea-467f-a0e6-2d1a2b3c4d5e"));
+        keys.put("instant", Instant.parse("2026-01-02T03:04:05.123Z"));
+        keys.put("createdAt", LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+
+        String cursor = KeysetCursor.encode(ScrollPosition.forward(keys), SORT);
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        keys.forEach((name, value) -> types.put(name, value.getClass()));
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, SORT, types);
+
+        assertEquals(keys, position.getKeys());
+        assertEquals(List.copyOf(keys.keySet()), List.copyOf(position.getKeys().keySet()));
+    }
+
+    @Test
+    void unsupportedValueTypeIsInvalidSort() {
+        KeysetScrollPosition position = ScrollPosition.forward(Map.of("tags", List.of("a")));
+
+        assertCode(FactoryResponseCode.INVALID_SORT, () -> KeysetCursor.encode(position, SORT));
+    }
+
+    @Test
+    void cursorOfAnotherSortIsInvalid() throws Exception {
+        String cursor = KeysetCursor.encode(position(), SORT);
+
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(cursor, "id:asc", Map.of("id", Long.class)));
+    }
+
+    @Test
+    void keysMustBeThoseOfTheSort() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+        Map<String, Object> extra = new LinkedHashMap<>();
+        extra.put("createdAt", List.of("LocalDateTime", createdAt.toString()));
+        extra.put("id", List.of("Long", 1));
+        extra.put("price", List.of("Long", 1));
+
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(Map.of("s", SORT, "k", extra)), SORT, KEYS));
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(Map.of("s", SORT, "k", Map.of("id", List.of("Long", 1)))), SORT, KEYS));
+        assertCode(FactoryResponseCode.INVALID_CURSOR, () -> KeysetCursor.decode(token(Map.of("s", SORT, "k",
+                Map.of("id", List.of("Long", 1), "updatedAt", List.of("LocalDateTime", createdAt.toString())))),
+                SORT, KEYS));
+    }
+
+    @Test
+    void keyOfAnotherTypeIsInvalid() {
+        assertCode(FactoryResponseCode.INVALID_CURSOR, () -> KeysetCursor.decode(token(Map.of("s", SORT, "k",
+                Map.of("createdAt", List.of("String", "yesterday"), "id", List.of("Long", 1)))), SORT, KEYS));
+        assertCode(FactoryResponseCode.INVALID_CURSOR, () -> KeysetCursor.decode(token(Map.of("s", SORT, "k",
+                Map.of("createdAt", List.of("LocalDateTime", "2026-01-02T03:04:05"), "id", List.of("Integer", 1)))),
+                SORT, KEYS));
+    }
+
+    @Test
+    void unknownPropertyTypeAcceptsAnySupportedValue() throws Exception {
+        String cursor = KeysetCursor.encode(ScrollPosition.forward(Map.of("id", 1L)), "id:asc");
+
+        assertEquals(Map.of("id", 1L),
+                KeysetCursor.decode(cursor, "id:asc", Map.of("id", Object.class)).getKeys());
+    }
+
+    @Test
+    void tamperedCursorIsInvalid() throws Exception {
+        String cursor = KeysetCursor.encode(position(), SORT);
+        String truncated = cursor.substring(0, cursor.length() - 3);
+
+        assertCode(FactoryResponseCode.INVALID_CURSOR, () -> KeysetCursor.decode(truncated, SORT, KEYS));
+        assertCode(FactoryResponseCode.INVALID_CURSOR, () -> KeysetCursor.decode("not*base64!", SORT, KEYS));
+        assertCode(FactoryResponseCode.INVALID_CURSOR, () -> KeysetCursor.decode("", SORT, KEYS));
+    }
+
+    @Test
+    void forgedValuesAreInvalid() {
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(Map.of("s", SORT, "k", Map.of("id", List.of("Object", 1)))), SORT, ID));
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(Map.of("s", SORT, "k", Map.of("id", List.of("Long", "one")))), SORT, ID));
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(Map.of("s", SORT, "k", Map.of("id", List.of("Long")))), SORT, ID));
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(Map.of("s", SORT, "k", List.of(1))), SORT, ID));
+        assertCode(FactoryResponseCode.INVALID_CURSOR,
+                () -> KeysetCursor.decode(token(List.of(SORT)), SORT, ID));
+    }
+
+    private static KeysetScrollPosition position() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        keys.put("id", 1L);
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Map<String, Class<?>> keyTypes() {
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        types.put("createdAt", LocalDateTime.class);
+        types.put("id", Long.class);
+        return types;
+    }
+
+    private static String token(Object value) throws Exception {
+        byte[] json = MapperUtil.writeValueAsString(value).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    }
+
+    private static void assertCode(FactoryResponseCode code, org.junit.jupiter.api.function.Executable executable) {
+        assertSame(code, assertThrows(DataFactoryException.class, executable).getIBaseErrorCode());
+    }
+}
@@ -0,0 +1,103 @@
+package com.restaurant.factorymodule.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void followersReceiveCopiesOfTheLeaderResult() throws Exception {
+        SingleFlight singleFlight = new SingleFlight("follower_copy");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<String> loaded = new ArrayList<>(List.of("a", "b"));
+
+        Future<List<String>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return loaded;
+        }, ArrayList::new));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Future<List<String>> follower = executor.submit(() -> singleFlight.execute("key", () -> {
+            loads.incrementAndGet();
+            return List.of();
+        }, ArrayList::new));
+        awaitCoalesced(singleFlight, 1);
+        release.countDown();
+
+        assertSame(loaded, leader.get(5, TimeUnit.SECONDS));
+        List<String> copy = follower.get(5, TimeUnit.SECONDS);
+        assertNotSame(loaded, copy);
+        assertEquals(loaded, copy);
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getLoadedCount());
+    }
+
+    @Test
+    void followersReceiveTheLeaderException() throws Exception {
+        SingleFlight singleFlight = new SingleFlight("follower_exception");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("load failed");
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            throw failure;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        Future<String> follower = executor.submit(() -> singleFlight.execute("key", () -> "unused"));
+        awaitCoalesced(singleFlight, 1);
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS)).getCause());
+    }
+
+    @Test
+    void keyIsReleasedAfterTheLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight("released");
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("load failed");
+        }));
+        assertEquals("loaded", singleFlight.execute("key", () -> "loaded"));
+        assertEquals(2, singleFlight.getLoadedCount());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    private static void awaitCoalesced(SingleFlight singleFlight, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalescedCount() < expected) {
+            assertTrue(System.nanoTime() < deadline, "follower never joined the load");
+            Thread.sleep(5);
+        }
+    }
+}
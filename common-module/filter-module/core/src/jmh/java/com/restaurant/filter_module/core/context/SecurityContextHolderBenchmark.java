@@ -0,0 +1,97 @@
+package com.restaurant.filter_module.core.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Security context handling of one request, as the filters and the layers below them use it: the
+ * one-per-request filter, SecurityContextFilter and JwtSecurityFilter each set the context, then
+ * the rate limiter, session interceptor, controller and Feign interceptor read it.
+ * <p>
+ * legacyRequest replays the supplier-holding strategy, which allocates a lambda per set; request
+ * is the current strategy. Both start each request from an empty context and clear it at the end,
+ * so no request sees the context of the previous one on the thread. Run with -prof gc to compare
+ * the allocation per request.
+ *
+ * @author namdx.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityContextHolderBenchmark {
+
+    private static final int SETS = 3;
+    private static final int READS = 4;
+
+    private final LegacyStrategy legacy = new LegacyStrategy();
+    private final ThreadLocalContextHolderStrategy strategy = new ThreadLocalContextHolderStrategy();
+
+    @Benchmark
+    public void legacyRequest(Blackhole blackhole) {
+        SecurityContext context = legacy.getContext();
+        for (int i = 0; i < SETS; i++) {
+            legacy.setContext(context);
+        }
+        for (int i = 0; i < READS; i++) {
+            blackhole.consume(legacy.getContext().getUserId());
+        }
+        legacy.clearContext();
+    }
+
+    @Benchmark
+    public void request(Blackhole blackhole) {
+        SecurityContext context = strategy.createEmptyContext();
+        for (int i = 0; i < SETS; i++) {
+            strategy.setContext(context);
+        }
+        for (int i = 0; i < READS; i++) {
+            blackhole.consume(strategy.getContext().getUserId());
+        }
+        strategy.clearContext();
+    }
+
+    @Benchmark
+    public Runnable wrapTask() {
+        return SecurityContextTaskDecorator.wrap(() -> {
+        });
+    }
+
+    /**
+     * The thread local strategy as it was, holding a supplier of the context.
+     */
+    private static final class LegacyStrategy {
+        private final ThreadLocal<Supplier<SecurityContext>> contextHolder = new ThreadLocal<>();
+
+        SecurityContext getContext() {
+            Supplier<SecurityContext> result = contextHolder.get();
+            if (result == null) {
+                SecurityContext context = new DefaultSecurityContext();
+                result = () -> context;
+                contextHolder.set(result);
+            }
+            return result.get();
+        }
+
+        void setContext(SecurityContext context) {
+            contextHolder.set(() -> context);
+        }
+
+        void clearContext() {
+            contextHolder.remove();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.restaurant.filter_module.core.endpoint;
+
+import com.restaurant.filter_module.core.entity.EndpointEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint lookup through {@link EndpointRouteTrie} against the linear AntPathMatcher scan it
+ * replaced, over a table of literal, {var}, wildcard and ** patterns spread over services. Each
+ * invocation looks up the same mix of requests: hits near the start, the middle and the end of
+ * the table, and a miss that the scan has to walk the whole table for.
+ * <p>
+ * Run with -prof gc to see the allocation rate of each lookup.
+ *
+ * @author namdx.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EndpointLookupBenchmark {
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", EndpointRouteTrie.ANY_METHOD};
+    private static final int RESOURCES_PER_SERVICE = 10;
+
+    @Param({"50", "500", "5000"})
+    private int endpoints;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private List<EndpointEntity> table;
+    private EndpointRouteTrie trie;
+    private String[] paths;
+    private String[] methods;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        table = new ArrayList<>(endpoints);
+        for (int i = 0; i < endpoints; i++) {
+            table.add(EndpointEntity.builder()
+                    .id((long) i)
+                    .endpoint("endpoint-" + i)
+                    .pathPattern(pattern(i))
+                    .method(METHODS[i % METHODS.length])
+                    .securityType("PUBLIC")
+                    .build());
+        }
+        trie = EndpointRouteTrie.compile(table);
+
+        int last = endpoints - 1;
+        paths = new String[]{
+                requestPath(0), requestPath(endpoints / 2), requestPath(last),
+                "/api/v1/unknown/resource/42"};
+        methods = new String[]{
+                requestMethod(0), requestMethod(endpoints / 2), requestMethod(last), "GET"};
+    }
+
+    @Benchmark
+    public void linearScan(Blackhole blackhole) {
+        for (int i = 0; i < paths.length; i++) {
+            blackhole.consume(scan(paths[i], methods[i]));
+        }
+    }
+
+    @Benchmark
+    public void routeTrie(Blackhole blackhole) {
+        for (int i = 0; i < paths.length; i++) {
+            blackhole.consume(trie.find(paths[i], methods[i]));
+        }
+    }
+
+    /**
+     * The lookup DatabaseEndpointSupporter did before the trie, without its per-match logging.
+     */
+    private EndpointEntity scan(String endpoint, String method) {
+        for (EndpointEntity entity : table) {
+            String pattern = entity.getPathPattern();
+            if (pattern == null || !pathMatcher.match(pattern, endpoint)) {
+                continue;
+            }
+            String configMethod = entity.getMethod();
+            if ("ALL".equalsIgnoreCase(configMethod) || (configMethod != null && configMethod.equalsIgnoreCase(method))) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Patterns of service s and resource r, one shape in four per index.
+     */
+    private static String pattern(int index) {
+        String base = "/api/v1/service-" + index / RESOURCES_PER_SERVICE + "/resource-" + index % RESOURCES_PER_SERVICE;
+        return switch (index % 4) {
+            case 0 -> base;
+            case 1 -> base + "/{id}";
+            case 2 -> base + "/*/items";
+            default -> base + "/**";
+        };
+    }
+
+    private static String requestPath(int index) {
+        String base = "/api/v1/service-" + index / RESOURCES_PER_SERVICE + "/resource-" + index % RESOURCES_PER_SERVICE;
+        return switch (index % 4) {
+            case 0 -> base;
+            case 1 -> base + "/42";
+            case 2 -> base + "/42/items";
+            default -> base + "/42/items/7";
+        };
+    }
+
+    private static String requestMethod(int index) {
+        String method = METHODS[index % METHODS.length];
+        return EndpointRouteTrie.ANY_METHOD.equals(method) ? "GET" : method;
+    }
+}
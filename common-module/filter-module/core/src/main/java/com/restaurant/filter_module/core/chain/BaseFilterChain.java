@@ -1,10 +1,10 @@
 package com.restaurant.filter_module.core.chain;
 
+import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.FilterRequest;
 import com.restaurant.filter_module.core.filter.FilterResponse;
 
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -13,6 +13,7 @@ import java.util.List;
 public abstract class BaseFilterChain implements MvcFilterChain {
 
     private final List<MvcFilter> filters;
+    private final boolean rewritesResponse;
 
     /**
      * Instantiates a new Base filter chain.
@@ -21,19 +22,29 @@ public abstract class BaseFilterChain implements MvcFilterChain {
      */
     protected BaseFilterChain(List<MvcFilter> filters) {
         this.filters = filters;
+        this.rewritesResponse = filters.stream().anyMatch(MvcFilter::rewritesResponse);
     }
 
     @Override
-    public void doFilter(FilterRequest request, FilterResponse response) throws FilterException {
-        new VirtualFilterChain(this.filters.iterator()).doFilter(request, response);
+    public boolean rewritesResponse() {
+        return rewritesResponse;
+    }
+
+    /**
+     * Compile the filters applying to endpoints of the config into a pipeline.
+     */
+    @Override
+    public MvcFilterPipeline compile(IEndpointModel endpointModel) {
+        return new MvcFilterPipeline(getSecurityType(),
+                filters.stream().filter(filter -> filter.appliesTo(endpointModel)).toArray(MvcFilter[]::new));
     }
 
-    private record VirtualFilterChain(Iterator<MvcFilter> filterIterator) implements MvcFilterChain {
-        @Override
-        public void doFilter(FilterRequest request, FilterResponse response) throws FilterException {
-            if (filterIterator.hasNext()) {
-                filterIterator.next().doFilter(request, response, this);
-            }
-        }
+    /**
+     * Run the chain for a config it was not compiled for, callers on the request path use
+     * {@link IMvcFilterChainManager#getFilterChain} and its cached pipelines instead.
+     */
+    @Override
+    public void doFilter(FilterRequest request, FilterResponse response) throws FilterException {
+        compile(request.getEndpointModel()).doFilter(request, response);
     }
 }
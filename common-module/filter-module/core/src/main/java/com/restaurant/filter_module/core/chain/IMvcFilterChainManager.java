@@ -9,6 +9,15 @@ import com.restaurant.filter_module.core.filter.FilterResponse;
  * The interface Mvc filter chain manager.
  */
 public interface IMvcFilterChainManager {
+    /**
+     * Gets the filter chain of the endpoint, compiled for its config.
+     *
+     * @param endpointModel the endpoint model
+     * @return the filter chain
+     * @throws FilterException when no chain handles the security type of the endpoint
+     */
+    MvcFilterChain getFilterChain(IEndpointModel endpointModel) throws FilterException;
+
     /**
      * Filter.
      *
@@ -1,5 +1,6 @@
 package com.restaurant.filter_module.core.chain;
 
+import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.FilterRequest;
 import com.restaurant.filter_module.core.filter.FilterResponse;
@@ -17,4 +18,25 @@ public interface MvcFilter {
      * @throws FilterException the filter exception
      */
     void doFilter(FilterRequest request, FilterResponse response, MvcFilterChain chain) throws FilterException;
+
+    /**
+     * Whether the filter runs for endpoints of the config. Evaluated once per config when its
+     * pipeline is compiled, requests only pass through the filters that apply.
+     *
+     * @param endpointModel the endpoint model
+     * @return the boolean
+     */
+    default boolean appliesTo(IEndpointModel endpointModel) {
+        return true;
+    }
+
+    /**
+     * Whether the filter sets a formatter rewriting the response body. Chains buffer the body only
+     * when one of their filters does, other responses are streamed to the client.
+     *
+     * @return the boolean
+     */
+    default boolean rewritesResponse() {
+        return false;
+    }
 }
@@ -1,5 +1,6 @@
 package com.restaurant.filter_module.core.chain;
 
+import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.FilterRequest;
 import com.restaurant.filter_module.core.filter.FilterResponse;
@@ -22,4 +23,24 @@ public interface MvcFilterChain {
     default String getSecurityType() {
         return null;
     }
+
+    /**
+     * Whether a filter of the chain rewrites the response body, which is then buffered until the
+     * application returns.
+     *
+     * @return the boolean
+     */
+    default boolean rewritesResponse() {
+        return false;
+    }
+
+    /**
+     * Compile the chain for endpoints of the config, the chain itself when it has nothing to skip.
+     *
+     * @param endpointModel the endpoint model
+     * @return the chain to run for the config
+     */
+    default MvcFilterChain compile(IEndpointModel endpointModel) {
+        return this;
+    }
 }
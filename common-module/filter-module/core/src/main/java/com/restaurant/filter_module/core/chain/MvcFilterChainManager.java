@@ -4,6 +4,7 @@ import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.FilterRequest;
 import com.restaurant.filter_module.core.filter.FilterResponse;
+import com.restaurant.filter_module.core.metrics.SecurityMetrics;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -12,35 +13,87 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The type Mvc filter chain manager.
+ * <p>
+ * Chains are compiled per endpoint config into pipelines of the filters applying to it, cached by
+ * config instance. A reloaded config is a new instance and gets its own pipeline; those of replaced
+ * configs stay until the cache is full and starts over.
  */
 @Slf4j
 public class MvcFilterChainManager implements IMvcFilterChainManager {
 
+    private static final int MAX_PIPELINES = 10_000;
+
     private final Map<String, MvcFilterChain> filterChainMap = new ConcurrentHashMap<>();
+    private final Map<ConfigKey, MvcFilterChain> pipelines = new ConcurrentHashMap<>();
+    private final SecurityMetrics securityMetrics;
 
     /**
-     * Instantiates a new Mvc filter chain manager.
+     * Instantiates a new Mvc filter chain manager, filters untimed.
      *
      * @param mvcFilterChains the mvc filter chains
      */
     public MvcFilterChainManager(List<MvcFilterChain> mvcFilterChains) {
+        this(mvcFilterChains, null);
+    }
+
+    /**
+     * Instantiates a new Mvc filter chain manager.
+     *
+     * @param mvcFilterChains the mvc filter chains
+     * @param securityMetrics the security metrics timing the filters of each pipeline when enabled
+     */
+    public MvcFilterChainManager(List<MvcFilterChain> mvcFilterChains, SecurityMetrics securityMetrics) {
+        this.securityMetrics = securityMetrics;
         for (MvcFilterChain filterChain : mvcFilterChains) {
             filterChainMap.put(filterChain.getSecurityType(), filterChain);
         }
     }
 
     @Override
-    public void filter(FilterRequest request, FilterResponse response) throws FilterException {
-        MvcFilterChain mvcFilterChain = filterChainMap.get(request.getEndpointModel().getSecurityType());
+    public MvcFilterChain getFilterChain(IEndpointModel endpointModel) throws FilterException {
+        ConfigKey key = new ConfigKey(endpointModel);
+        MvcFilterChain pipeline = pipelines.get(key);
+        if (pipeline != null) {
+            return pipeline;
+        }
+        MvcFilterChain mvcFilterChain = filterChainMap.get(endpointModel.getSecurityType());
         if (mvcFilterChain == null) {
-            log.error("Security Unsupported: {}", request.getEndpointModel().getSecurityType());
+            log.error("Security Unsupported: {}", endpointModel.getSecurityType());
             throw new FilterException("Not config filter");
         }
-        filter(request, response, mvcFilterChain);
+        if (pipelines.size() >= MAX_PIPELINES) {
+            pipelines.clear();
+        }
+        pipeline = mvcFilterChain.compile(endpointModel);
+        if (securityMetrics != null && securityMetrics.isEnabled() && pipeline instanceof MvcFilterPipeline compiled) {
+            pipeline = compiled.instrument(securityMetrics, endpointModel);
+        }
+        MvcFilterChain raced = pipelines.putIfAbsent(key, pipeline);
+        return raced != null ? raced : pipeline;
+    }
+
+    @Override
+    public void filter(FilterRequest request, FilterResponse response) throws FilterException {
+        filter(request, response, getFilterChain(request.getEndpointModel()));
     }
 
     @Override
     public void filter(FilterRequest request, FilterResponse response, MvcFilterChain mvcFilterChain) throws FilterException {
         mvcFilterChain.doFilter(request, response);
     }
+
+    /**
+     * Endpoint config compared by instance, configs are not changed once loaded.
+     */
+    private record ConfigKey(IEndpointModel endpointModel) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ConfigKey key && key.endpointModel == endpointModel;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(endpointModel);
+        }
+    }
 }
@@ -0,0 +1,148 @@
+package com.restaurant.filter_module.core.chain;
+
+import com.restaurant.data.model.IEndpointModel;
+import com.restaurant.filter_module.core.exception.FilterException;
+import com.restaurant.filter_module.core.filter.FilterRequest;
+import com.restaurant.filter_module.core.filter.FilterResponse;
+import com.restaurant.filter_module.core.metrics.SecurityMetrics;
+import com.restaurant.filter_module.core.metrics.SecurityOutcome;
+import com.restaurant.filter_module.core.metrics.StepTimer;
+
+import java.util.List;
+
+/**
+ * Filters of a chain applying to one endpoint config, compiled by {@link BaseFilterChain#compile}.
+ * <p>
+ * The links between filters are built once with the pipeline, so a request runs through it
+ * without allocating a chain or asking each filter whether it applies. An instrumented pipeline
+ * times each filter instead, see {@link SecurityMetrics}.
+ *
+ * @author namdx.
+ */
+public final class MvcFilterPipeline implements MvcFilterChain {
+
+    private static final MvcFilterChain END = (request, response) -> {
+    };
+
+    private final String securityType;
+    private final MvcFilter[] filters;
+    private final MvcFilterChain head;
+    private final boolean rewritesResponse;
+    private final SecurityMetrics metrics;
+    private final StepTimer[] timers;
+    private final String[] names;
+
+    /**
+     * Instantiates a new Mvc filter pipeline.
+     *
+     * @param securityType the security type of the chain
+     * @param filters      the filters applying, in order
+     */
+    MvcFilterPipeline(String securityType, MvcFilter[] filters) {
+        this(securityType, filters, null, null);
+    }
+
+    private MvcFilterPipeline(String securityType, MvcFilter[] filters, SecurityMetrics metrics, StepTimer[] timers) {
+        this.securityType = securityType;
+        this.filters = filters;
+        this.metrics = metrics;
+        this.timers = timers;
+        this.names = new String[filters.length];
+        MvcFilterChain next = END;
+        boolean rewrites = false;
+        for (int i = filters.length - 1; i >= 0; i--) {
+            next = new Link(filters[i], next);
+            rewrites |= filters[i].rewritesResponse();
+            names[i] = filters[i].getClass().getSimpleName();
+        }
+        this.head = next;
+        this.rewritesResponse = rewrites;
+    }
+
+    /**
+     * Gets the pipeline timing each of its filters for endpoints of the config.
+     *
+     * @param metrics       the security metrics
+     * @param endpointModel the endpoint model
+     * @return the instrumented pipeline
+     */
+    public MvcFilterPipeline instrument(SecurityMetrics metrics, IEndpointModel endpointModel) {
+        StepTimer[] stepTimers = new StepTimer[filters.length];
+        for (int i = 0; i < filters.length; i++) {
+            stepTimers[i] = metrics.filterTimer(names[i], endpointModel);
+        }
+        return new MvcFilterPipeline(securityType, filters, metrics, stepTimers);
+    }
+
+    @Override
+    public void doFilter(FilterRequest request, FilterResponse response) throws FilterException {
+        if (timers == null) {
+            head.doFilter(request, response);
+            return;
+        }
+        new TimedRun().doFilter(request, response);
+    }
+
+    @Override
+    public String getSecurityType() {
+        return securityType;
+    }
+
+    /**
+     * Whether a filter of the pipeline rewrites the response, the body of endpoints whose
+     * rewriting filters are all skipped is streamed.
+     */
+    @Override
+    public boolean rewritesResponse() {
+        return rewritesResponse;
+    }
+
+    /**
+     * Gets the filters of the pipeline.
+     *
+     * @return the filters
+     */
+    public List<MvcFilter> getFilters() {
+        return List.of(filters);
+    }
+
+    private record Link(MvcFilter filter, MvcFilterChain next) implements MvcFilterChain {
+        @Override
+        public void doFilter(FilterRequest request, FilterResponse response) throws FilterException {
+            filter.doFilter(request, response, next);
+        }
+    }
+
+    /**
+     * One request through an instrumented pipeline, the chain handed to every filter. A filter's
+     * time excludes the filters it passed the request on to.
+     */
+    private final class TimedRun implements MvcFilterChain {
+        private int index;
+        private long nestedNanos;
+
+        @Override
+        public void doFilter(FilterRequest request, FilterResponse response) throws FilterException {
+            int current = index++;
+            if (current >= filters.length) {
+                return;
+            }
+            SecurityOutcome outcome = SecurityOutcome.ERROR;
+            nestedNanos = 0;
+            long start = System.nanoTime();
+            try {
+                filters[current].doFilter(request, response, this);
+                outcome = index > current + 1 ? SecurityOutcome.PASS : SecurityOutcome.REJECT;
+            } catch (FilterException | RuntimeException e) {
+                outcome = index > current + 1 ? SecurityOutcome.PASS : SecurityOutcome.of(e);
+                throw e;
+            } finally {
+                long own = System.nanoTime() - start - nestedNanos;
+                timers[current].record(outcome, own);
+                metrics.addServerTiming(response.getHttpServletResponse(), names[current], own);
+                // Recording counts as nested time, not the previous filter's
+                nestedNanos = System.nanoTime() - start;
+            }
+        }
+    }
+}
@@ -4,25 +4,34 @@ import com.restaurant.data.properties.SecurityProperties;
 import com.restaurant.filter_module.core.chain.IMvcFilterChainManager;
 import com.restaurant.filter_module.core.chain.MvcFilterChain;
 import com.restaurant.filter_module.core.chain.MvcFilterChainManager;
+import com.restaurant.filter_module.core.context.SecurityContextTaskDecorator;
 import com.restaurant.filter_module.core.default_filter.cors_filter.CustomCorsFilter;
 import com.restaurant.filter_module.core.default_filter.public_filter.IPublicFilterChain;
 import com.restaurant.filter_module.core.default_filter.public_filter.PublicAuthorizationFilterChain;
 import com.restaurant.filter_module.core.default_filter.rate_limit.BucketRateLimitFilter;
 import com.restaurant.filter_module.core.default_filter.rate_limit.BucketRateLimiter;
 import com.restaurant.filter_module.core.default_filter.rate_limit.IBucketRateLimiter;
+import com.restaurant.filter_module.core.default_filter.rate_limit.RedisBucketRateLimiter;
 import com.restaurant.filter_module.core.endpoint.IEndpointSupporter;
 import com.restaurant.filter_module.core.endpoint.UnHandleEndpointSupporter;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.DefaultOnePerRequestFilter;
 import com.restaurant.filter_module.core.filter.IOnePerRequestFilter;
+import com.restaurant.filter_module.core.metrics.SecurityMetrics;
 import com.restaurant.filter_module.core.default_filter.context_filter.SecurityContextFilter;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.service.IRedisService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
 import com.restaurant.utils.MapperUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
@@ -30,6 +39,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 /**
  * The type Filter config.
@@ -50,17 +60,30 @@ public class SecurityCoreConfig {
         return new UnHandleEndpointSupporter();
     }
 
+    /**
+     * Security metrics timing the security steps of requests.
+     *
+     * @param securityProperties the security properties
+     * @return the security metrics
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SecurityMetrics securityMetrics(SecurityProperties securityProperties) {
+        return new SecurityMetrics(securityProperties.getInstrumentation());
+    }
+
     /**
      * Mvc filter chain manager mvc filter chain manager.
      *
      * @param mvcFilterChains the mvc filter chains
+     * @param securityMetrics the security metrics
      * @return the mvc filter chain manager
      */
     @Bean
     @ConditionalOnMissingBean
-    public MvcFilterChainManager mvcFilterChainManager(List<MvcFilterChain> mvcFilterChains) {
+    public MvcFilterChainManager mvcFilterChainManager(List<MvcFilterChain> mvcFilterChains, SecurityMetrics securityMetrics) {
         log.info("add list filter: {}", MapperUtil.writeValueAsStringOrDefault(mvcFilterChains));
-        return new MvcFilterChainManager(mvcFilterChains);
+        return new MvcFilterChainManager(mvcFilterChains, securityMetrics);
     }
 
     /**
@@ -85,6 +108,7 @@ public class SecurityCoreConfig {
      * @param securityProperties     the security properties
      * @param iEndpointSupporter     the endpoint supporter
      * @param iMvcFilterChainManager the mvc filter chain manager
+     * @param securityMetrics        the security metrics
      * @return the one per request filter
      */
     @Bean
@@ -92,41 +116,77 @@ public class SecurityCoreConfig {
     @ConditionalOnMissingBean
     IOnePerRequestFilter onePerBusinessRequestFilter(SecurityProperties securityProperties,
                                                      IEndpointSupporter iEndpointSupporter,
-                                                     IMvcFilterChainManager iMvcFilterChainManager) {
+                                                     IMvcFilterChainManager iMvcFilterChainManager,
+                                                     SecurityMetrics securityMetrics) {
         return new DefaultOnePerRequestFilter(
                 securityProperties,
                 iEndpointSupporter,
-                iMvcFilterChainManager
+                iMvcFilterChainManager,
+                securityMetrics
         );
     }
 
     /**
      * Default public filter chain public filter chain.
      *
-     * @param bucketRateLimiter the bucket rate limiter
+     * @param bucketRateLimiter  the bucket rate limiter
+     * @param securityProperties the security properties
      * @return the public filter chain
      */
     @Bean
     @ConditionalOnMissingBean
-    IPublicFilterChain defaultPublicFilterChain(IBucketRateLimiter bucketRateLimiter) {
+    IPublicFilterChain defaultPublicFilterChain(IBucketRateLimiter bucketRateLimiter,
+                                                SecurityProperties securityProperties) {
         //có thể add thêm filter mặc định cho public ở đây mặc định sẽ duyệt theo thứ tự trong list
         return new PublicAuthorizationFilterChain(
                 List.of(
                         new SecurityContextFilter(),
-                        new BucketRateLimitFilter(bucketRateLimiter)
+                        new BucketRateLimitFilter(bucketRateLimiter, BucketRateLimitFilter.KeyBy.CLIENT_IP,
+                                Pattern.compile(securityProperties.getRateLimit().getTrustedProxies()))
                 )
         );
     }
 
+    /**
+     * Bucket rate limiter shared by every instance through Redis, when enabled and Redis is not embedded.
+     *
+     * @param securityProperties the security properties
+     * @param redisService       the redis service
+     * @param circuitBreaker     the redis circuit breaker
+     * @return the bucket rate limiter
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "common.security.rate-limit", name = "distributed", havingValue = "true")
+    @Conditional(RedisModeCondition.Remote.class)
+    IBucketRateLimiter redisBucketRateLimiter(SecurityProperties securityProperties,
+                                              IRedisService redisService,
+                                              RedisCircuitBreaker circuitBreaker) {
+        SecurityProperties.RateLimit rateLimit = securityProperties.getRateLimit();
+        return new RedisBucketRateLimiter(redisService, circuitBreaker, new BucketRateLimiter(rateLimit), rateLimit);
+    }
+
     /**
      * Bucket rate limiter bucket rate limiter.
      *
+     * @param securityProperties the security properties
      * @return the bucket rate limiter
      */
     @Bean
     @ConditionalOnMissingBean
-    IBucketRateLimiter bucketRateLimiter() {
-        return new BucketRateLimiter();
+    IBucketRateLimiter bucketRateLimiter(SecurityProperties securityProperties) {
+        return new BucketRateLimiter(securityProperties.getRateLimit());
+    }
+
+    /**
+     * Task decorator handing the security context to tasks of the executors Spring Boot configures.
+     *
+     * @return the task decorator
+     */
+    @Bean
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    public TaskDecorator securityContextTaskDecorator() {
+        return new SecurityContextTaskDecorator();
     }
 
     /**
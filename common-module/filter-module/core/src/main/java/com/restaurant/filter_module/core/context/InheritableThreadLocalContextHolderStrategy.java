@@ -0,0 +1,47 @@
+package com.restaurant.filter_module.core.context;
+
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * The type Inheritable thread local context holder strategy.
+ * <p>
+ * Threads started while a context is set, virtual threads of a thread-per-task executor included,
+ * start with a copy of it, so a child setting its own user or roles does not change the parent's.
+ * The copy is shallow past the roles and cookies: the authentication and endpoint model are shared.
+ * <p>
+ * A pooled thread inherits once, from whatever request happened to start it, and keeps serving
+ * that context to every later task it runs, another user's included. Pools must propagate
+ * through {@link SecurityContextTaskDecorator} instead, which sets and clears the context per task.
+ *
+ * @author namdx.
+ */
+public class InheritableThreadLocalContextHolderStrategy extends ThreadLocalContextHolderStrategy {
+
+    /**
+     * Instantiates a new Inheritable thread local context holder strategy.
+     */
+    public InheritableThreadLocalContextHolderStrategy() {
+        super(new InheritableThreadLocal<>() {
+            @Override
+            protected Object childValue(Object parentValue) {
+                return copy(parentValue);
+            }
+        });
+    }
+
+    private static Object copy(Object held) {
+        if (held instanceof DefaultSecurityContext context) {
+            return context.toBuilder()
+                    .roles(context.getRoles() == null ? null : new ArrayList<>(context.getRoles()))
+                    .cookies(context.getCookies() == null ? null : context.getCookies().clone())
+                    .build();
+        }
+        if (held instanceof Supplier<?> deferred) {
+            // Resolved in the child, into its own copy of the context
+            return (Supplier<Object>) () -> copy(deferred.get());
+        }
+        return held;
+    }
+}
@@ -2,19 +2,39 @@ package com.restaurant.filter_module.core.context;
 
 
 import lombok.Getter;
+import org.springframework.util.Assert;
 
 import java.util.function.Supplier;
 
 
 /**
  * The type Security context holder.
+ * <p>
+ * The strategy is thread local by default; the system property {@value #SYSTEM_PROPERTY} set to
+ * {@value #MODE_INHERITABLETHREADLOCAL} lets threads started during a request inherit its context.
+ * Work handed to executors is propagated by {@link SecurityContextTaskDecorator}.
  */
 @Getter
 public abstract class SecurityContextHolder {
 
+    /**
+     * Strategy keeping the context to the thread that set it.
+     */
+    public static final String MODE_THREADLOCAL = "MODE_THREADLOCAL";
+
+    /**
+     * Strategy handing the context to threads started by the thread that set it.
+     */
+    public static final String MODE_INHERITABLETHREADLOCAL = "MODE_INHERITABLETHREADLOCAL";
+
+    /**
+     * System property choosing the strategy.
+     */
+    public static final String SYSTEM_PROPERTY = "filter.security.context.strategy";
+
     private static int initializeCount = 0;
 
-    private static SecurityContextHolderStrategy strategy;
+    private static volatile SecurityContextHolderStrategy strategy;
 
     static {
         initialize();
@@ -29,9 +49,34 @@ public abstract class SecurityContextHolder {
     }
 
     private static void initializeStrategy() {
+        String mode = System.getProperty(SYSTEM_PROPERTY, MODE_THREADLOCAL);
+        if (MODE_INHERITABLETHREADLOCAL.equals(mode)) {
+            strategy = new InheritableThreadLocalContextHolderStrategy();
+            return;
+        }
         strategy = new ThreadLocalContextHolderStrategy();
     }
 
+    /**
+     * Sets the strategy, contexts held by the previous one are not carried over.
+     *
+     * @param contextHolderStrategy the context holder strategy
+     */
+    public static void setContextHolderStrategy(SecurityContextHolderStrategy contextHolderStrategy) {
+        Assert.notNull(contextHolderStrategy, "securityContextHolderStrategy cannot be null");
+        strategy = contextHolderStrategy;
+        initializeCount++;
+    }
+
+    /**
+     * Gets the strategy.
+     *
+     * @return the context holder strategy
+     */
+    public static SecurityContextHolderStrategy getContextHolderStrategy() {
+        return strategy;
+    }
+
     /**
      * Create empty context security context.
      *
@@ -50,6 +95,15 @@ public abstract class SecurityContextHolder {
         return strategy.getContext();
     }
 
+    /**
+     * Gets the context set on this thread without creating one.
+     *
+     * @return the context, null when none is set
+     */
+    public static SecurityContext peekContext() {
+        return strategy.peekContext();
+    }
+
     /**
      * Sets context.
      *
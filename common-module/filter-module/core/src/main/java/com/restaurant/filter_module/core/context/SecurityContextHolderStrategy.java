@@ -19,6 +19,16 @@ public interface SecurityContextHolderStrategy {
      */
     SecurityContext getContext();
 
+    /**
+     * Gets the context set on this thread without creating one, strategies creating a context on
+     * {@link #getContext()} override it.
+     *
+     * @return the context, null when none is set
+     */
+    default SecurityContext peekContext() {
+        return getContext();
+    }
+
     /**
      * Sets context.
      *
@@ -0,0 +1,81 @@
+package com.restaurant.filter_module.core.context;
+
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.Callable;
+
+
+/**
+ * Runs tasks with the security context of the thread submitting them, cleared from the running
+ * thread afterwards. Only the reference is captured, so the task sees the request's context as it
+ * was built by the filters; a task run by the submitting thread itself leaves its context alone.
+ * Tasks submitted from a thread without a context, such as a scheduler, run with none, and
+ * submitting them does not create one on that thread.
+ * <p>
+ * Registered as a bean, it is applied to the executors Spring Boot configures, virtual thread
+ * ones included; Feign calls made from such tasks see the caller's identity.
+ *
+ * @author namdx.
+ */
+public class SecurityContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return wrap(runnable);
+    }
+
+    /**
+     * Wrap the task to run with the current security context.
+     *
+     * @param runnable the runnable
+     * @return the wrapped runnable
+     */
+    public static Runnable wrap(Runnable runnable) {
+        SecurityContext captured = SecurityContextHolder.peekContext();
+        Thread submitter = Thread.currentThread();
+        return () -> {
+            if (Thread.currentThread() == submitter) {
+                runnable.run();
+                return;
+            }
+            apply(captured);
+            try {
+                runnable.run();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    /**
+     * Wrap the task to run with the current security context.
+     *
+     * @param <T>      the result type
+     * @param callable the callable
+     * @return the wrapped callable
+     */
+    public static <T> Callable<T> wrap(Callable<T> callable) {
+        SecurityContext captured = SecurityContextHolder.peekContext();
+        Thread submitter = Thread.currentThread();
+        return () -> {
+            if (Thread.currentThread() == submitter) {
+                return callable.call();
+            }
+            apply(captured);
+            try {
+                return callable.call();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private static void apply(SecurityContext captured) {
+        if (captured != null) {
+            SecurityContextHolder.setContext(captured);
+        } else {
+            // A pooled thread may still hold the context of a task that did not clear it
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
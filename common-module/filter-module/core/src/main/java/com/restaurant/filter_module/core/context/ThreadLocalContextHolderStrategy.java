@@ -7,10 +7,29 @@ import java.util.function.Supplier;
 
 /**
  * The type Thread local context holder strategy.
+ * <p>
+ * The context is held as is, setting it allocates nothing; a deferred context set through
+ * {@link #setDeferredContext} is resolved on first read.
  */
 public class ThreadLocalContextHolderStrategy implements SecurityContextHolderStrategy {
 
-    private static final ThreadLocal<Supplier<SecurityContext>> contextHolder = new ThreadLocal<>();
+    private final ThreadLocal<Object> contextHolder;
+
+    /**
+     * Instantiates a new Thread local context holder strategy.
+     */
+    public ThreadLocalContextHolderStrategy() {
+        this(new ThreadLocal<>());
+    }
+
+    /**
+     * Instantiates a new Thread local context holder strategy on the thread local.
+     *
+     * @param contextHolder the thread local holding the context or its supplier
+     */
+    protected ThreadLocalContextHolderStrategy(ThreadLocal<Object> contextHolder) {
+        this.contextHolder = contextHolder;
+    }
 
     @Override
     public void clearContext() {
@@ -18,36 +37,38 @@ public class ThreadLocalContextHolderStrategy implements SecurityContextHolderSt
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public SecurityContext getContext() {
-        return getDeferredContext().get();
+        Object held = contextHolder.get();
+        if (held instanceof SecurityContext context) {
+            return context;
+        }
+        SecurityContext context;
+        if (held == null) {
+            context = createEmptyContext();
+        } else {
+            context = ((Supplier<SecurityContext>) held).get();
+            Assert.notNull(context, "A Supplier<SecurityContext> returned null and is not allowed.");
+        }
+        contextHolder.set(context);
+        return context;
     }
 
     @Override
-    public void setContext(SecurityContext context) {
-        Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
-        contextHolder.set(() -> context);
+    public SecurityContext peekContext() {
+        return contextHolder.get() == null ? null : getContext();
     }
 
     @Override
-    public Supplier<SecurityContext> getDeferredContext() {
-        Supplier<SecurityContext> result = contextHolder.get();
-        if (result == null) {
-            SecurityContext context = createEmptyContext();
-            result = () -> context;
-            contextHolder.set(result);
-        }
-        return result;
+    public void setContext(SecurityContext context) {
+        Assert.notNull(context, "Only non-null SecurityContext instances are permitted");
+        contextHolder.set(context);
     }
 
     @Override
     public void setDeferredContext(Supplier<SecurityContext> deferredContext) {
         Assert.notNull(deferredContext, "Only non-null Supplier instances are permitted");
-        Supplier<SecurityContext> notNullDeferredContext = () -> {
-            SecurityContext result = deferredContext.get();
-            Assert.notNull(result, "A Supplier<SecurityContext> returned null and is not allowed.");
-            return result;
-        };
-        contextHolder.set(notNullDeferredContext);
+        contextHolder.set(deferredContext);
     }
 
     @Override
@@ -1,60 +1,138 @@
 package com.restaurant.filter_module.core.default_filter.rate_limit;
 
+import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.chain.MvcFilterChain;
+import com.restaurant.filter_module.core.context.SecurityContext;
+import com.restaurant.filter_module.core.context.SecurityContextHolder;
 import com.restaurant.filter_module.core.enums.FilterCoreErrorCode;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.BaseMvcFilter;
 import com.restaurant.filter_module.core.filter.FilterRequest;
 import com.restaurant.filter_module.core.filter.FilterResponse;
-import io.github.bucket4j.Bucket;
+import com.restaurant.filter_module.core.util.HttpServletUtil;
+import com.restaurant.filter_module.core.util.UriUtil;
 import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 
 /**
  * The type Bucket rate limit filter.
+ * <p>
+ * Each client gets its own bucket per endpoint config, keyed by the path pattern of the config
+ * and the client ip, or the authenticated user for a filter placed after authentication. Configs
+ * limited per path are keyed by the request path instead of their pattern.
  */
 @Slf4j
 public class BucketRateLimitFilter extends BaseMvcFilter {
 
+    /**
+     * Metric name of the requests rejected, tagged by endpoint pattern.
+     */
+    public static final String METRIC_REJECTED = "rate.limit.rejected";
+
+    /**
+     * What requests are counted by.
+     */
+    public enum KeyBy {
+        /**
+         * The client ip, ahead of authentication so requests with bad or missing tokens are limited too.
+         */
+        CLIENT_IP,
+        /**
+         * The authenticated user, after authentication. Requests without a user are let through.
+         */
+        USER
+    }
+
+    private static final Pattern NO_TRUSTED_PROXY = Pattern.compile("(?!)");
+
     private final IBucketRateLimiter bucketRateLimiter;
+    private final KeyBy keyBy;
+    private final Pattern trustedProxies;
 
     /**
-     * Instantiates a new Bucket rate limit filter.
+     * Instantiates a new Bucket rate limit filter counting requests by the connection peer address.
      *
      * @param bucketRateLimiter the bucket rate limiter
      */
     public BucketRateLimitFilter(IBucketRateLimiter bucketRateLimiter) {
+        this(bucketRateLimiter, KeyBy.CLIENT_IP, NO_TRUSTED_PROXY);
+    }
+
+    /**
+     * Instantiates a new Bucket rate limit filter.
+     *
+     * @param bucketRateLimiter the bucket rate limiter
+     * @param keyBy             what requests are counted by
+     * @param trustedProxies    the addresses of the proxies trusted to append X-Forwarded-For
+     */
+    public BucketRateLimitFilter(IBucketRateLimiter bucketRateLimiter, KeyBy keyBy, Pattern trustedProxies) {
         this.bucketRateLimiter = bucketRateLimiter;
+        this.keyBy = keyBy;
+        this.trustedProxies = trustedProxies;
     }
 
     /**
-     * Should not filter boolean.
+     * Should not filter endpoints without a limit.
      *
-     * @param request the request
+     * @param endpointModel the endpoint model
      * @return the boolean
      */
     @Override
-    protected boolean shouldNotFilter(FilterRequest request) {
-        return Objects.isNull(request.getEndpointModel().getRateLimit())
-                || Objects.isNull(request.getEndpointModel().getLimitTime());
+    protected boolean shouldNotFilter(IEndpointModel endpointModel) {
+        return Objects.isNull(endpointModel.getRateLimit())
+                || Objects.isNull(endpointModel.getLimitTime());
     }
 
     @Override
     protected void doFilterInternal(FilterRequest request, FilterResponse response, MvcFilterChain chain) throws FilterException {
-        log.info("start filter BucketRateLimitFilter");
-        final Bucket tokenBucket = bucketRateLimiter.resolveBucket(
-                request.getHttpServletRequest().getRequestURI(),
-                request.getEndpointModel().getRateLimit(),
-                request.getEndpointModel().getLimitTime()
+        log.debug("start filter BucketRateLimitFilter");
+        String client = clientKey(request);
+        if (client == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        IEndpointModel endpointModel = request.getEndpointModel();
+        String scope = endpointModel.isRateLimitPerPath()
+                ? UriUtil.replaceQuery(request.getHttpServletRequest().getRequestURI())
+                : endpointModel.getPathPattern();
+        ConsumptionProbe probe = bucketRateLimiter.tryConsume(
+                scope + '|' + client,
+                endpointModel.getRateLimit(),
+                endpointModel.getLimitTime()
         );
-        ConsumptionProbe probe = tokenBucket.tryConsumeAndReturnRemaining(1);
         if (!probe.isConsumed()) {
-            log.error("Too many request. {}", request.getEndpointModel().getEndpoint());
-            throw new SecurityException(FilterCoreErrorCode.TOO_MANY_REQUESTS.getErrorCode());
+            log.error("Too many request. {}", request.getHttpServletRequest().getRequestURI());
+            Counter.builder(METRIC_REJECTED)
+                    .description("Requests rejected by the rate limit")
+                    .tag("endpoint", endpointModel.getPathPattern())
+                    .tag("key", keyBy.name().toLowerCase())
+                    .register(Metrics.globalRegistry)
+                    .increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
+            response.getHttpServletResponse().setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            throw new FilterException(FilterCoreErrorCode.TOO_MANY_REQUESTS, "Too many requests");
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * Gets the client the request is counted for, null when a user limit sees no user.
+     */
+    private String clientKey(FilterRequest request) {
+        if (keyBy == KeyBy.USER) {
+            SecurityContext securityContext = SecurityContextHolder.peekContext();
+            return securityContext != null && securityContext.getUserId() != null
+                    ? "user:" + securityContext.getUserId()
+                    : null;
+        }
+        return "ip:" + HttpServletUtil.getTrustedClientIP(request.getHttpServletRequest(), trustedProxies);
+    }
 }
@@ -1,32 +1,62 @@
 package com.restaurant.filter_module.core.default_filter.rate_limit;
 
+import com.restaurant.data.properties.SecurityProperties;
+import com.restaurant.utils.cache.BoundedLocalCache;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bucket4j;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
  * The type Bucket rate limiter.
+ * <p>
+ * Buckets live in a bounded store: past the configured size the least recently used bucket is
+ * evicted, and a bucket left without requests for its limit window expires. Such a bucket would
+ * have been refilled by then, so dropping it lets nothing through that a full bucket would not.
  */
 public class BucketRateLimiter implements IBucketRateLimiter {
+
+    /**
+     * Metric name of the buckets held.
+     */
+    public static final String METRIC_BUCKETS = "rate.limit.buckets";
+
     /**
-     * The constant cache.
+     * Metric name of the buckets evicted to stay within the bound.
      */
-    private static final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    public static final String METRIC_EVICTIONS = "rate.limit.bucket.evictions";
+
+    private final BoundedLocalCache<String, Bucket> buckets;
 
+    /**
+     * Instantiates a new Bucket rate limiter.
+     *
+     * @param rateLimit the rate limit properties
+     */
+    public BucketRateLimiter(SecurityProperties.RateLimit rateLimit) {
+        this.buckets = new BoundedLocalCache<>(rateLimit.getMaxBuckets(), rateLimit.getMaxIdle(), 16, true);
+        Gauge.builder(METRIC_BUCKETS, buckets, BoundedLocalCache::size)
+                .description("Rate limit buckets held in memory")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder(METRIC_EVICTIONS, buckets, BoundedLocalCache::getEvictionCount)
+                .description("Rate limit buckets evicted to stay within max-buckets")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Resolve the bucket of the key, the limit is part of the bucket identity so a reloaded
+     * endpoint config applies from the next request.
+     */
     @Override
     public Bucket resolveBucket(String apiKey, long limitValue, long time) {
-        if (cache.containsKey(apiKey)) {
-            return cache.get(apiKey);
-        }
-        Bucket bucket = this.newBucket(limitValue, time);
-        cache.put(apiKey, bucket);
-        return bucket;
+        return buckets.computeIfAbsent(apiKey + '|' + limitValue + '/' + time,
+                key -> newBucket(limitValue, time), Duration.ofSeconds(time));
     }
 
     private Bucket newBucket(long limitValue, long time) {
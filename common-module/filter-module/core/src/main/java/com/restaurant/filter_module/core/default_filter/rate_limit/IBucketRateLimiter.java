@@ -1,6 +1,7 @@
 package com.restaurant.filter_module.core.default_filter.rate_limit;
 
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
 
 
 /**
@@ -16,4 +17,16 @@ public interface IBucketRateLimiter {
      * @return the bucket
      */
     Bucket resolveBucket(String apiKey, long limitValue, long time);
+
+    /**
+     * Try to consume one token for the key.
+     *
+     * @param apiKey     the api key
+     * @param limitValue the limit value
+     * @param time       the time
+     * @return the consumption probe
+     */
+    default ConsumptionProbe tryConsume(String apiKey, long limitValue, long time) {
+        return resolveBucket(apiKey, limitValue, time).tryConsumeAndReturnRemaining(1);
+    }
 }
@@ -0,0 +1,144 @@
+package com.restaurant.filter_module.core.default_filter.rate_limit;
+
+import com.restaurant.data.properties.SecurityProperties;
+import com.restaurant.redismodule.service.IRedisService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
+import com.restaurant.utils.cache.BoundedLocalCache;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+
+/**
+ * The type Redis bucket rate limiter, limits shared by every instance of a service.
+ * <p>
+ * Buckets are counters in Redis, taken from atomically with {@link IRedisService#takeTokens}. An
+ * instance takes prefetch-ratio of the limit at once and serves requests from that batch until it
+ * runs out or the interval ends, so most requests do not wait on Redis. A token is handed out once
+ * across the cluster, so the limit is never exceeded; tokens a batch still holds at the refill are
+ * lost, at most prefetch-ratio of the limit per instance. Once Redis reports a bucket empty,
+ * requests are rejected locally until its refill.
+ * <p>
+ * While Redis is unavailable, requests are limited by the buckets of the instance alone.
+ */
+@Slf4j
+public class RedisBucketRateLimiter implements IBucketRateLimiter {
+
+    /**
+     * Prefix of the bucket keys in Redis.
+     */
+    public static final String KEY_PREFIX = "ratelimit:";
+
+    private final IRedisService redisService;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final IBucketRateLimiter fallback;
+    private final double prefetchRatio;
+    private final BoundedLocalCache<String, Batch> batches;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Instantiates a new Redis bucket rate limiter.
+     *
+     * @param redisService   the redis service
+     * @param circuitBreaker the redis circuit breaker
+     * @param fallback       the limiter used while Redis is unavailable
+     * @param rateLimit      the rate limit properties
+     */
+    public RedisBucketRateLimiter(IRedisService redisService,
+                                  RedisCircuitBreaker circuitBreaker,
+                                  IBucketRateLimiter fallback,
+                                  SecurityProperties.RateLimit rateLimit) {
+        this(redisService, circuitBreaker, fallback, rateLimit, System::nanoTime);
+    }
+
+    /**
+     * Instantiates a new Redis bucket rate limiter reading time from the given clock.
+     *
+     * @param redisService   the redis service
+     * @param circuitBreaker the redis circuit breaker
+     * @param fallback       the limiter used while Redis is unavailable
+     * @param rateLimit      the rate limit properties
+     * @param nanoClock      the clock, in nanoseconds
+     */
+    RedisBucketRateLimiter(IRedisService redisService,
+                           RedisCircuitBreaker circuitBreaker,
+                           IBucketRateLimiter fallback,
+                           SecurityProperties.RateLimit rateLimit,
+                           LongSupplier nanoClock) {
+        this.redisService = redisService;
+        this.circuitBreaker = circuitBreaker;
+        this.fallback = fallback;
+        this.prefetchRatio = rateLimit.getPrefetchRatio();
+        this.batches = new BoundedLocalCache<>(rateLimit.getMaxBuckets(), rateLimit.getMaxIdle(), 16, true);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Gets the bucket of this instance alone, the one limiting while Redis is unavailable.
+     */
+    @Override
+    public Bucket resolveBucket(String apiKey, long limitValue, long time) {
+        return fallback.resolveBucket(apiKey, limitValue, time);
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String apiKey, long limitValue, long time) {
+        String key = KEY_PREFIX + apiKey + '|' + limitValue + '/' + time;
+        Batch batch = batches.computeIfAbsent(key, ignored -> new Batch(nanoClock.getAsLong()), Duration.ofSeconds(time));
+        synchronized (batch) {
+            long now = nanoClock.getAsLong();
+            if (now - batch.refillAt < 0) {
+                if (batch.tokens > 0) {
+                    batch.tokens--;
+                    return ConsumptionProbe.consumed(batch.tokens);
+                }
+                if (batch.exhausted) {
+                    return ConsumptionProbe.rejected(0, batch.refillAt - now);
+                }
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                return fallback.tryConsume(apiKey, limitValue, time);
+            }
+            long[] taken;
+            try {
+                taken = redisService.takeTokens(key, limitValue, Duration.ofSeconds(time), batchSize(limitValue));
+                circuitBreaker.onSuccess();
+            } catch (Exception e) {
+                circuitBreaker.onFailure(e);
+                log.warn("Rate limit on this instance only, Redis failed for {}: {}", apiKey, e.getMessage());
+                return fallback.tryConsume(apiKey, limitValue, time);
+            }
+            // Timed from before the call, so the batch never outlives the interval it was taken in
+            long refillNanos = taken[2] > 0 ? TimeUnit.MILLISECONDS.toNanos(taken[2]) : TimeUnit.SECONDS.toNanos(time);
+            batch.refillAt = now + refillNanos;
+            batch.exhausted = taken[0] == 0;
+            if (batch.exhausted) {
+                batch.tokens = 0;
+                return ConsumptionProbe.rejected(0, refillNanos);
+            }
+            batch.tokens = taken[0] - 1;
+            return ConsumptionProbe.consumed(batch.tokens + taken[1]);
+        }
+    }
+
+    private long batchSize(long limitValue) {
+        return Math.max(1, (long) (limitValue * prefetchRatio));
+    }
+
+    /**
+     * Tokens taken from a Redis bucket and not handed out yet.
+     */
+    private static final class Batch {
+        private long tokens;
+        private long refillAt;
+        private boolean exhausted;
+
+        private Batch(long now) {
+            this.refillAt = now;
+        }
+    }
+}
@@ -1,89 +1,195 @@
 package com.restaurant.filter_module.core.endpoint;
 
 import com.restaurant.data.model.IEndpointModel;
+import com.restaurant.data.properties.SecurityProperties;
 import com.restaurant.filter_module.core.entity.EndpointEntity;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.repository.EndpointRepository;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint configs of the endpoint_config table.
+ * <p>
+ * The table is polled in the background for rows whose updated_at passed the high-water mark of
+ * the configs being served. Changes are merged into a copy of the rows, compiled off the request
+ * path and swapped in as a new {@link EndpointConfigSnapshot}: lookups read one volatile field and
+ * never wait on a reload. Deleted rows and rows inserted without updated_at are noticed by their
+ * id. updated_at is set by Hibernate, not by the database, so rows edited directly in the table
+ * are only picked up by the periodic full reload: full-reload-interval is their propagation delay.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DatabaseEndpointSupporter implements IEndpointSupporter {
 
+    private static final String DEFAULT_PATH_PATTERN = "/**";
+
+    /**
+     * Config of endpoints missing from the table, one instance covering them all so their metrics
+     * and compiled filter pipeline are not one per request path. Rate limits are still counted per
+     * request path, unconfigured routes do not share one budget.
+     */
+    private static final IEndpointModel DEFAULT_ENDPOINT = EndpointEntity.builder()
+            .endpoint(DEFAULT_PATH_PATTERN)
+            .pathPattern(DEFAULT_PATH_PATTERN)
+            .securityType("PUBLIC")
+            .isPublic(true)
+            .isActive(true)
+            .rateLimit(100L)
+            .limitTime(60L)
+            .rateLimitPerPath(true)
+            .build();
+    private static final LocalDateTime NO_UPDATES = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final EndpointRepository endpointRepository;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final SecurityProperties securityProperties;
 
-    private List<EndpointEntity> cachedEndpoints = new CopyOnWriteArrayList<>();
+    /**
+     * Configs being served, replaced as a whole on reload.
+     */
+    private volatile EndpointConfigSnapshot snapshot =
+            new EndpointConfigSnapshot(0, null, null, Instant.now(), Map.of(), EndpointRouteTrie.compile(List.of()));
+
+    private ScheduledExecutorService reloader;
+    private long nextFullReload;
 
     @PostConstruct
     public void init() {
         refreshCache();
+        SecurityProperties.EndpointReload reload = securityProperties.getEndpointReload();
+        if (!reload.isEnabled()) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "endpoint-config-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reload.getInterval().toMillis();
+        reloader.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
     }
 
-    public void refreshCache() {
-        cachedEndpoints = endpointRepository.findAll()
-                .stream()
-                .filter(EndpointEntity::isActive)
-                .toList();
-        log.info("Loaded {} active endpoint configs from database", cachedEndpoints.size());
+    @PreDestroy
+    public void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
     }
 
+    /**
+     * Reload every row, serving a new version when they changed.
+     */
+    public synchronized void refreshCache() {
+        Map<Long, EndpointEntity> rows = new HashMap<>();
+        endpointRepository.findAll().forEach(row -> rows.put(row.getId(), row));
+        nextFullReload = System.nanoTime() + securityProperties.getEndpointReload().getFullReloadInterval().toNanos();
+        publish(rows);
+    }
 
-    @Override
-    public IEndpointModel getEndpoint(String endpoint, String method) throws FilterException {
-        log.debug("Looking up endpoint config for: {} [{}]", endpoint, method);
-
-
-        for (EndpointEntity entity : cachedEndpoints) {
-
-            // 1. Check url
-            boolean isPathMatch = false;
-            String pattern = entity.getPathPattern();
-
-            if (pattern != null) {
-
-                isPathMatch = pathMatcher.match(pattern, endpoint);
+    /**
+     * Merge the rows updated since the high-water mark, or reload every row when a full reload is
+     * due or a row showed up without passing the mark.
+     */
+    synchronized void poll() {
+        try {
+            if (System.nanoTime() - nextFullReload >= 0) {
+                refreshCache();
+                return;
             }
-
-            if (!isPathMatch) {
-                continue;
+            EndpointConfigSnapshot current = snapshot;
+            LocalDateTime since = current.getHighWaterMark() == null
+                    ? NO_UPDATES
+                    : current.getHighWaterMark().minus(securityProperties.getEndpointReload().getOverlap());
+            List<EndpointEntity> updated = endpointRepository.findByUpdatedAtAfter(since);
+            Set<Long> ids = new HashSet<>(endpointRepository.findAllIds());
+
+            Map<Long, EndpointEntity> rows = new HashMap<>(current.getRows());
+            updated.forEach(row -> rows.put(row.getId(), row));
+            rows.keySet().retainAll(ids);
+            if (rows.size() != ids.size()) {
+                refreshCache();
+                return;
             }
+            publish(rows);
+        } catch (Exception e) {
+            log.warn("Endpoint config reload failed, still serving version {}: {}", snapshot.getVersion(), e.getMessage());
+        }
+    }
 
+    /**
+     * Gets the configs being served.
+     *
+     * @return the snapshot
+     */
+    public EndpointConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-            String configMethod = entity.getMethod();
-
-            boolean isMethodMatch = "ALL".equalsIgnoreCase(configMethod)
-                    || (configMethod != null && configMethod.equalsIgnoreCase(method));
-
+    /**
+     * Gets the most specific active config for the endpoint, see {@link EndpointRouteTrie} for
+     * the precedence between overlapping patterns.
+     */
+    @Override
+    public IEndpointModel getEndpoint(String endpoint, String method) throws FilterException {
+        log.debug("Looking up endpoint config for: {} [{}]", endpoint, method);
 
-            if (isMethodMatch) {
-                log.info("Found match: pattern={} method={}, endpoint={} method={}, securityType={}",
-                        pattern, configMethod, endpoint, method, entity.getSecurityType());
-                return entity;
+        EndpointEntity entity = snapshot.getRoutes().find(endpoint, method);
+        if (entity != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Found match: pattern={} method={}, endpoint={} method={}, securityType={}",
+                        entity.getPathPattern(), entity.getMethod(), endpoint, method, entity.getSecurityType());
             }
+            return entity;
         }
 
-        log.warn("No config found for endpoint: {} [{}], using default PUBLIC", endpoint, method);
-        return createDefaultEndpoint(endpoint);
+        // Debug only, unconfigured paths are normal public traffic and arbitrary paths must not flood the log
+        log.debug("No config found for endpoint: {} [{}], using default PUBLIC", endpoint, method);
+        return DEFAULT_ENDPOINT;
+    }
+
+    private void publish(Map<Long, EndpointEntity> rows) {
+        EndpointConfigSnapshot current = snapshot;
+        if (current.getVersion() > 0 && rows.equals(current.getRows())) {
+            return;
+        }
+        List<EndpointEntity> active = rows.values().stream().filter(EndpointEntity::isActive).toList();
+        LocalDateTime highWaterMark = rows.values().stream()
+                .map(EndpointEntity::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        EndpointConfigSnapshot next = new EndpointConfigSnapshot(current.getVersion() + 1, fingerprint(rows),
+                highWaterMark, Instant.now(), Map.copyOf(rows), EndpointRouteTrie.compile(active));
+        snapshot = next;
+        log.info("Serving endpoint config version {} ({}): {} active of {} rows",
+                next.getVersion(), next.getFingerprint(), next.getRoutes().size(), rows.size());
     }
 
-    private IEndpointModel createDefaultEndpoint(String endpoint) {
-        return EndpointEntity.builder()
-                .endpoint(endpoint)
-                .pathPattern(endpoint)
-                .securityType("PUBLIC")
-                .isPublic(true)
-                .isActive(true)
-                .rateLimit(100L)
-                .limitTime(60L)
-                .build();
+    /**
+     * Hash of the rows in id order, equal on every instance loading the same rows.
+     */
+    private static String fingerprint(Map<Long, EndpointEntity> rows) {
+        int hash = 1;
+        for (EndpointEntity row : rows.values().stream().sorted(Comparator.comparing(EndpointEntity::getId)).toList()) {
+            hash = 31 * hash + row.hashCode();
+        }
+        return String.format("%08x", hash);
     }
 }
@@ -0,0 +1,44 @@
+package com.restaurant.filter_module.core.endpoint;
+
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports the endpoint config version an instance serves under "endpoint-config" of /actuator/info.
+ * Instances serving the same rows report the same fingerprint, whatever their local version.
+ *
+ * @author namdx.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.boot.actuate.info.InfoContributor")
+public class EndpointConfigInfoContributor implements InfoContributor {
+
+    private final DatabaseEndpointSupporter endpointSupporter;
+
+    /**
+     * Instantiates a new Endpoint config info contributor.
+     *
+     * @param endpointSupporter the endpoint supporter
+     */
+    public EndpointConfigInfoContributor(DatabaseEndpointSupporter endpointSupporter) {
+        this.endpointSupporter = endpointSupporter;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        EndpointConfigSnapshot snapshot = endpointSupporter.getSnapshot();
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("version", snapshot.getVersion());
+        details.put("fingerprint", snapshot.getFingerprint());
+        details.put("highWaterMark", snapshot.getHighWaterMark());
+        details.put("loadedAt", snapshot.getLoadedAt());
+        details.put("rows", snapshot.getRows().size());
+        details.put("active", snapshot.getRoutes().size());
+        builder.withDetail("endpoint-config", details);
+    }
+}
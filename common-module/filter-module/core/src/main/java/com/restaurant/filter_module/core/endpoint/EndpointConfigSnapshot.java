@@ -0,0 +1,50 @@
+package com.restaurant.filter_module.core.endpoint;
+
+import com.restaurant.filter_module.core.entity.EndpointEntity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Endpoint configs served by an instance, replaced as a whole on every reload so requests
+ * always see one consistent version.
+ *
+ * @author namdx.
+ */
+@Getter
+@AllArgsConstructor
+public class EndpointConfigSnapshot {
+
+    /**
+     * Version of the snapshot, incremented each time a reload changes the configs.
+     */
+    private final long version;
+
+    /**
+     * Hash of the rows, equal on every instance serving the same configs whatever their version.
+     */
+    private final String fingerprint;
+
+    /**
+     * Latest updated_at among the loaded rows, the next poll reads rows updated after it.
+     */
+    private final LocalDateTime highWaterMark;
+
+    /**
+     * When the snapshot was built.
+     */
+    private final Instant loadedAt;
+
+    /**
+     * Every row of the table by id, inactive ones included to tell updates from deletions.
+     */
+    private final Map<Long, EndpointEntity> rows;
+
+    /**
+     * Active rows compiled for lookups.
+     */
+    private final EndpointRouteTrie routes;
+}
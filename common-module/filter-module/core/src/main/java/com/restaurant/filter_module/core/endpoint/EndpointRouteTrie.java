@@ -0,0 +1,391 @@
+package com.restaurant.filter_module.core.endpoint;
+
+import com.restaurant.filter_module.core.entity.EndpointEntity;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Endpoint configs compiled into a trie of path segments, looked up by request path and method.
+ * <p>
+ * Patterns use the Ant syntax of {@link org.springframework.util.AntPathMatcher}: literal segments,
+ * {@code ?} and {@code *} inside a segment, {@code *} or {@code {var}} for a whole segment,
+ * {@code {var:regex}}, and {@code **} for any number of segments. When several configs match a
+ * request the most specific one wins, comparing segments from the left:
+ * <ol>
+ *     <li>a literal segment, over</li>
+ *     <li>a segment with wildcards or a regex, in load order, over</li>
+ *     <li>a whole-segment {@code *} or {@code {var}}, over</li>
+ *     <li>{@code **}, consuming as few segments as it can.</li>
+ * </ol>
+ * Where the path ends, a config for the request method wins over one for {@code ALL}, and of
+ * configs with the same pattern and method the one with the lowest id wins.
+ * <p>
+ * Lookups walk the path in place and allocate nothing, except on segments with a regex.
+ * A compiled trie is immutable, reloads compile a new one.
+ *
+ * @author namdx.
+ */
+public final class EndpointRouteTrie {
+
+    /**
+     * Method of configs matching every request method.
+     */
+    public static final String ANY_METHOD = "ALL";
+
+    private static final String SEPARATOR = "/";
+    private static final String DOUBLE_WILDCARD = "**";
+    private static final String WILDCARD = "*";
+    private static final Pattern URI_VARIABLE = Pattern.compile("\\{[^/{}:]+}");
+    private static final Pattern REGEX_VARIABLE = Pattern.compile("\\{([^/{}:]+):(.+?)}");
+
+    private final Node root = new Node();
+    private int size;
+
+    private EndpointRouteTrie() {
+    }
+
+    /**
+     * Compile the endpoint configs, skipping those without a path pattern or a method.
+     *
+     * @param endpoints the endpoints
+     * @return the endpoint route trie
+     */
+    public static EndpointRouteTrie compile(Collection<EndpointEntity> endpoints) {
+        EndpointRouteTrie trie = new EndpointRouteTrie();
+        endpoints.stream()
+                .filter(endpoint -> endpoint.getPathPattern() != null && endpoint.getMethod() != null)
+                .sorted(Comparator.comparing(EndpointEntity::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(trie::add);
+        return trie;
+    }
+
+    /**
+     * Gets the most specific config matching the path and method.
+     *
+     * @param path   the request path
+     * @param method the request method, upper case as the servlet reports it
+     * @return the endpoint, null when no config matches
+     */
+    public EndpointEntity find(String path, String method) {
+        return match(root, path, 0, method, path.endsWith(SEPARATOR));
+    }
+
+    /**
+     * Gets the number of compiled configs.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    private void add(EndpointEntity endpoint) {
+        String pattern = endpoint.getPathPattern();
+        String method = endpoint.getMethod().toUpperCase(Locale.ROOT);
+        Node node = root;
+        boolean afterDoubleWildcard = false;
+        String[] segments = StringUtils.tokenizeToStringArray(pattern, SEPARATOR, false, true);
+        for (int i = 0; i < segments.length; i++) {
+            if (i == segments.length - 1 && WILDCARD.equals(segments[i]) && !afterDoubleWildcard) {
+                // AntPathMatcher lets a last * match the empty segment after a trailing separator
+                node.emptySegmentRoutes().add(method, endpoint);
+            }
+            afterDoubleWildcard |= DOUBLE_WILDCARD.equals(segments[i]);
+            node = node.child(segments[i]);
+        }
+        // As with AntPathMatcher, a pattern ending with ** matches with or without a trailing separator
+        boolean anyRest = segments.length > 0 && DOUBLE_WILDCARD.equals(segments[segments.length - 1]);
+        boolean added = false;
+        if (anyRest || !pattern.endsWith(SEPARATOR)) {
+            added = node.routes(false).add(method, endpoint);
+        }
+        if (anyRest || pattern.endsWith(SEPARATOR)) {
+            added |= node.routes(true).add(method, endpoint);
+        }
+        if (added) {
+            size++;
+        }
+    }
+
+    private static EndpointEntity match(Node node, String path, int from, String method, boolean slash) {
+        int start = skipSeparators(path, from);
+        if (start == path.length()) {
+            Routes routes = slash ? node.slashRoutes : node.routes;
+            EndpointEntity found = routes == null ? null : routes.get(method);
+            if (found == null && slash && node.emptySegmentRoutes != null) {
+                found = node.emptySegmentRoutes.get(method);
+            }
+            return found != null ? found : matchRest(node, path, start, method, slash);
+        }
+        int end = segmentEnd(path, start);
+        EndpointEntity found;
+        Node literal = node.literals.get(path, start, end);
+        if (literal != null && (found = match(literal, path, end, method, slash)) != null) {
+            return found;
+        }
+        for (SegmentNode segment : node.segments) {
+            if (segment.matches(path, start, end) && (found = match(segment.node, path, end, method, slash)) != null) {
+                return found;
+            }
+        }
+        if (node.wildcard != null && (found = match(node.wildcard, path, end, method, slash)) != null) {
+            return found;
+        }
+        return matchRest(node, path, start, method, slash);
+    }
+
+    /**
+     * Match the ** child of the node, letting it consume one more segment after each failed attempt.
+     */
+    private static EndpointEntity matchRest(Node node, String path, int from, String method, boolean slash) {
+        Node rest = node.doubleWildcard;
+        if (rest == null) {
+            return null;
+        }
+        int position = from;
+        while (true) {
+            EndpointEntity found = match(rest, path, position, method, slash);
+            if (found != null) {
+                return found;
+            }
+            int start = skipSeparators(path, position);
+            if (start == path.length()) {
+                return null;
+            }
+            position = segmentEnd(path, start);
+        }
+    }
+
+    private static int skipSeparators(String path, int from) {
+        int position = from;
+        while (position < path.length() && path.charAt(position) == '/') {
+            position++;
+        }
+        return position;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static final class Node {
+        private final Literals literals = new Literals();
+        private SegmentNode[] segments = new SegmentNode[0];
+        private Node wildcard;
+        private Node doubleWildcard;
+        private Routes routes;
+        private Routes slashRoutes;
+        private Routes emptySegmentRoutes;
+
+        private Node child(String segment) {
+            if (DOUBLE_WILDCARD.equals(segment)) {
+                return doubleWildcard == null ? doubleWildcard = new Node() : doubleWildcard;
+            }
+            if (WILDCARD.equals(segment) || URI_VARIABLE.matcher(segment).matches()) {
+                return wildcard == null ? wildcard = new Node() : wildcard;
+            }
+            if (segment.indexOf('*') < 0 && segment.indexOf('?') < 0 && segment.indexOf('{') < 0) {
+                return literals.computeIfAbsent(segment);
+            }
+            for (SegmentNode existing : segments) {
+                if (existing.source.equals(segment)) {
+                    return existing.node;
+                }
+            }
+            SegmentNode created = new SegmentNode(segment);
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            segments[segments.length - 1] = created;
+            return created.node;
+        }
+
+        private Routes routes(boolean slash) {
+            if (slash) {
+                return slashRoutes == null ? slashRoutes = new Routes() : slashRoutes;
+            }
+            return routes == null ? routes = new Routes() : routes;
+        }
+
+        private Routes emptySegmentRoutes() {
+            return emptySegmentRoutes == null ? emptySegmentRoutes = new Routes() : emptySegmentRoutes;
+        }
+    }
+
+    /**
+     * Configs of one pattern by method, the first added for a method is kept.
+     */
+    private static final class Routes {
+        private final Map<String, EndpointEntity> methods = new HashMap<>(4);
+        private EndpointEntity anyMethod;
+
+        private boolean add(String method, EndpointEntity endpoint) {
+            if (ANY_METHOD.equals(method)) {
+                if (anyMethod != null) {
+                    return false;
+                }
+                anyMethod = endpoint;
+                return true;
+            }
+            return methods.putIfAbsent(method, endpoint) == null;
+        }
+
+        private EndpointEntity get(String method) {
+            EndpointEntity endpoint = method == null ? null : methods.get(method);
+            return endpoint != null ? endpoint : anyMethod;
+        }
+    }
+
+    /**
+     * A segment with wildcards, matched as a glob, or as a regex when it declares one.
+     */
+    private static final class SegmentNode {
+        private final String source;
+        private final String glob;
+        private final Pattern regex;
+        private final Node node = new Node();
+
+        private SegmentNode(String source) {
+            this.source = source;
+            if (REGEX_VARIABLE.matcher(source).find()) {
+                this.glob = null;
+                this.regex = Pattern.compile(toRegex(source));
+            } else {
+                this.glob = URI_VARIABLE.matcher(source).replaceAll(WILDCARD);
+                this.regex = null;
+            }
+        }
+
+        private boolean matches(String path, int start, int end) {
+            return regex != null
+                    ? regex.matcher(path).region(start, end).matches()
+                    : globMatches(glob, path, start, end);
+        }
+
+        private static String toRegex(String segment) {
+            StringBuilder regex = new StringBuilder();
+            int position = 0;
+            while (position < segment.length()) {
+                char c = segment.charAt(position);
+                if (c == '{') {
+                    int close = segment.indexOf('}', position);
+                    String variable = segment.substring(position + 1, close);
+                    int colon = variable.indexOf(':');
+                    regex.append('(').append(colon < 0 ? ".*" : variable.substring(colon + 1)).append(')');
+                    position = close + 1;
+                    continue;
+                }
+                if (c == '*') {
+                    regex.append(".*");
+                } else if (c == '?') {
+                    regex.append('.');
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+                position++;
+            }
+            return regex.toString();
+        }
+
+        private static boolean globMatches(String glob, String path, int start, int end) {
+            int g = 0;
+            int position = start;
+            int star = -1;
+            int mark = start;
+            while (position < end) {
+                char c = g < glob.length() ? glob.charAt(g) : 0;
+                if (g < glob.length() && (c == '?' || (c != '*' && c == path.charAt(position)))) {
+                    g++;
+                    position++;
+                } else if (c == '*') {
+                    star = g++;
+                    mark = position;
+                } else if (star >= 0) {
+                    g = star + 1;
+                    position = ++mark;
+                } else {
+                    return false;
+                }
+            }
+            while (g < glob.length() && glob.charAt(g) == '*') {
+                g++;
+            }
+            return g == glob.length();
+        }
+    }
+
+    /**
+     * Open addressing table of literal segments, probed with a region of the path so lookups
+     * do not cut the segment out of it.
+     */
+    private static final class Literals {
+        private String[] keys = new String[2];
+        private Node[] nodes = new Node[2];
+        private int count;
+
+        private Node get(String path, int start, int end) {
+            if (count == 0) {
+                return null;
+            }
+            int length = end - start;
+            int mask = keys.length - 1;
+            for (int i = hash(path, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == length && key.regionMatches(0, path, start, length)) {
+                    return nodes[i];
+                }
+            }
+            return null;
+        }
+
+        private Node computeIfAbsent(String segment) {
+            Node existing = get(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            if ((count + 1) * 2 > keys.length) {
+                resize();
+            }
+            Node node = new Node();
+            insert(segment, node);
+            count++;
+            return node;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            Node[] oldNodes = nodes;
+            keys = new String[oldKeys.length * 2];
+            nodes = new Node[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(oldKeys[i], oldNodes[i]);
+                }
+            }
+        }
+
+        private void insert(String segment, Node node) {
+            int mask = keys.length - 1;
+            int i = hash(segment, 0, segment.length()) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = segment;
+            nodes[i] = node;
+        }
+
+        private static int hash(String path, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.restaurant.filter_module.core.entity;
 import com.restaurant.data.model.IEndpointModel;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "endpoint_config")
@@ -48,6 +51,17 @@ public class EndpointEntity implements IEndpointModel {
     @Column(name = "method", nullable = false)
     private String method;
 
+    /**
+     * Set only on the built-in default config, never stored.
+     */
+    @Transient
+    @Builder.Default
+    private boolean rateLimitPerPath = false;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Override
     public String getEndpoint() {
         return endpoint;
@@ -87,5 +101,10 @@ public class EndpointEntity implements IEndpointModel {
     public boolean isActive() {
         return isActive;
     }
+
+    @Override
+    public boolean isRateLimitPerPath() {
+        return rateLimitPerPath;
+    }
 }
 
@@ -1,6 +1,7 @@
 package com.restaurant.filter_module.core.filter;
 
 
+import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.chain.MvcFilter;
 import com.restaurant.filter_module.core.chain.MvcFilterChain;
 import com.restaurant.filter_module.core.exception.FilterException;
@@ -19,8 +20,24 @@ public abstract class BaseMvcFilter implements MvcFilter {
         doFilterInternal(request, response, chain);
     }
 
+    @Override
+    public boolean appliesTo(IEndpointModel endpointModel) {
+        return !shouldNotFilter(endpointModel);
+    }
+
+    /**
+     * Should not filter endpoints of the config, decided once when the pipeline of the config is
+     * compiled.
+     *
+     * @param endpointModel the endpoint model
+     * @return the boolean
+     */
+    protected boolean shouldNotFilter(IEndpointModel endpointModel) {
+        return false;
+    }
+
     /**
-     * Should not filter boolean.
+     * Should not filter the request, for conditions depending on more than the endpoint config.
      *
      * @param request the request
      * @return the boolean
@@ -3,10 +3,14 @@ package com.restaurant.filter_module.core.filter;
 import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.data.properties.SecurityProperties;
 import com.restaurant.filter_module.core.chain.IMvcFilterChainManager;
+import com.restaurant.filter_module.core.chain.MvcFilterChain;
 import com.restaurant.filter_module.core.context.SecurityContext;
 import com.restaurant.filter_module.core.context.SecurityContextHolder;
 import com.restaurant.filter_module.core.endpoint.IEndpointSupporter;
+import com.restaurant.filter_module.core.enums.FilterCoreErrorCode;
 import com.restaurant.filter_module.core.exception.FilterException;
+import com.restaurant.filter_module.core.metrics.SecurityMetrics;
+import com.restaurant.filter_module.core.metrics.SecurityOutcome;
 import com.restaurant.filter_module.core.model.DefaultFilterRequest;
 import com.restaurant.filter_module.core.model.DefaultFilterResponse;
 import com.restaurant.filter_module.core.util.UriUtil;
@@ -29,6 +33,7 @@ import java.time.LocalDateTime;
 public class DefaultOnePerRequestFilter extends BaseOnePerRequestFilter {
     private final IEndpointSupporter iEndpointSupporter;
     private final IMvcFilterChainManager iMvcFilterChainManager;
+    private final SecurityMetrics securityMetrics;
 
     /**
      * Instantiates a new Base vnpay one per business request filter.
@@ -38,9 +43,23 @@ public class DefaultOnePerRequestFilter extends BaseOnePerRequestFilter {
     public DefaultOnePerRequestFilter(SecurityProperties securityProperties,
                                       IEndpointSupporter iEndpointSupporter,
                                       IMvcFilterChainManager iMvcFilterChainManager) {
+        this(securityProperties, iEndpointSupporter, iMvcFilterChainManager, null);
+    }
+
+    /**
+     * Instantiates a new Base vnpay one per business request filter, timing the endpoint lookup.
+     *
+     * @param securityProperties the security properties
+     * @param securityMetrics    the security metrics
+     */
+    public DefaultOnePerRequestFilter(SecurityProperties securityProperties,
+                                      IEndpointSupporter iEndpointSupporter,
+                                      IMvcFilterChainManager iMvcFilterChainManager,
+                                      SecurityMetrics securityMetrics) {
         super(securityProperties);
         this.iEndpointSupporter = iEndpointSupporter;
         this.iMvcFilterChainManager = iMvcFilterChainManager;
+        this.securityMetrics = securityMetrics;
     }
 
     @Override
@@ -48,13 +67,19 @@ public class DefaultOnePerRequestFilter extends BaseOnePerRequestFilter {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) {
         try {
-            //cache rp để xử lý edit thêm nếu cần. ví dụ mã hóa rp trước khi trả cho client
-            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
-            SecurityContext securityContext = SecurityContextHolder.getOrCreateContext();
+            // context mới cho mỗi request, set một lần để các filter và tầng dưới dùng chung
+            SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            SecurityContextHolder.setContext(securityContext);
             securityContext.setRequestTime(LocalDateTime.now());
             //call DB lấy lên api đã config
-            IEndpointModel iEndpointModel = iEndpointSupporter.getEndpoint(UriUtil.replaceQuery(request.getRequestURI()), request.getMethod());
+            IEndpointModel iEndpointModel = getEndpoint(request, response);
             securityContext.setEndpointModel(iEndpointModel);
+            MvcFilterChain mvcFilterChain = iMvcFilterChainManager.getFilterChain(iEndpointModel);
+
+            //cache rp chỉ khi chain cần edit thêm, ví dụ mã hóa rp trước khi trả cho client; còn lại stream thẳng cho client
+            ContentCachingResponseWrapper responseWrapper = mvcFilterChain.rewritesResponse()
+                    ? new ContentCachingResponseWrapper(response)
+                    : null;
 
             DefaultFilterRequest defaultFilterRequest = DefaultFilterRequest.builder()
                     .httpServletRequest(request)
@@ -62,18 +87,19 @@ public class DefaultOnePerRequestFilter extends BaseOnePerRequestFilter {
                     .build();
 
             DefaultFilterResponse defaultFilterResponse = DefaultFilterResponse.builder()
-                    .httpServletResponse(responseWrapper)
+                    .httpServletResponse(responseWrapper != null ? responseWrapper : response)
                     .build();
 
             //duyệt qua tất cả các chain theo security type config cho api cụ thể
-            iMvcFilterChainManager.filter(defaultFilterRequest, defaultFilterResponse);
+            iMvcFilterChainManager.filter(defaultFilterRequest, defaultFilterResponse, mvcFilterChain);
+            if (defaultFilterResponse.getFormatter() != null && responseWrapper == null) {
+                throw new FilterException(FilterCoreErrorCode.INTERNAL_ERROR,
+                        "Response formatter set on chain " + iEndpointModel.getSecurityType() + " that does not rewrite responses");
+            }
 
             HttpServletRequest httpServletRequest = defaultFilterRequest.getHttpServletRequest();
             HttpServletResponse httpServletResponse = defaultFilterResponse.getHttpServletResponse();
 
-            //set context để dùng trong các tầng dưới
-            SecurityContextHolder.setContext(securityContext);
-
             filterChain.doFilter(httpServletRequest, httpServletResponse);
 
             //xử lý formater ở chain cuối dk set ví dụ như jwt response filter hay rsa response filter
@@ -82,14 +108,39 @@ public class DefaultOnePerRequestFilter extends BaseOnePerRequestFilter {
             }
 
             //copy toàn bộ rp từ các lớp xử lý để trả cho client
-            responseWrapper.copyBodyToResponse();
+            if (responseWrapper != null) {
+                responseWrapper.copyBodyToResponse();
+            }
         } catch (Exception e) {
             handleFilterError(response, e);
             log.error("Filter error for {}: {}", request.getRequestURI(), e.getMessage());
+        } finally {
+            //thread được tái sử dụng cho request khác, không để lại context của request này
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private IEndpointModel getEndpoint(HttpServletRequest request, HttpServletResponse response) throws FilterException {
+        String endpoint = UriUtil.replaceQuery(request.getRequestURI());
+        if (securityMetrics == null || !securityMetrics.isEnabled()) {
+            return iEndpointSupporter.getEndpoint(endpoint, request.getMethod());
+        }
+        long start = System.nanoTime();
+        try {
+            IEndpointModel iEndpointModel = iEndpointSupporter.getEndpoint(endpoint, request.getMethod());
+            securityMetrics.recordLookup(iEndpointModel, SecurityOutcome.PASS, System.nanoTime() - start, response);
+            return iEndpointModel;
+        } catch (FilterException | RuntimeException e) {
+            securityMetrics.recordLookup(null, SecurityOutcome.of(e), System.nanoTime() - start, response);
+            throw e;
         }
     }
 
     private void handleFilterError(HttpServletResponse response, Exception e) {
+        if (response.isCommitted()) {
+            // Streamed body already on its way to the client, nothing left to replace
+            return;
+        }
         try {
             int statusCode = HttpStatus.INTERNAL_SERVER_ERROR.value();
             String errorMessage = "Internal server error";
@@ -0,0 +1,180 @@
+package com.restaurant.filter_module.core.metrics;
+
+import com.restaurant.data.model.IEndpointModel;
+import com.restaurant.data.properties.SecurityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timers of the security steps of a request: each MVC filter, the endpoint lookup and session
+ * validation, tagged by endpoint pattern, security type and outcome. The count of a timer is the
+ * number of requests with that outcome.
+ * <p>
+ * Filter timers measure the filter alone, not the filters after it. With server-timing on, each
+ * step is also added to the response as a Server-Timing entry.
+ * <p>
+ * Timers are cached by step and endpoint config instance, as filter pipelines are, so a request
+ * does not look meters up in the registry.
+ *
+ * @author namdx.
+ */
+public class SecurityMetrics {
+
+    /**
+     * Metric name of the MVC filters and interceptors, tagged by filter.
+     */
+    public static final String METRIC_FILTER = "security.filter";
+
+    /**
+     * Metric name of the endpoint config lookup.
+     */
+    public static final String METRIC_ENDPOINT_LOOKUP = "security.endpoint.lookup";
+
+    /**
+     * Tag of the step timed.
+     */
+    public static final String TAG_FILTER = "filter";
+
+    /**
+     * Tag of the endpoint pattern.
+     */
+    public static final String TAG_ENDPOINT = "endpoint";
+
+    /**
+     * Tag of the security type.
+     */
+    public static final String TAG_SECURITY_TYPE = "security_type";
+
+    /**
+     * Tag of the outcome.
+     */
+    public static final String TAG_OUTCOME = "outcome";
+
+    /**
+     * Header of the per-request breakdown.
+     */
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final String UNKNOWN = "unknown";
+    private static final int MAX_TIMERS = 10_000;
+
+    private final boolean enabled;
+    private final boolean serverTiming;
+    private final MeterRegistry registry;
+    private final Map<TimerKey, StepTimer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Security metrics on the global registry.
+     *
+     * @param instrumentation the instrumentation properties
+     */
+    public SecurityMetrics(SecurityProperties.Instrumentation instrumentation) {
+        this(instrumentation, Metrics.globalRegistry);
+    }
+
+    /**
+     * Instantiates a new Security metrics.
+     *
+     * @param instrumentation the instrumentation properties
+     * @param registry        the registry
+     */
+    public SecurityMetrics(SecurityProperties.Instrumentation instrumentation, MeterRegistry registry) {
+        this.enabled = instrumentation.isEnabled();
+        this.serverTiming = instrumentation.isEnabled() && instrumentation.isServerTiming();
+        this.registry = registry;
+    }
+
+    /**
+     * Is enabled boolean, steps are not timed otherwise.
+     *
+     * @return the boolean
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the timer of a filter or interceptor for endpoints of the config, cached per config instance.
+     *
+     * @param filter        the filter name
+     * @param endpointModel the endpoint model, null when unknown
+     * @return the step timer
+     */
+    public StepTimer filterTimer(String filter, IEndpointModel endpointModel) {
+        return timer(METRIC_FILTER, filter, endpointModel);
+    }
+
+    /**
+     * Record an endpoint lookup.
+     *
+     * @param endpointModel the endpoint config found, null when the lookup failed
+     * @param outcome       the outcome
+     * @param nanos         the duration in nanoseconds
+     * @param response      the response
+     */
+    public void recordLookup(IEndpointModel endpointModel, SecurityOutcome outcome, long nanos, HttpServletResponse response) {
+        timer(METRIC_ENDPOINT_LOOKUP, null, endpointModel).record(outcome, nanos);
+        addServerTiming(response, "endpoint-lookup", nanos);
+    }
+
+    /**
+     * Add a step to the Server-Timing header when enabled, while the response is not committed.
+     *
+     * @param response the response
+     * @param step     the step name
+     * @param nanos    the duration in nanoseconds
+     */
+    public void addServerTiming(HttpServletResponse response, String step, long nanos) {
+        if (serverTiming && response != null && !response.isCommitted()) {
+            response.addHeader(SERVER_TIMING, String.format(Locale.ROOT, "%s;dur=%.3f", step, nanos / 1_000_000.0));
+        }
+    }
+
+    private StepTimer timer(String name, String filter, IEndpointModel endpointModel) {
+        TimerKey key = new TimerKey(name, filter, endpointModel);
+        StepTimer timer = timers.get(key);
+        if (timer != null) {
+            return timer;
+        }
+        // Timers of replaced configs stay until the cache is full and starts over
+        if (timers.size() >= MAX_TIMERS) {
+            timers.clear();
+        }
+        Tags tags = endpointTags(endpointModel);
+        timer = new StepTimer(registry, name, filter == null ? tags : tags.and(TAG_FILTER, filter));
+        StepTimer raced = timers.putIfAbsent(key, timer);
+        return raced != null ? raced : timer;
+    }
+
+    private static Tags endpointTags(IEndpointModel endpointModel) {
+        if (endpointModel == null) {
+            return Tags.of(TAG_ENDPOINT, UNKNOWN, TAG_SECURITY_TYPE, UNKNOWN);
+        }
+        return Tags.of(
+                TAG_ENDPOINT, endpointModel.getPathPattern() != null ? endpointModel.getPathPattern() : UNKNOWN,
+                TAG_SECURITY_TYPE, endpointModel.getSecurityType() != null ? endpointModel.getSecurityType() : UNKNOWN);
+    }
+
+    /**
+     * Key of a step timer, the endpoint config compared by identity.
+     */
+    private record TimerKey(String name, String filter, IEndpointModel endpointModel) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TimerKey key && key.endpointModel == endpointModel
+                    && key.name.equals(name) && Objects.equals(key.filter, filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * name.hashCode() + Objects.hashCode(filter)) * 31 + System.identityHashCode(endpointModel);
+        }
+    }
+}
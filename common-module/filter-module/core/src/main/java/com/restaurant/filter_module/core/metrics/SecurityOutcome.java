@@ -0,0 +1,44 @@
+package com.restaurant.filter_module.core.metrics;
+
+import com.restaurant.filter_module.core.exception.FilterException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a timed security step.
+ *
+ * @author namdx.
+ */
+@Getter
+@AllArgsConstructor
+public enum SecurityOutcome {
+    /**
+     * The request went on to the next step.
+     */
+    PASS("pass"),
+    /**
+     * The request was turned away, e.g. unauthenticated or over its rate limit.
+     */
+    REJECT("reject"),
+    /**
+     * The step failed.
+     */
+    ERROR("error");
+
+    private final String tag;
+
+    /**
+     * Gets the outcome of a step that stopped the request with the exception, a client error
+     * status is a rejection.
+     *
+     * @param e the exception
+     * @return the outcome
+     */
+    public static SecurityOutcome of(Throwable e) {
+        if (e instanceof FilterException filterException
+                && filterException.getHttpStatusCode() >= 400 && filterException.getHttpStatusCode() < 500) {
+            return REJECT;
+        }
+        return ERROR;
+    }
+}
@@ -0,0 +1,45 @@
+package com.restaurant.filter_module.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers of one security step for one endpoint config, one per outcome, registered on first use.
+ *
+ * @author namdx.
+ */
+public final class StepTimer {
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final Tags tags;
+    private final Timer[] timers = new Timer[SecurityOutcome.values().length];
+
+    StepTimer(MeterRegistry registry, String name, Tags tags) {
+        this.registry = registry;
+        this.name = name;
+        this.tags = tags;
+    }
+
+    /**
+     * Record a run of the step.
+     *
+     * @param outcome the outcome
+     * @param nanos   the duration in nanoseconds
+     */
+    public void record(SecurityOutcome outcome, long nanos) {
+        Timer timer = timers[outcome.ordinal()];
+        if (timer == null) {
+            // Racing threads get the same meter back from the registry
+            timer = Timer.builder(name)
+                    .tags(tags)
+                    .tag(SecurityMetrics.TAG_OUTCOME, outcome.getTag())
+                    .register(registry);
+            timers[outcome.ordinal()] = timer;
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
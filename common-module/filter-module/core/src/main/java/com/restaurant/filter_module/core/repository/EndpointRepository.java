@@ -2,8 +2,11 @@ package com.restaurant.filter_module.core.repository;
 
 import com.restaurant.filter_module.core.entity.EndpointEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +15,10 @@ public interface EndpointRepository extends JpaRepository<EndpointEntity, Long>
     Optional<EndpointEntity> findByEndpoint(String endpoint);
 
     Optional<EndpointEntity> findByEndpointAndIsActiveTrue(String endpoint);
+
+    List<EndpointEntity> findByUpdatedAtAfter(LocalDateTime updatedAt);
+
+    @Query("select e.id from EndpointEntity e")
+    List<Long> findAllIds();
 }
 
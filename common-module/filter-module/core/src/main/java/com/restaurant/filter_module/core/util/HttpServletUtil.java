@@ -7,8 +7,10 @@ import com.restaurant.filter_module.core.constants.SecurityConstants;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 import org.slf4j.MDC;
 import org.springframework.util.StringUtils;
@@ -59,6 +61,42 @@ public interface HttpServletUtil {
         return remoteIp.getFirst();
     }
 
+    /**
+     * Gets the client ip the trusted proxies vouch for: the connection peer unless it is a trusted
+     * proxy, else the rightmost X-Forwarded-For hop that is not one. Hops left of it are set by the
+     * client and ignored.
+     *
+     * @param httpServletRequest the http servlet request
+     * @param trustedProxies     the addresses of the trusted proxies
+     * @return the client ip
+     */
+    static String getTrustedClientIP(HttpServletRequest httpServletRequest, Pattern trustedProxies) {
+        if (httpServletRequest == null) {
+            return null;
+        }
+        String clientIp = httpServletRequest.getRemoteAddr();
+        if (clientIp == null || !trustedProxies.matcher(clientIp).matches()) {
+            return clientIp;
+        }
+        // Proxies may append a header line of their own rather than extend the first one
+        List<String> hops = new ArrayList<>();
+        Enumeration<String> headers = httpServletRequest.getHeaders(SecurityConstants.CLIENT_IP);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String hop : headers.nextElement().split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            clientIp = hops.get(i);
+            if (!trustedProxies.matcher(clientIp).matches()) {
+                return clientIp;
+            }
+        }
+        return clientIp;
+    }
+
     /**
      * Gets request id.
      *
@@ -0,0 +1,64 @@
+package com.restaurant.filter_module.core.context;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InheritableThreadLocalContextHolderStrategyTest {
+
+    private final InheritableThreadLocalContextHolderStrategy strategy = new InheritableThreadLocalContextHolderStrategy();
+
+    @Test
+    void childGetsACopyItCanChangeAlone() throws InterruptedException {
+        DefaultSecurityContext parent = DefaultSecurityContext.builder()
+                .userId(1L)
+                .roles(new ArrayList<>(List.of("ROLE_USER")))
+                .build();
+        strategy.setContext(parent);
+        AtomicReference<SecurityContext> seen = new AtomicReference<>();
+
+        Thread child = Thread.ofVirtual().start(() -> {
+            DefaultSecurityContext context = (DefaultSecurityContext) strategy.getContext();
+            seen.set(context);
+            context.setUserId(2L);
+            context.getRoles().add("ROLE_ADMIN");
+        });
+        child.join();
+
+        assertNotSame(parent, seen.get());
+        assertEquals(1L, parent.getUserId());
+        assertEquals(List.of("ROLE_USER"), parent.getRoles());
+        strategy.clearContext();
+    }
+
+    @Test
+    void deferredContextIsCopiedWhenResolved() throws InterruptedException {
+        DefaultSecurityContext parent = DefaultSecurityContext.builder().userId(1L).build();
+        strategy.setDeferredContext(() -> parent);
+        AtomicReference<SecurityContext> seen = new AtomicReference<>();
+
+        Thread child = Thread.ofVirtual().start(() -> seen.set(strategy.getContext()));
+        child.join();
+
+        assertNotSame(parent, seen.get());
+        assertEquals(1L, seen.get().getUserId());
+        strategy.clearContext();
+    }
+
+    @Test
+    void childOfAThreadWithoutContextHasNone() throws InterruptedException {
+        strategy.clearContext();
+        AtomicReference<SecurityContext> seen = new AtomicReference<>(new DefaultSecurityContext());
+
+        Thread child = Thread.ofVirtual().start(() -> seen.set(strategy.peekContext()));
+        child.join();
+
+        assertNull(seen.get());
+    }
+}
@@ -0,0 +1,170 @@
+package com.restaurant.filter_module.core.default_filter.rate_limit;
+
+import com.restaurant.data.properties.SecurityProperties;
+import com.restaurant.redismodule.config.RedisProperties;
+import com.restaurant.redismodule.service.IRedisService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
+import io.github.bucket4j.ConsumptionProbe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisBucketRateLimiterTest {
+
+    private static final String API_KEY = "203.0.113.7";
+    private static final String KEY = RedisBucketRateLimiter.KEY_PREFIX + API_KEY + "|100/60";
+    private static final Duration INTERVAL = Duration.ofSeconds(60);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final IRedisService redisService = mock(IRedisService.class);
+    private final IBucketRateLimiter fallback = mock(IBucketRateLimiter.class);
+    private RedisCircuitBreaker circuitBreaker;
+    private RedisBucketRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new RedisCircuitBreaker(new RedisProperties());
+        limiter = new RedisBucketRateLimiter(redisService, circuitBreaker, fallback,
+                new SecurityProperties.RateLimit(), now::get);
+        when(fallback.tryConsume(anyString(), anyLong(), anyLong())).thenReturn(ConsumptionProbe.consumed(42));
+    }
+
+    @Test
+    void batchIsServedLocallyUntilUsedUp() {
+        // 5% of 100 per call to Redis
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5)).thenReturn(new long[]{5, 90, 60_000});
+
+        assertEquals(94, consume().getRemainingTokens());
+        for (long left = 3; left >= 0; left--) {
+            assertEquals(left, consume().getRemainingTokens());
+        }
+        verify(redisService, times(1)).takeTokens(KEY, 100, INTERVAL, 5);
+
+        assertTrue(consume().isConsumed());
+        verify(redisService, times(2)).takeTokens(KEY, 100, INTERVAL, 5);
+    }
+
+    @Test
+    void partialBatchIsHandedOutBeforeTheBucketIsEmpty() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5))
+                .thenReturn(new long[]{2, 0, 60_000}, new long[]{0, 0, 59_000});
+
+        assertTrue(consume().isConsumed());
+        assertTrue(consume().isConsumed());
+        ConsumptionProbe rejected = consume();
+
+        assertFalse(rejected.isConsumed());
+        assertEquals(TimeUnit.SECONDS.toNanos(59), rejected.getNanosToWaitForRefill());
+    }
+
+    @Test
+    void exhaustedBucketIsRejectedLocallyUntilItsRefill() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5))
+                .thenReturn(new long[]{0, 0, 30_000}, new long[]{5, 95, 60_000});
+
+        ConsumptionProbe first = consume();
+        assertFalse(first.isConsumed());
+        assertEquals(TimeUnit.SECONDS.toNanos(30), first.getNanosToWaitForRefill());
+
+        advance(Duration.ofSeconds(10));
+        ConsumptionProbe second = consume();
+        assertFalse(second.isConsumed());
+        assertEquals(TimeUnit.SECONDS.toNanos(20), second.getNanosToWaitForRefill());
+        verify(redisService, times(1)).takeTokens(KEY, 100, INTERVAL, 5);
+
+        advance(Duration.ofSeconds(20));
+        assertTrue(consume().isConsumed());
+        verify(redisService, times(2)).takeTokens(KEY, 100, INTERVAL, 5);
+    }
+
+    @Test
+    void unusedBatchExpiresAtTheRefill() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5)).thenReturn(new long[]{5, 95, 15_000});
+
+        consume();
+        advance(Duration.ofSeconds(15).minusNanos(1));
+        consume();
+        verify(redisService, times(1)).takeTokens(KEY, 100, INTERVAL, 5);
+
+        advance(Duration.ofNanos(1));
+        consume();
+        verify(redisService, times(2)).takeTokens(KEY, 100, INTERVAL, 5);
+    }
+
+    @Test
+    void refillIsTimedFromBeforeTheCall() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5)).thenAnswer(invocation -> {
+            advance(Duration.ofSeconds(1));
+            return new long[]{0, 0, 30_000};
+        }).thenReturn(new long[]{5, 95, 60_000});
+
+        assertFalse(consume().isConsumed());
+        advance(Duration.ofSeconds(29));
+
+        assertTrue(consume().isConsumed());
+        verify(redisService, times(2)).takeTokens(KEY, 100, INTERVAL, 5);
+    }
+
+    @Test
+    void bucketWithoutExpiryIsRefilledAfterTheInterval() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5)).thenReturn(new long[]{0, 0, 0});
+
+        assertEquals(INTERVAL.toNanos(), consume().getNanosToWaitForRefill());
+    }
+
+    @Test
+    void redisFailureFallsBackToTheLocalBucket() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5)).thenThrow(new IllegalStateException("down"));
+
+        assertEquals(42, consume().getRemainingTokens());
+        verify(fallback).tryConsume(API_KEY, 100, 60);
+        assertEquals(1, circuitBreaker.getFailureCount());
+    }
+
+    @Test
+    void openCircuitSkipsRedis() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5)).thenThrow(new IllegalStateException("down"));
+        for (int i = 0; i < new RedisProperties().getBreaker().getFailureThreshold(); i++) {
+            consume();
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        assertEquals(42, consume().getRemainingTokens());
+        verify(redisService, times(5)).takeTokens(KEY, 100, INTERVAL, 5);
+    }
+
+    @Test
+    void redisSuccessIsRecordedOnTheBreaker() {
+        when(redisService.takeTokens(KEY, 100, INTERVAL, 5))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(new long[]{5, 95, 60_000});
+
+        consume();
+        consume();
+
+        assertEquals(0, circuitBreaker.getFailureCount());
+        verify(fallback, times(1)).tryConsume(eq(API_KEY), anyLong(), anyLong());
+    }
+
+    private ConsumptionProbe consume() {
+        return limiter.tryConsume(API_KEY, 100, 60);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
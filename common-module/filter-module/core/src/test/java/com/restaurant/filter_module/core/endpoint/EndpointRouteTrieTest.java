@@ -0,0 +1,187 @@
+package com.restaurant.filter_module.core.endpoint;
+
+import com.restaurant.filter_module.core.entity.EndpointEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointRouteTrieTest {
+
+    private static final List<String> PATTERNS = List.of(
+            "/",
+            "/**",
+            "/api/orders",
+            "/api/orders/",
+            "/api/orders/*",
+            "/api/orders/*/",
+            "/api/orders/{id}",
+            "/api/orders/{id:\\d+}",
+            "/api/orders/{id:\\d+}/items",
+            "/api/orders/**",
+            "/api/**",
+            "/api/**/",
+            "/api/**/items",
+            "/api/**/items/{id}",
+            "/api/*/items",
+            "/api/ord?rs",
+            "/api/order*",
+            "/api/v{version}/orders",
+            "/api/{name:[a-z]+}-{id:\\d+}",
+            "/files/*.json",
+            "/files/**/*.json"
+    );
+
+    private static final List<String> PATHS = List.of(
+            "/",
+            "/api",
+            "/api/",
+            "/api/orders",
+            "/api/orders/",
+            "/api/orders/42",
+            "/api/orders/42/",
+            "/api/orders/abc",
+            "/api/orders/42/items",
+            "/api/orders/42/items/7",
+            "/api/orders/abc/items",
+            "/api/items",
+            "/api/a/b/c/items",
+            "/api/a/items/x",
+            "/api/ordxrs",
+            "/api/orders-archive",
+            "/api/v2/orders",
+            "/api/pho-12",
+            "/api/pho-x",
+            "/files/menu.json",
+            "/files/menu.xml",
+            "/files/2026/01/menu.json",
+            "//api//orders",
+            "/other"
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Test
+    void eachPatternMatchesTheSamePathsAsAntPathMatcher() {
+        for (String pattern : PATTERNS) {
+            EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(endpoint(1, pattern, "GET")));
+            for (String path : PATHS) {
+                assertEquals(pathMatcher.match(pattern, path), trie.find(path, "GET") != null,
+                        () -> pattern + " on " + path);
+            }
+        }
+    }
+
+    @Test
+    void tableLookupFindsAMatchingConfigWheneverOneExists() {
+        List<EndpointEntity> table = new ArrayList<>();
+        for (int i = 0; i < PATTERNS.size(); i++) {
+            table.add(endpoint(i + 1, PATTERNS.get(i), "GET"));
+        }
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(table);
+        for (String path : PATHS) {
+            EndpointEntity found = trie.find(path, "GET");
+            boolean matched = table.stream().anyMatch(endpoint -> pathMatcher.match(endpoint.getPathPattern(), path));
+            assertEquals(matched, found != null, path);
+            if (found != null) {
+                assertTrue(pathMatcher.match(found.getPathPattern(), path), () -> found.getPathPattern() + " on " + path);
+            }
+        }
+    }
+
+    @Test
+    void literalBeatsPatternBeatsVariableBeatsDoubleWildcard() {
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(
+                endpoint(1, "/api/**", "GET"),
+                endpoint(2, "/api/orders/{id}", "GET"),
+                endpoint(3, "/api/orders/4?", "GET"),
+                endpoint(4, "/api/orders/42", "GET")));
+
+        assertEquals(4, id(trie.find("/api/orders/42", "GET")));
+        assertEquals(3, id(trie.find("/api/orders/43", "GET")));
+        assertEquals(2, id(trie.find("/api/orders/7", "GET")));
+        assertEquals(1, id(trie.find("/api/orders/7/items", "GET")));
+    }
+
+    @Test
+    void regexVariableBeatsPlainVariable() {
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(
+                endpoint(1, "/api/orders/{id}", "GET"),
+                endpoint(2, "/api/orders/{id:\\d+}", "GET")));
+
+        assertEquals(2, id(trie.find("/api/orders/42", "GET")));
+        assertEquals(1, id(trie.find("/api/orders/abc", "GET")));
+    }
+
+    @Test
+    void doubleWildcardInTheMiddleConsumesAsFewSegmentsAsItCan() {
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(
+                endpoint(1, "/api/**", "GET"),
+                endpoint(2, "/api/**/items", "GET"),
+                endpoint(3, "/api/**/items/{id}", "GET")));
+
+        assertEquals(2, id(trie.find("/api/items", "GET")));
+        assertEquals(2, id(trie.find("/api/a/b/items", "GET")));
+        assertEquals(3, id(trie.find("/api/a/items/7", "GET")));
+        assertEquals(3, id(trie.find("/api/items/items/7", "GET")));
+        assertEquals(1, id(trie.find("/api/a/items/7/x", "GET")));
+    }
+
+    @Test
+    void trailingSeparatorSelectsTheMatchingConfig() {
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(
+                endpoint(1, "/api/orders", "GET"),
+                endpoint(2, "/api/orders/", "GET"),
+                endpoint(3, "/api/items/*", "GET"),
+                endpoint(4, "/api/menu/**", "GET")));
+
+        assertEquals(1, id(trie.find("/api/orders", "GET")));
+        assertEquals(2, id(trie.find("/api/orders/", "GET")));
+        assertNull(trie.find("/api/items", "GET"));
+        assertEquals(3, id(trie.find("/api/items/", "GET")));
+        assertEquals(4, id(trie.find("/api/menu", "GET")));
+        assertEquals(4, id(trie.find("/api/menu/", "GET")));
+    }
+
+    @Test
+    void exactMethodBeatsAll() {
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(
+                endpoint(1, "/api/orders", EndpointRouteTrie.ANY_METHOD),
+                endpoint(2, "/api/orders", "post")));
+
+        assertEquals(2, id(trie.find("/api/orders", "POST")));
+        assertEquals(1, id(trie.find("/api/orders", "GET")));
+    }
+
+    @Test
+    void lowestIdWinsForTheSamePatternAndMethod() {
+        EndpointRouteTrie trie = EndpointRouteTrie.compile(List.of(
+                endpoint(9, "/api/orders", "GET"),
+                endpoint(4, "/api/orders", "GET"),
+                endpoint(7, "/api/orders", EndpointRouteTrie.ANY_METHOD),
+                endpoint(5, "/api/orders", EndpointRouteTrie.ANY_METHOD)));
+
+        assertEquals(4, id(trie.find("/api/orders", "GET")));
+        assertEquals(5, id(trie.find("/api/orders", "PUT")));
+        assertEquals(2, trie.size());
+    }
+
+    private static EndpointEntity endpoint(long id, String pattern, String method) {
+        return EndpointEntity.builder()
+                .id(id)
+                .endpoint("endpoint-" + id)
+                .pathPattern(pattern)
+                .method(method)
+                .securityType("PUBLIC")
+                .build();
+    }
+
+    private static long id(EndpointEntity endpoint) {
+        return endpoint.getId();
+    }
+}
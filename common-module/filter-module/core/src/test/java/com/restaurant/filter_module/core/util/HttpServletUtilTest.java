@@ -0,0 +1,61 @@
+package com.restaurant.filter_module.core.util;
+
+import com.restaurant.data.properties.SecurityProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HttpServletUtilTest {
+
+    private static final Pattern TRUSTED = Pattern.compile(new SecurityProperties.RateLimit().getTrustedProxies());
+
+    @Test
+    void untrustedPeerIsTheClientWhateverItForwards() {
+        MockHttpServletRequest request = request("203.0.113.7", "198.51.100.1");
+
+        assertEquals("203.0.113.7", HttpServletUtil.getTrustedClientIP(request, TRUSTED));
+    }
+
+    @Test
+    void trustedPeerVouchesForTheRightmostHop() {
+        // The client sent the first hop itself, the gateway appended the address it saw
+        MockHttpServletRequest request = request("10.0.1.5", "198.51.100.1, 203.0.113.7");
+
+        assertEquals("203.0.113.7", HttpServletUtil.getTrustedClientIP(request, TRUSTED));
+    }
+
+    @Test
+    void trustedHopsAreSkipped() {
+        MockHttpServletRequest request = request("127.0.0.1", "198.51.100.1, 203.0.113.7, 172.18.0.3");
+        request.addHeader("X-Forwarded-For", "192.168.1.20");
+
+        assertEquals("203.0.113.7", HttpServletUtil.getTrustedClientIP(request, TRUSTED));
+    }
+
+    @Test
+    void trustedPeerWithoutHeaderIsTheClient() {
+        assertEquals("10.0.1.5", HttpServletUtil.getTrustedClientIP(request("10.0.1.5", null), TRUSTED));
+        assertEquals("172.16.0.2",
+                HttpServletUtil.getTrustedClientIP(request("10.0.1.5", "172.16.0.2"), TRUSTED));
+    }
+
+    @Test
+    void defaultTrustsOnlyLoopbackAndPrivateNetworks() {
+        assertEquals("172.32.0.1", HttpServletUtil.getTrustedClientIP(request("172.32.0.1", "203.0.113.7"), TRUSTED));
+        assertEquals("203.0.113.7", HttpServletUtil.getTrustedClientIP(request("::1", "203.0.113.7"), TRUSTED));
+        assertNull(HttpServletUtil.getTrustedClientIP(null, TRUSTED));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -1,5 +1,6 @@
 package com.restaurant.filter_module.jwt.config;
 
+import com.restaurant.data.properties.SecurityProperties;
 import com.restaurant.filter_module.core.default_filter.context_filter.SecurityContextFilter;
 import com.restaurant.filter_module.core.default_filter.rate_limit.BucketRateLimitFilter;
 import com.restaurant.filter_module.core.default_filter.rate_limit.IBucketRateLimiter;
@@ -13,6 +14,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Component
 public class DefaultJwtFilterConfig {
@@ -22,13 +24,18 @@ public class DefaultJwtFilterConfig {
     public JwtAuthorizationFilterChain jwtAuthorizationFilterChain(
             JwtSecurityPropertiesConfig jwtConfig,
             IBucketRateLimiter bucketRateLimiter,
-            IJwtStatelessValidator jwtStatelessValidator) {  // Changed from IJwtValidationService
+            IJwtStatelessValidator jwtStatelessValidator,  // Changed from IJwtValidationService
+            SecurityProperties securityProperties) {
 
+        Pattern trustedProxies = Pattern.compile(securityProperties.getRateLimit().getTrustedProxies());
         return new JwtAuthorizationFilterChain(
                 List.of(
                         new SecurityContextFilter(),
-                        new BucketRateLimitFilter(bucketRateLimiter),
-                        new JwtSecurityFilter(jwtConfig, jwtStatelessValidator)  // Now passes 2 arguments
+                        // before authentication, so floods of bad or missing tokens are limited too
+                        new BucketRateLimitFilter(bucketRateLimiter, BucketRateLimitFilter.KeyBy.CLIENT_IP, trustedProxies),
+                        new JwtSecurityFilter(jwtConfig, jwtStatelessValidator),  // Now passes 2 arguments
+                        // after authentication, so a user is limited across every address it calls from
+                        new BucketRateLimitFilter(bucketRateLimiter, BucketRateLimitFilter.KeyBy.USER, trustedProxies)
                 )
         );
     }
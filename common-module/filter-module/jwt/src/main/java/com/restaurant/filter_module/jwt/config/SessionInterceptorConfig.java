@@ -1,9 +1,11 @@
 package com.restaurant.filter_module.jwt.config;
 
+import com.restaurant.filter_module.core.metrics.SecurityMetrics;
 import com.restaurant.filter_module.jwt.interceptor.SessionValidationInterceptor;
 import com.restaurant.filter_module.jwt.service.ISessionValidationService;
 import com.restaurant.filter_module.jwt.service.NoOpSessionValidationService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,9 +22,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class SessionInterceptorConfig implements WebMvcConfigurer {
 
     private final ISessionValidationService sessionValidationService;
+    private final ObjectProvider<SecurityMetrics> securityMetrics;
 
-    public SessionInterceptorConfig(@Lazy ISessionValidationService sessionValidationService) {
+    public SessionInterceptorConfig(@Lazy ISessionValidationService sessionValidationService,
+                                    ObjectProvider<SecurityMetrics> securityMetrics) {
         this.sessionValidationService = sessionValidationService;
+        this.securityMetrics = securityMetrics;
     }
 
     /**
@@ -40,7 +45,7 @@ public class SessionInterceptorConfig implements WebMvcConfigurer {
      */
     @Bean
     public SessionValidationInterceptor sessionValidationInterceptor() {
-        return new SessionValidationInterceptor(sessionValidationService);
+        return new SessionValidationInterceptor(sessionValidationService, securityMetrics.getIfAvailable());
     }
 
     //TODO add interceptor để check session
@@ -1,14 +1,13 @@
 package com.restaurant.filter_module.jwt.filter;
 
+import com.restaurant.data.model.IEndpointModel;
 import com.restaurant.filter_module.core.chain.MvcFilterChain;
 import com.restaurant.filter_module.core.context.SecurityContext;
 import com.restaurant.filter_module.core.context.SecurityContextHolder;
-import com.restaurant.filter_module.core.enums.FilterCoreErrorCode;
 import com.restaurant.filter_module.core.exception.FilterException;
 import com.restaurant.filter_module.core.filter.BaseMvcFilter;
 import com.restaurant.filter_module.core.filter.FilterRequest;
 import com.restaurant.filter_module.core.filter.FilterResponse;
-import com.restaurant.filter_module.core.model.HttpServletResponseFormatter;
 import com.restaurant.filter_module.jwt.dto.JwtClaims;
 import com.restaurant.filter_module.jwt.exception.UnauthorizedException;
 import com.restaurant.filter_module.jwt.properties.JwtSecurityPropertiesConfig;
@@ -20,7 +19,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.util.StringUtils;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.util.Arrays;
 import java.util.List;
@@ -41,9 +39,9 @@ public class JwtSecurityFilter extends BaseMvcFilter {
     private final IJwtStatelessValidator jwtStatelessValidator;
 
     @Override
-    protected boolean shouldNotFilter(FilterRequest request) {
+    protected boolean shouldNotFilter(IEndpointModel endpointModel) {
         return !JWT_SECURITY_TYPE.getSecurityType()
-                .equalsIgnoreCase(request.getEndpointModel().getSecurityType());
+                .equalsIgnoreCase(endpointModel.getSecurityType());
     }
 
     @Override
@@ -75,28 +73,11 @@ public class JwtSecurityFilter extends BaseMvcFilter {
         setSpringSecurityContext(claims);
 
         log.debug("JWT stateless validation passed for authId: {}", claims.getAuthId());
-        //add handler formater response after return to client
-        response.setFormatter(jwtResponseFormatter());
 
         // Continue to next filter (session validation happens in Interceptor)
         chain.doFilter(request, response);
     }
 
-    private HttpServletResponseFormatter jwtResponseFormatter() throws FilterException {
-        return (response) -> {
-            try {
-                ContentCachingResponseWrapper responseWrapper = (ContentCachingResponseWrapper) response;
-
-                // TODO kiểm tra có jwt response ko nếu có thì add vào header để trả cho client
-                //  tưng tụ cho rsa filter thì có thể define hàm thực hiện mã hóa rp đối với ase này cần write lại body vào responseWrapper thì mới có data trả cho client
-
-            } catch (Exception e) {
-                log.error("JWT encrypt failed. Error: {}", e.getMessage(), e);
-                throw new FilterException(FilterCoreErrorCode.INTERNAL_ERROR, e.getMessage());
-            }
-        };
-    }
-
     private String extractTokenFromCookie(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies == null)
@@ -2,6 +2,8 @@ package com.restaurant.filter_module.jwt.interceptor;
 
 import com.restaurant.filter_module.core.context.SecurityContext;
 import com.restaurant.filter_module.core.context.SecurityContextHolder;
+import com.restaurant.filter_module.core.metrics.SecurityMetrics;
+import com.restaurant.filter_module.core.metrics.SecurityOutcome;
 import com.restaurant.filter_module.jwt.dto.SessionInfo;
 import com.restaurant.filter_module.jwt.exception.SessionNotFoundException;
 import com.restaurant.filter_module.jwt.exception.SessionRevokedException;
@@ -21,10 +23,41 @@ import org.springframework.web.servlet.HandlerInterceptor;
 @RequiredArgsConstructor
 public class SessionValidationInterceptor implements HandlerInterceptor {
 
+    private static final String STEP = SessionValidationInterceptor.class.getSimpleName();
+
     private final ISessionValidationService sessionValidationService;
+    private final SecurityMetrics securityMetrics;
+
+    /**
+     * Instantiates a new Session validation interceptor, untimed.
+     *
+     * @param sessionValidationService the session validation service
+     */
+    public SessionValidationInterceptor(ISessionValidationService sessionValidationService) {
+        this(sessionValidationService, null);
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (securityMetrics == null || !securityMetrics.isEnabled()) {
+            return validate(response);
+        }
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        SecurityOutcome outcome = SecurityOutcome.ERROR;
+        long start = System.nanoTime();
+        try {
+            boolean valid = validate(response);
+            outcome = valid ? SecurityOutcome.PASS : SecurityOutcome.REJECT;
+            return valid;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            securityMetrics.filterTimer(STEP, securityContext != null ? securityContext.getEndpointModel() : null)
+                    .record(outcome, nanos);
+            securityMetrics.addServerTiming(response, STEP, nanos);
+        }
+    }
+
+    private boolean validate(HttpServletResponse response) throws Exception {
         // Skip if session validation is disabled
         if (!sessionValidationService.isEnabled()) {
             log.debug("Session validation is disabled, skipping");
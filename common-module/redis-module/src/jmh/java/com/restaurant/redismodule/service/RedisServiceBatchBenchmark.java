@@ -0,0 +1,125 @@
+package com.restaurant.redismodule.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.codec.CodecRedisSerializer;
+import com.restaurant.redismodule.codec.JacksonCacheCodec;
+import com.restaurant.redismodule.codec.SmileCacheCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-key commands against the batch API of {@link RedisService}. A per-key benchmark pays
+ * batchSize round-trips, its batch counterpart one (one per hash slot on a cluster), so the
+ * difference grows with the batch: 9, 99 and 999 round-trips saved for 10, 100 and 1000 keys.
+ * <p>
+ * Needs a Redis at REDIS_HOST/REDIS_PORT, localhost:6379 by default.
+ *
+ * @author namdx.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisServiceBatchBenchmark {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisService redisService;
+    private List<String> keys;
+    private Map<String, Object> values;
+    private JavaType type;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        ObjectMapper mapper = new ObjectMapper();
+        CacheCodec codec = new SmileCacheCodec(mapper, new JacksonCacheCodec(mapper));
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new CodecRedisSerializer(codec));
+        template.afterPropertiesSet();
+        redisService = new RedisService(template, null, codec);
+
+        keys = IntStream.range(0, batchSize).mapToObj(i -> "bench:batch:" + i).toList();
+        values = new LinkedHashMap<>();
+        keys.forEach(key -> values.put(key, "value of " + key));
+        type = TypeFactory.defaultInstance().constructType(String.class);
+        redisService.mSetWithTtl(values, TTL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisService.deleteMany(keys);
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public void getPerKey(Blackhole blackhole) {
+        for (String key : keys) {
+            blackhole.consume(redisService.<String>get(key, type));
+        }
+    }
+
+    @Benchmark
+    public List<String> mGet() {
+        return redisService.mGet(keys, type);
+    }
+
+    @Benchmark
+    public void setPerKey() {
+        values.forEach((key, value) -> redisService.set(key, value, TTL));
+    }
+
+    @Benchmark
+    public void mSetWithTtl() {
+        redisService.mSetWithTtl(values, TTL);
+    }
+
+    @Benchmark
+    public void expirePerKey() {
+        keys.forEach(key -> redisService.expire(key, TTL));
+    }
+
+    @Benchmark
+    public long expireMany() {
+        return redisService.expireMany(keys, TTL);
+    }
+}
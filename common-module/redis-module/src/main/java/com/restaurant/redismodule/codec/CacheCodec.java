@@ -0,0 +1,50 @@
+package com.restaurant.redismodule.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+/**
+ * Encodes values stored in Redis and decodes them back, typed or untyped.
+ *
+ * @author namdx.
+ */
+public interface CacheCodec {
+
+    /**
+     * Encode a value.
+     *
+     * @param value the value
+     * @return the bytes
+     */
+    byte[] encode(Object value);
+
+    /**
+     * Decode bytes without a target type, objects come back as maps.
+     *
+     * @param bytes the bytes
+     * @return the value
+     */
+    Object decode(byte[] bytes);
+
+    /**
+     * Decode bytes straight into the target type.
+     *
+     * @param <T>   the type parameter
+     * @param bytes the bytes
+     * @param type  the target type
+     * @return the value
+     */
+    <T> T decode(byte[] bytes, JavaType type);
+
+    /**
+     * Decode bytes straight into the target class.
+     *
+     * @param <T>   the type parameter
+     * @param bytes the bytes
+     * @param type  the target class
+     * @return the value
+     */
+    default <T> T decode(byte[] bytes, Class<T> type) {
+        return decode(bytes, TypeFactory.defaultInstance().constructType(type));
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.redismodule.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Redis value serializer backed by a {@link CacheCodec}.
+ *
+ * @author namdx.
+ */
+public class CodecRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CacheCodec codec;
+
+    /**
+     * Instantiates a new Codec redis serializer.
+     *
+     * @param codec the codec
+     */
+    public CodecRedisSerializer(CacheCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        return value == null ? EMPTY : codec.encode(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        return bytes == null || bytes.length == 0 ? null : codec.decode(bytes);
+    }
+}
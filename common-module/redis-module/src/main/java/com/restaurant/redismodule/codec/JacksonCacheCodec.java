@@ -0,0 +1,63 @@
+package com.restaurant.redismodule.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache codec on a Jackson mapper, keeping one reader per target type.
+ * With a JSON mapper this writes the same bytes as the former JSON value serializer.
+ *
+ * @author namdx.
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    private final ObjectWriter writer;
+    private final ObjectReader untypedReader;
+    private final ObjectMapper mapper;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Jackson cache codec.
+     *
+     * @param mapper the mapper
+     */
+    public JacksonCacheCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.writer = mapper.writer();
+        this.untypedReader = mapper.readerFor(Object.class);
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode cache value", e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        try {
+            return untypedReader.readValue(bytes);
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode cache value", e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, JavaType type) {
+        try {
+            return readers.computeIfAbsent(type, mapper::readerFor).readValue(bytes);
+        } catch (IOException e) {
+            throw new SerializationException("Could not decode cache value as " + type, e);
+        }
+    }
+}
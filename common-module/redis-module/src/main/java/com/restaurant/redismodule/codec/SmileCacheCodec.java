@@ -0,0 +1,53 @@
+package com.restaurant.redismodule.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Binary cache codec writing Smile, with the modules and settings of the application mapper.
+ * Field names and short repeated strings are back-referenced, so item lists stay compact.
+ * <p>
+ * Values without the Smile header were written as JSON before the switch, they are read
+ * with the legacy codec until they expire.
+ *
+ * @author namdx.
+ */
+public class SmileCacheCodec extends JacksonCacheCodec {
+
+    private final CacheCodec legacy;
+
+    /**
+     * Instantiates a new Smile cache codec.
+     *
+     * @param mapper the application mapper
+     * @param legacy the codec that reads entries written before the switch
+     */
+    public SmileCacheCodec(ObjectMapper mapper, CacheCodec legacy) {
+        super(mapper.copyWith(SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build()));
+        this.legacy = legacy;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        return isSmile(bytes) ? super.decode(bytes) : legacy.decode(bytes);
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, JavaType type) {
+        return isSmile(bytes) ? super.decode(bytes, type) : legacy.decode(bytes, type);
+    }
+
+    /**
+     * Whether the bytes start with the Smile header, which no JSON document does.
+     *
+     * @param bytes the bytes
+     * @return the boolean
+     */
+    static boolean isSmile(byte[] bytes) {
+        return bytes.length >= 3 && bytes[0] == ':' && bytes[1] == ')' && bytes[2] == '\n';
+    }
+}
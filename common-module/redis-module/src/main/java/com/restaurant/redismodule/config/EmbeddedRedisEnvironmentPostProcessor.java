@@ -0,0 +1,50 @@
+package com.restaurant.redismodule.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Excludes the Spring Boot Redis auto-configurations in EMBEDDED mode, so no connection
+ * factory, repository support or health check reaches for a Redis server that is not there.
+ * Runs after the config data is loaded, exclusions already configured are kept.
+ *
+ * @author namdx.
+ */
+public class EmbeddedRedisEnvironmentPostProcessor implements EnvironmentPostProcessor, Ordered {
+
+    private static final String EXCLUDE_PROPERTY = "spring.autoconfigure.exclude";
+
+    private static final String PROPERTY_SOURCE = "embeddedRedis";
+
+    private static final Set<String> REDIS_AUTO_CONFIGURATIONS = Set.of(
+            "org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration"
+    );
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!RedisModeCondition.isEmbedded(environment)) {
+            return;
+        }
+        Set<String> excluded = new LinkedHashSet<>(
+                StringUtils.commaDelimitedListToSet(environment.getProperty(EXCLUDE_PROPERTY, "")));
+        excluded.remove("");
+        excluded.addAll(REDIS_AUTO_CONFIGURATIONS);
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE,
+                Map.of(EXCLUDE_PROPERTY, String.join(",", excluded))));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
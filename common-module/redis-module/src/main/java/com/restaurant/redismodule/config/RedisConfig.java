@@ -7,23 +7,35 @@ import io.lettuce.core.TimeoutOptions;
 import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.cluster.ClusterClientOptions;
 import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.*;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.codec.CodecRedisSerializer;
+import com.restaurant.redismodule.codec.JacksonCacheCodec;
+import com.restaurant.redismodule.codec.SmileCacheCodec;
+import com.restaurant.redismodule.embedded.EmbeddedRedisStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.time.Duration;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -31,6 +43,16 @@ import java.util.Set;
 @ComponentScan(basePackages = "com.restaurant.redismodule")
 public class RedisConfig {
     
+    /**
+     * Commands bounded by the read timeout, a slow cache read is cheaper as a miss
+     */
+    private static final Set<CommandType> READ_COMMANDS = EnumSet.of(
+            CommandType.GET, CommandType.MGET, CommandType.EXISTS, CommandType.TTL, CommandType.PTTL,
+            CommandType.HGET, CommandType.HMGET, CommandType.HGETALL, CommandType.HEXISTS,
+            CommandType.LRANGE, CommandType.LLEN, CommandType.SMEMBERS, CommandType.SISMEMBER, CommandType.SCARD,
+            CommandType.ZRANGE, CommandType.ZRANGEBYSCORE, CommandType.ZCARD
+    );
+    
     private final RedisProperties redisProperties;
     
     public RedisConfig(RedisProperties redisProperties) {
@@ -42,6 +64,7 @@ public class RedisConfig {
      */
     @Bean
     @ConditionalOnMissingBean(RedisConnectionFactory.class)
+    @Conditional(RedisModeCondition.Remote.class)
     public LettuceConnectionFactory redisConnectionFactory() {
         LettuceClientConfiguration clientConfig = getLettuceClientConfiguration();
         
@@ -115,6 +138,25 @@ public class RedisConfig {
         return config;
     }
     
+    /**
+     * Command timeouts: the read timeout for read commands, the connection timeout for the others
+     */
+    private TimeoutOptions timeoutOptions() {
+        long readTimeout = redisProperties.getReadTimeout().toMillis();
+        long timeout = redisProperties.getTimeout().toMillis();
+        return TimeoutOptions.builder()
+                .timeoutCommands()
+                .timeoutSource(new TimeoutOptions.TimeoutSource() {
+                    @Override
+                    public long getTimeout(RedisCommand<?, ?, ?> command) {
+                        return command.getType() instanceof CommandType type && READ_COMMANDS.contains(type)
+                                ? readTimeout
+                                : timeout;
+                    }
+                })
+                .build();
+    }
+    
     /**
      * Configure Lettuce client with connection pooling
      */
@@ -127,7 +169,7 @@ public class RedisConfig {
         // Configure client options based on mode
         ClientOptions.Builder clientOptionsBuilder = ClientOptions.builder()
                 .socketOptions(socketOptions)
-                .timeoutOptions(TimeoutOptions.enabled(redisProperties.getTimeout()));
+                .timeoutOptions(timeoutOptions());
         
         // For cluster mode, add cluster-specific options
         if (redisProperties.getMode() == RedisProperties.RedisMode.CLUSTER) {
@@ -138,7 +180,7 @@ public class RedisConfig {
             
             clientOptionsBuilder = ClusterClientOptions.builder()
                     .socketOptions(socketOptions)
-                    .timeoutOptions(TimeoutOptions.enabled(redisProperties.getTimeout()))
+                    .timeoutOptions(timeoutOptions())
                     .topologyRefreshOptions(topologyRefreshOptions);
         }
         
@@ -169,14 +211,27 @@ public class RedisConfig {
         return builder.build();
     }
     
+    /**
+     * Codec of cached values, JSON stays readable under SMILE so existing entries survive the switch
+     */
+    @Bean
+    @ConditionalOnMissingBean(CacheCodec.class)
+    public CacheCodec cacheCodec(ObjectMapper objectMapper) {
+        CacheCodec json = new JacksonCacheCodec(objectMapper);
+        return redisProperties.getCodec() == RedisProperties.Codec.SMILE
+                ? new SmileCacheCodec(objectMapper, json)
+                : json;
+    }
+    
     /**
      * Configure RedisTemplate with proper serializers
      */
     @Bean
     @ConditionalOnMissingBean(name = "redisTemplate")
+    @Conditional(RedisModeCondition.Remote.class)
     public RedisTemplate<String, Object> redisTemplate(
             RedisConnectionFactory redisConnectionFactory,
-            ObjectMapper objectMapper) {
+            CacheCodec cacheCodec) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(redisConnectionFactory);
         
@@ -185,15 +240,53 @@ public class RedisConfig {
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
         
-        // Use JSON serializer for values
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        // Use the cache codec for values
+        CodecRedisSerializer valueSerializer = new CodecRedisSerializer(cacheCodec);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
         
         template.afterPropertiesSet();
         return template;
     }
     
+    /**
+     * Reactive template for async cache calls, on the shared Lettuce connection. Values are
+     * raw bytes encoded with the cache codec, so both templates read each other's entries
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "cacheReactiveRedisTemplate")
+    @Conditional(RedisModeCondition.Remote.class)
+    public ReactiveRedisTemplate<String, byte[]> cacheReactiveRedisTemplate(
+            ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.byteArray())
+                .key(RedisSerializer.string())
+                .hashKey(RedisSerializer.string())
+                .build();
+        return new ReactiveRedisTemplate<>(reactiveRedisConnectionFactory, context);
+    }
+    
+    /**
+     * Listener container for pub/sub (cache invalidation between instances)
+     */
+    @Bean
+    @ConditionalOnMissingBean(RedisMessageListenerContainer.class)
+    @Conditional(RedisModeCondition.Remote.class)
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+    
+    /**
+     * In-process keyspace standing in for Redis in EMBEDDED mode
+     */
+    @Bean
+    @Conditional(RedisModeCondition.Embedded.class)
+    public EmbeddedRedisStore embeddedRedisStore() {
+        return new EmbeddedRedisStore(redisProperties.getEmbedded());
+    }
+    
     /**
      * Configure ObjectMapper for CacheService
      */
@@ -0,0 +1,60 @@
+package com.restaurant.redismodule.config;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Conditions on the configured Redis mode: {@link Embedded} matches the in-process keyspace,
+ * {@link Remote} every mode talking to a Redis server.
+ *
+ * @author namdx.
+ */
+public abstract class RedisModeCondition implements Condition {
+
+    private static final String MODE_PROPERTY = "spring.data.redis.mode";
+
+    private final boolean embedded;
+
+    RedisModeCondition(boolean embedded) {
+        this.embedded = embedded;
+    }
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        return isEmbedded(context.getEnvironment()) == embedded;
+    }
+
+    /**
+     * Whether the environment selects the embedded mode.
+     *
+     * @param environment the environment
+     * @return the boolean
+     */
+    public static boolean isEmbedded(Environment environment) {
+        return Binder.get(environment)
+                .bind(MODE_PROPERTY, RedisProperties.RedisMode.class)
+                .map(mode -> mode == RedisProperties.RedisMode.EMBEDDED)
+                .orElse(false);
+    }
+
+    /**
+     * Matches in EMBEDDED mode.
+     */
+    public static class Embedded extends RedisModeCondition {
+        public Embedded() {
+            super(true);
+        }
+    }
+
+    /**
+     * Matches in STANDALONE, SENTINEL and CLUSTER modes.
+     */
+    public static class Remote extends RedisModeCondition {
+        public Remote() {
+            super(false);
+        }
+    }
+}
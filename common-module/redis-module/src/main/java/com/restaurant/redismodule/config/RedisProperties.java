@@ -7,6 +7,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 import java.util.List;
@@ -21,7 +22,7 @@ import java.util.List;
 public class RedisProperties {
     
     /**
-     * Redis deployment mode: STANDALONE, SENTINEL, or CLUSTER
+     * Redis deployment mode: STANDALONE, SENTINEL, CLUSTER, or EMBEDDED (in-process, no Redis)
      */
     private RedisMode mode = RedisMode.STANDALONE;
     
@@ -59,16 +60,60 @@ public class RedisProperties {
      * Lettuce pool configuration
      */
     private Pool lettuce = new Pool();
+
+    /**
+     * Codec of cached values: SMILE (binary) or JSON
+     */
+    private Codec codec = Codec.SMILE;
+    
+    /**
+     * Latency budget of read commands (GET, MGET, HGET...), other commands use the connection timeout
+     */
+    private Duration readTimeout = Duration.ofMillis(100);
+    
+    /**
+     * Bound of async cache commands in flight, further commands are dropped
+     */
+    private int asyncMaxInFlight = 1024;
+    
+    /**
+     * Keys per SCAN round trip and UNLINK batch of pattern deletions
+     */
+    private int scanBatchSize = 500;
+    
+    /**
+     * Circuit breaker around cache calls
+     */
+    private Breaker breaker = new Breaker();
+    
+    /**
+     * Near cache of read-mostly keys, kept coherent by Redis client tracking
+     */
+    private NearCache nearCache = new NearCache();
+    
+    /**
+     * In-process keyspace used in EMBEDDED mode
+     */
+    private Embedded embedded = new Embedded();
     
 
     
     /**
-     * Redis deployment modes
+     * Redis deployment modes, EMBEDDED keeps the keyspace in process memory
      */
     public enum RedisMode {
         STANDALONE,
         SENTINEL,
-        CLUSTER
+        CLUSTER,
+        EMBEDDED
+    }
+    
+    /**
+     * Codecs of cached values, SMILE still reads entries written as JSON
+     */
+    public enum Codec {
+        JSON,
+        SMILE
     }
     
     /**
@@ -118,5 +163,39 @@ public class RedisProperties {
         private Duration maxWait = Duration.ofMillis(-1);
         private Duration timeBetweenEvictionRuns;
     }
+    
+    /**
+     * Circuit breaker configuration, cache calls skip Redis while the circuit is open
+     */
+    @Getter
+    @Setter
+    public static class Breaker {
+        private boolean enabled = true;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(10);
+        private int halfOpenProbes = 1;
+    }
+    
+    /**
+     * Near cache configuration. Needs a standalone Redis 6+ speaking RESP3, otherwise reads stay remote
+     */
+    @Getter
+    @Setter
+    public static class NearCache {
+        private boolean enabled = false;
+        private int maxSize = 10000;
+        private Duration ttl = Duration.ofMinutes(10);
+        private List<String> prefixes = List.of();
+    }
+    
+    /**
+     * Embedded keyspace configuration, least recently used keys are evicted past either bound
+     */
+    @Getter
+    @Setter
+    public static class Embedded {
+        private int maxKeys = 100000;
+        private DataSize maxMemory = DataSize.ofMegabytes(64);
+        private Duration sweepInterval = Duration.ofSeconds(1);
+    }
 }
-
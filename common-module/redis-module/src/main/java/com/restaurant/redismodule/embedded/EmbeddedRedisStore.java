@@ -0,0 +1,1001 @@
+package com.restaurant.redismodule.embedded;
+
+import com.restaurant.redismodule.config.RedisProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * In-process keyspace with the Redis data types used by RedisService: strings, hashes, lists,
+ * sets and sorted sets, with per-key expiry and pub/sub.
+ * <p>
+ * Keys are spread over lock-striped segments, each keeping its own LRU order. Past the key or
+ * memory bound the least recently used keys are evicted segment by segment, an approximated LRU
+ * like Redis' own. Expired keys are dropped on access and by a periodic sweep. Values are held
+ * as encoded bytes, so every read decodes a fresh copy as a read from Redis would.
+ *
+ * @author namdx.
+ */
+@Slf4j
+public class EmbeddedRedisStore implements AutoCloseable {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Rough per-key bookkeeping cost added to the key and value bytes.
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    private static final String WRONG_TYPE = "WRONGTYPE Operation against a key holding the wrong kind of value";
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxKeys;
+    private final long maxMemory;
+
+    private final AtomicInteger keyCount = new AtomicInteger();
+    private final AtomicLong usedMemory = new AtomicLong();
+    private final AtomicInteger evictFrom = new AtomicInteger();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    private final Map<String, List<Consumer<byte[]>>> subscribers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+    private final ExecutorService publisher;
+
+    /**
+     * Instantiates a new Embedded redis store and starts its expiry sweep.
+     *
+     * @param config the embedded configuration
+     */
+    public EmbeddedRedisStore(RedisProperties.Embedded config) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+        this.maxKeys = config.getMaxKeys();
+        this.maxMemory = config.getMaxMemory().toBytes();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(daemon("embedded-redis-sweeper"));
+        // Messages are delivered on one thread, in publish order, as the listener container does
+        this.publisher = Executors.newSingleThreadExecutor(daemon("embedded-redis-pubsub"));
+        long sweepMillis = Math.max(1, config.getSweepInterval().toMillis());
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // ========== String Operations ==========
+
+    public byte[] get(String key) {
+        return read(key, entry -> copy(entry.as(byte[].class)));
+    }
+
+    public List<byte[]> mGet(Collection<String> keys) {
+        List<byte[]> values = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            values.add(read(key, entry -> entry.value instanceof byte[] bytes ? copy(bytes) : null));
+        }
+        return values;
+    }
+
+    /**
+     * Set a value, without expiry when the ttl is null.
+     */
+    public void set(String key, byte[] value, Duration ttl) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new Entry(copy(value), key), ttl);
+        }
+        evictIfNeeded();
+    }
+
+    public boolean setIfAbsent(String key, byte[] value, Duration ttl) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.live(key, System.nanoTime()) != null) {
+                return false;
+            }
+            segment.put(key, new Entry(copy(value), key), ttl);
+        }
+        evictIfNeeded();
+        return true;
+    }
+
+    /**
+     * Add to an integer value, stored as decimal text like Redis does, creating it at 0 when absent.
+     */
+    public long incrBy(String key, long delta) {
+        Segment segment = segmentFor(key);
+        long result;
+        synchronized (segment) {
+            Entry entry = segment.live(key, System.nanoTime());
+            long current = 0;
+            if (entry != null) {
+                try {
+                    current = Long.parseLong(new String(entry.as(byte[].class), StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    throw new InvalidDataAccessApiUsageException("ERR value is not an integer or out of range");
+                }
+            }
+            result = Math.addExact(current, delta);
+            byte[] value = Long.toString(result).getBytes(StandardCharsets.US_ASCII);
+            if (entry == null) {
+                segment.put(key, new Entry(value, key), null);
+            } else {
+                segment.replaceValue(entry, value);
+            }
+        }
+        evictIfNeeded();
+        return result;
+    }
+
+    /**
+     * Take up to the requested tokens from a bucket of capacity tokens, created full with the
+     * interval as expiry when absent, under the segment lock as the Lua script runs on Redis.
+     *
+     * @return the tokens granted, the tokens left and the millis until the bucket is refilled
+     */
+    public long[] takeTokens(String key, long capacity, Duration interval, long requested) {
+        Segment segment = segmentFor(key);
+        long[] result;
+        synchronized (segment) {
+            long now = System.nanoTime();
+            Entry entry = segment.live(key, now);
+            long tokens = capacity;
+            if (entry != null) {
+                try {
+                    tokens = Long.parseLong(new String(entry.as(byte[].class), StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    throw new InvalidDataAccessApiUsageException("ERR value is not an integer or out of range");
+                }
+            }
+            long granted = Math.max(0, Math.min(tokens, requested));
+            byte[] value = Long.toString(tokens - granted).getBytes(StandardCharsets.US_ASCII);
+            if (entry == null) {
+                entry = new Entry(value, key);
+                segment.put(key, entry, interval);
+            } else {
+                segment.replaceValue(entry, value);
+                if (!entry.expiring) {
+                    entry.expireAt(interval);
+                }
+            }
+            long ttl = TimeUnit.NANOSECONDS.toMillis(entry.expireAtNanos - now);
+            result = new long[]{granted, tokens - granted, Math.max(ttl, 1)};
+        }
+        evictIfNeeded();
+        return result;
+    }
+
+    // ========== Key Operations ==========
+
+    public boolean delete(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.live(key, System.nanoTime()) != null && segment.remove(key) != null;
+        }
+    }
+
+    public long delete(Collection<String> keys) {
+        long deleted = 0;
+        for (String key : keys) {
+            deleted += delete(key) ? 1 : 0;
+        }
+        return deleted;
+    }
+
+    public boolean exists(String key) {
+        return read(key, entry -> Boolean.TRUE) != null;
+    }
+
+    /**
+     * Set the expiry of a key, deleting it right away for a non-positive ttl as Redis does.
+     */
+    public boolean expire(String key, Duration ttl) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.live(key, System.nanoTime());
+            if (entry == null) {
+                return false;
+            }
+            if (ttl.isZero() || ttl.isNegative()) {
+                segment.remove(key);
+            } else {
+                entry.expireAt(ttl);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Remaining ttl in millis, -1 when the key has no expiry and -2 when it does not exist.
+     */
+    public long ttlMillis(String key) {
+        Long ttl = read(key, entry -> entry.expiring
+                ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(entry.expireAtNanos - System.nanoTime()))
+                : -1L);
+        return ttl == null ? -2 : ttl;
+    }
+
+    public boolean persist(String key) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.live(key, System.nanoTime());
+            if (entry == null || !entry.expiring) {
+                return false;
+            }
+            entry.expiring = false;
+            return true;
+        }
+    }
+
+    /**
+     * Keys matching a Redis glob pattern.
+     */
+    public Set<String> keys(String pattern) {
+        Pattern regex = glob(pattern);
+        Set<String> keys = new LinkedHashSet<>();
+        long now = System.nanoTime();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (Map.Entry<String, Entry> entry : segment.map.entrySet()) {
+                    if (!entry.getValue().isExpired(now) && regex.matcher(entry.getKey()).matches()) {
+                        keys.add(entry.getKey());
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Delete keys matching a Redis glob pattern, one segment at a time.
+     */
+    public long deletePattern(String pattern) {
+        Pattern regex = glob(pattern);
+        long deleted = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Iterator<Map.Entry<String, Entry>> iterator = segment.map.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, Entry> entry = iterator.next();
+                    if (regex.matcher(entry.getKey()).matches()) {
+                        iterator.remove();
+                        released(entry.getValue());
+                        deleted++;
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // ========== Hash Operations ==========
+
+    public void hSet(String key, String field, byte[] value) {
+        hSetAll(key, Map.of(field, value));
+    }
+
+    public void hSetAll(String key, Map<String, byte[]> values) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.liveOrCreate(key, LinkedHashMap::new);
+            @SuppressWarnings("unchecked")
+            Map<String, byte[]> hash = entry.as(Map.class);
+            long delta = 0;
+            for (Map.Entry<String, byte[]> field : values.entrySet()) {
+                byte[] previous = hash.put(field.getKey(), copy(field.getValue()));
+                delta += field.getValue().length - (previous == null ? -fieldSize(field.getKey()) : previous.length);
+            }
+            segment.resize(entry, delta);
+        }
+        evictIfNeeded();
+    }
+
+    public byte[] hGet(String key, String field) {
+        return read(key, entry -> copy(hash(entry).get(field)));
+    }
+
+    public Map<String, byte[]> hGetAll(String key) {
+        Map<String, byte[]> values = read(key, entry -> {
+            Map<String, byte[]> copy = new LinkedHashMap<>();
+            hash(entry).forEach((field, value) -> copy.put(field, copy(value)));
+            return copy;
+        });
+        return values == null ? new LinkedHashMap<>() : values;
+    }
+
+    public long hDelete(String key, Collection<String> fields) {
+        return mutate(key, entry -> {
+            Map<String, byte[]> hash = hash(entry);
+            long deleted = 0;
+            long delta = 0;
+            for (String field : fields) {
+                byte[] removed = hash.remove(field);
+                if (removed != null) {
+                    deleted++;
+                    delta -= removed.length + fieldSize(field);
+                }
+            }
+            return new Mutation<>(deleted, delta, hash.isEmpty());
+        }, 0L);
+    }
+
+    public List<byte[]> hMGet(String key, Collection<String> fields) {
+        List<byte[]> values = read(key, entry -> {
+            Map<String, byte[]> hash = hash(entry);
+            List<byte[]> found = new ArrayList<>(fields.size());
+            for (String field : fields) {
+                found.add(copy(hash.get(field)));
+            }
+            return found;
+        });
+        return values == null ? new ArrayList<>(Collections.nCopies(fields.size(), null)) : values;
+    }
+
+    /**
+     * Replace a hash with the given fields, deleting the key when there are none.
+     */
+    public void hReplace(String key, Map<String, byte[]> values, Duration ttl) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+            if (values.isEmpty()) {
+                return;
+            }
+            Map<String, byte[]> hash = new LinkedHashMap<>();
+            long size = 0;
+            for (Map.Entry<String, byte[]> field : values.entrySet()) {
+                hash.put(field.getKey(), copy(field.getValue()));
+                size += fieldSize(field.getKey()) + field.getValue().length;
+            }
+            Entry entry = new Entry(hash, key);
+            segment.put(key, entry, ttl);
+            segment.resize(entry, size);
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Set and delete fields of a hash and reset its ttl, only when the hash exists. A hash
+     * holding the stale field is deleted instead.
+     *
+     * @return true when the hash existed and was updated
+     */
+    public boolean hUpdateIfExists(String key, Map<String, byte[]> values, Collection<String> removed, Duration ttl,
+                                   String staleField) {
+        boolean updated = mutate(key, entry -> {
+            Map<String, byte[]> hash = hash(entry);
+            if (hash.containsKey(staleField)) {
+                return new Mutation<>(false, 0, true);
+            }
+            long delta = 0;
+            for (Map.Entry<String, byte[]> field : values.entrySet()) {
+                byte[] previous = hash.put(field.getKey(), copy(field.getValue()));
+                delta += field.getValue().length - (previous == null ? -fieldSize(field.getKey()) : previous.length);
+            }
+            for (String field : removed) {
+                byte[] previous = hash.remove(field);
+                if (previous != null) {
+                    delta -= previous.length + fieldSize(field);
+                }
+            }
+            if (ttl != null && !ttl.isZero() && !ttl.isNegative()) {
+                entry.expireAt(ttl);
+            }
+            return new Mutation<>(true, delta, hash.isEmpty());
+        }, false);
+        evictIfNeeded();
+        return updated;
+    }
+
+    public boolean hExists(String key, String field) {
+        return Boolean.TRUE.equals(read(key, entry -> hash(entry).containsKey(field)));
+    }
+
+    // ========== List Operations ==========
+
+    public long lPush(String key, Collection<byte[]> values) {
+        return push(key, values, true);
+    }
+
+    public long rPush(String key, Collection<byte[]> values) {
+        return push(key, values, false);
+    }
+
+    public byte[] lPop(String key) {
+        return pop(key, true);
+    }
+
+    public byte[] rPop(String key) {
+        return pop(key, false);
+    }
+
+    /**
+     * Range of a list, inclusive, negative indexes counting from the end as in LRANGE.
+     */
+    public List<byte[]> lRange(String key, long start, long end) {
+        List<byte[]> values = read(key, entry -> {
+            List<byte[]> list = new ArrayList<>(list(entry));
+            int[] bounds = bounds(start, end, list.size());
+            List<byte[]> range = new ArrayList<>();
+            for (int i = bounds[0]; i <= bounds[1]; i++) {
+                range.add(copy(list.get(i)));
+            }
+            return range;
+        });
+        return values == null ? new ArrayList<>() : values;
+    }
+
+    public long lLen(String key) {
+        Integer size = read(key, entry -> list(entry).size());
+        return size == null ? 0 : size;
+    }
+
+    // ========== Set Operations ==========
+
+    public long sAdd(String key, Collection<byte[]> members) {
+        Segment segment = segmentFor(key);
+        long added = 0;
+        synchronized (segment) {
+            Entry entry = segment.liveOrCreate(key, LinkedHashSet::new);
+            Set<Bytes> set = set(entry);
+            long delta = 0;
+            for (byte[] member : members) {
+                if (set.add(new Bytes(copy(member)))) {
+                    added++;
+                    delta += member.length;
+                }
+            }
+            segment.resize(entry, delta);
+        }
+        evictIfNeeded();
+        return added;
+    }
+
+    public List<byte[]> sMembers(String key) {
+        List<byte[]> members = read(key, entry -> set(entry).stream().map(member -> copy(member.data())).toList());
+        return members == null ? List.of() : members;
+    }
+
+    public boolean sIsMember(String key, byte[] member) {
+        return Boolean.TRUE.equals(read(key, entry -> set(entry).contains(new Bytes(member))));
+    }
+
+    public long sRemove(String key, Collection<byte[]> members) {
+        return mutate(key, entry -> {
+            Set<Bytes> set = set(entry);
+            long removed = 0;
+            long delta = 0;
+            for (byte[] member : members) {
+                if (set.remove(new Bytes(member))) {
+                    removed++;
+                    delta -= member.length;
+                }
+            }
+            return new Mutation<>(removed, delta, set.isEmpty());
+        }, 0L);
+    }
+
+    public long sCard(String key) {
+        Integer size = read(key, entry -> set(entry).size());
+        return size == null ? 0 : size;
+    }
+
+    // ========== Sorted Set Operations ==========
+
+    /**
+     * Add a member or update its score.
+     *
+     * @return true when the member was added
+     */
+    public boolean zAdd(String key, byte[] member, double score) {
+        Segment segment = segmentFor(key);
+        boolean added;
+        synchronized (segment) {
+            Entry entry = segment.liveOrCreate(key, SortedSet::new);
+            added = zset(entry).add(new Bytes(copy(member)), score);
+            segment.resize(entry, added ? member.length + Double.BYTES : 0);
+        }
+        evictIfNeeded();
+        return added;
+    }
+
+    /**
+     * Members by rank, inclusive, negative ranks counting from the end as in ZRANGE.
+     */
+    public List<byte[]> zRange(String key, long start, long end) {
+        List<byte[]> members = read(key, entry -> {
+            List<Bytes> ordered = zset(entry).ordered();
+            int[] bounds = bounds(start, end, ordered.size());
+            List<byte[]> range = new ArrayList<>();
+            for (int i = bounds[0]; i <= bounds[1]; i++) {
+                range.add(copy(ordered.get(i).data()));
+            }
+            return range;
+        });
+        return members == null ? List.of() : members;
+    }
+
+    public List<byte[]> zRangeByScore(String key, double min, double max) {
+        List<byte[]> members = read(key, entry -> zset(entry).byScore(min, max).stream()
+                .map(member -> copy(member.data()))
+                .toList());
+        return members == null ? List.of() : members;
+    }
+
+    public long zRemove(String key, Collection<byte[]> members) {
+        return mutate(key, entry -> {
+            SortedSet zset = zset(entry);
+            long removed = 0;
+            long delta = 0;
+            for (byte[] member : members) {
+                if (zset.remove(new Bytes(member))) {
+                    removed++;
+                    delta -= member.length + Double.BYTES;
+                }
+            }
+            return new Mutation<>(removed, delta, zset.isEmpty());
+        }, 0L);
+    }
+
+    public long zCard(String key) {
+        Integer size = read(key, entry -> zset(entry).size());
+        return size == null ? 0 : size;
+    }
+
+    // ========== Pub/Sub Operations ==========
+
+    /**
+     * Publish a message, delivered asynchronously to the current subscribers of the channel.
+     *
+     * @return the number of subscribers
+     */
+    public long publish(String channel, byte[] message) {
+        List<Consumer<byte[]>> listeners = subscribers.getOrDefault(channel, List.of());
+        if (listeners.isEmpty()) {
+            return 0;
+        }
+        byte[] payload = copy(message);
+        publisher.execute(() -> {
+            for (Consumer<byte[]> listener : listeners) {
+                try {
+                    listener.accept(copy(payload));
+                } catch (RuntimeException e) {
+                    log.error("Error delivering message on channel: {}", channel, e);
+                }
+            }
+        });
+        return listeners.size();
+    }
+
+    /**
+     * Subscribe to a channel.
+     *
+     * @return the handle that unsubscribes the listener
+     */
+    public Runnable subscribe(String channel, Consumer<byte[]> listener) {
+        subscribers.computeIfAbsent(channel, name -> new CopyOnWriteArrayList<>()).add(listener);
+        return () -> subscribers.getOrDefault(channel, List.of()).remove(listener);
+    }
+
+    // ========== Stats ==========
+
+    public int getKeyCount() {
+        return keyCount.get();
+    }
+
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        publisher.shutdownNow();
+    }
+
+    // ========== Internals ==========
+
+    private <R> R read(String key, Function<Entry, R> reader) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.live(key, System.nanoTime());
+            return entry == null ? null : reader.apply(entry);
+        }
+    }
+
+    /**
+     * Apply a mutation to an existing key, deleting the key once its collection is empty.
+     */
+    private <R> R mutate(String key, Function<Entry, Mutation<R>> mutation, R absent) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.live(key, System.nanoTime());
+            if (entry == null) {
+                return absent;
+            }
+            Mutation<R> result = mutation.apply(entry);
+            if (result.empty()) {
+                segment.remove(key);
+            } else {
+                segment.resize(entry, result.delta());
+            }
+            return result.result();
+        }
+    }
+
+    private long push(String key, Collection<byte[]> values, boolean left) {
+        Segment segment = segmentFor(key);
+        long size;
+        synchronized (segment) {
+            Entry entry = segment.liveOrCreate(key, ArrayDeque::new);
+            Deque<byte[]> list = list(entry);
+            long delta = 0;
+            for (byte[] value : values) {
+                if (left) {
+                    list.addFirst(copy(value));
+                } else {
+                    list.addLast(copy(value));
+                }
+                delta += value.length;
+            }
+            segment.resize(entry, delta);
+            size = list.size();
+        }
+        evictIfNeeded();
+        return size;
+    }
+
+    private byte[] pop(String key, boolean left) {
+        return mutate(key, entry -> {
+            Deque<byte[]> list = list(entry);
+            byte[] value = left ? list.pollFirst() : list.pollLast();
+            return new Mutation<>(value, value == null ? 0 : -value.length, list.isEmpty());
+        }, null);
+    }
+
+    /**
+     * Evict least recently used keys past the bounds, one segment at a time so no two locks are held.
+     */
+    private void evictIfNeeded() {
+        int attempts = 0;
+        while ((keyCount.get() > maxKeys || usedMemory.get() > maxMemory) && attempts < SEGMENTS) {
+            Segment segment = segments[Math.floorMod(evictFrom.getAndIncrement(), SEGMENTS)];
+            synchronized (segment) {
+                Iterator<Map.Entry<String, Entry>> iterator = segment.map.entrySet().iterator();
+                if (iterator.hasNext()) {
+                    Entry eldest = iterator.next().getValue();
+                    iterator.remove();
+                    released(eldest);
+                    evicted.increment();
+                    attempts = 0;
+                } else {
+                    attempts++;
+                }
+            }
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Iterator<Map.Entry<String, Entry>> iterator = segment.map.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next().getValue();
+                    if (entry.isExpired(now)) {
+                        iterator.remove();
+                        released(entry);
+                        expired.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    private void released(Entry entry) {
+        keyCount.decrementAndGet();
+        usedMemory.addAndGet(-entry.size);
+    }
+
+    private Segment segmentFor(String key) {
+        return segments[segmentIndex(key)];
+    }
+
+    static int segmentIndex(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) % SEGMENTS;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, byte[]> hash(Entry entry) {
+        return entry.as(Map.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Deque<byte[]> list(Entry entry) {
+        return entry.as(Deque.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Bytes> set(Entry entry) {
+        return entry.as(Set.class);
+    }
+
+    private static SortedSet zset(Entry entry) {
+        return entry.as(SortedSet.class);
+    }
+
+    private static long fieldSize(String field) {
+        return (long) field.length() * 2;
+    }
+
+    /**
+     * Clamp an inclusive LRANGE/ZRANGE style range, empty when start ends up past end.
+     */
+    private static int[] bounds(long start, long end, int size) {
+        long from = start < 0 ? Math.max(0, size + start) : start;
+        long to = end < 0 ? size + end : Math.min(end, size - 1L);
+        return from > to ? new int[]{0, -1} : new int[]{(int) from, (int) to};
+    }
+
+    private static byte[] copy(byte[] value) {
+        return value == null ? null : value.clone();
+    }
+
+    /**
+     * Translate a Redis glob pattern (*, ?, [abc], [^a-z], \ escapes) to a regex.
+     */
+    static Pattern glob(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                case '\\' -> {
+                    if (i + 1 < pattern.length()) {
+                        regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+                    }
+                }
+                case '[' -> {
+                    int close = pattern.indexOf(']', i + 1);
+                    if (close < 0) {
+                        regex.append("\\[");
+                        break;
+                    }
+                    String body = pattern.substring(i + 1, close);
+                    regex.append('[');
+                    if (body.startsWith("^")) {
+                        regex.append('^');
+                        body = body.substring(1);
+                    }
+                    regex.append(body.replace("\\", "\\\\").replace("[", "\\[").replace("&", "\\&"));
+                    regex.append(']');
+                    i = close;
+                }
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Mutation<R>(R result, long delta, boolean empty) {
+    }
+
+    /**
+     * Byte string compared by content, for set members.
+     */
+    private record Bytes(byte[] data) implements Comparable<Bytes> {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Bytes other && Arrays.equals(data, other.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(data);
+        }
+
+        @Override
+        public int compareTo(Bytes other) {
+            return Arrays.compareUnsigned(data, other.data);
+        }
+    }
+
+    /**
+     * Sorted set ordered by score, then by member bytes as in Redis.
+     */
+    private static final class SortedSet {
+        private static final Bytes LOWEST = new Bytes(new byte[0]);
+        private static final Bytes HIGHEST = new Bytes(new byte[0]);
+
+        private final Map<Bytes, Double> scores = new HashMap<>();
+        private final TreeSet<Scored> order = new TreeSet<>();
+
+        boolean add(Bytes member, double score) {
+            Double previous = scores.put(member, score);
+            if (previous != null) {
+                order.remove(new Scored(previous, member));
+            }
+            order.add(new Scored(score, member));
+            return previous == null;
+        }
+
+        boolean remove(Bytes member) {
+            Double score = scores.remove(member);
+            return score != null && order.remove(new Scored(score, member));
+        }
+
+        List<Bytes> ordered() {
+            return order.stream().map(Scored::member).toList();
+        }
+
+        List<Bytes> byScore(double min, double max) {
+            if (min > max) {
+                return List.of();
+            }
+            return order.subSet(new Scored(min, LOWEST), true, new Scored(max, HIGHEST), true).stream()
+                    .map(Scored::member)
+                    .toList();
+        }
+
+        int size() {
+            return scores.size();
+        }
+
+        boolean isEmpty() {
+            return scores.isEmpty();
+        }
+
+        /**
+         * LOWEST and HIGHEST bound a score range, below and above every member of their score.
+         */
+        private record Scored(double score, Bytes member) implements Comparable<Scored> {
+            @Override
+            public int compareTo(Scored other) {
+                int byScore = Double.compare(score, other.score);
+                if (byScore != 0 || member == other.member) {
+                    return byScore;
+                }
+                if (member == LOWEST || other.member == HIGHEST) {
+                    return -1;
+                }
+                if (member == HIGHEST || other.member == LOWEST) {
+                    return 1;
+                }
+                return member.compareTo(other.member);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private Object value;
+        private long size;
+        private boolean expiring;
+        private long expireAtNanos;
+
+        private Entry(Object value, String key) {
+            this.value = value;
+            this.size = ENTRY_OVERHEAD + fieldSize(key) + (value instanceof byte[] bytes ? bytes.length : 0);
+        }
+
+        private void expireAt(Duration ttl) {
+            this.expiring = true;
+            this.expireAtNanos = System.nanoTime() + ttl.toNanos();
+        }
+
+        private boolean isExpired(long now) {
+            return expiring && now - expireAtNanos >= 0;
+        }
+
+        private <T> T as(Class<T> type) {
+            if (!type.isInstance(value)) {
+                throw new InvalidDataAccessApiUsageException(WRONG_TYPE);
+            }
+            return type.cast(value);
+        }
+    }
+
+    private final class Segment {
+        private final LinkedHashMap<String, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * Gets the entry unless it expired, in which case it is dropped.
+         */
+        private Entry live(String key, long now) {
+            Entry entry = map.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                map.remove(key);
+                released(entry);
+                expired.increment();
+                return null;
+            }
+            return entry;
+        }
+
+        private Entry liveOrCreate(String key, Supplier<Object> collection) {
+            Entry entry = live(key, System.nanoTime());
+            if (entry == null) {
+                entry = new Entry(collection.get(), key);
+                put(key, entry, null);
+            }
+            return entry;
+        }
+
+        private void put(String key, Entry entry, Duration ttl) {
+            if (ttl != null) {
+                entry.expireAt(ttl);
+            }
+            Entry previous = map.put(key, entry);
+            if (previous != null) {
+                released(previous);
+            }
+            keyCount.incrementAndGet();
+            usedMemory.addAndGet(entry.size);
+        }
+
+        private void replaceValue(Entry entry, byte[] value) {
+            long delta = value.length - ((byte[]) entry.value).length;
+            entry.value = value;
+            resize(entry, delta);
+        }
+
+        private void resize(Entry entry, long delta) {
+            entry.size += delta;
+            usedMemory.addAndGet(delta);
+        }
+
+        private Entry remove(String key) {
+            Entry entry = map.remove(key);
+            if (entry != null) {
+                released(entry);
+            }
+            return entry;
+        }
+    }
+}
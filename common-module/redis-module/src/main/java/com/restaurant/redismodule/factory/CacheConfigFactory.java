@@ -22,7 +22,9 @@ public interface CacheConfigFactory<M> {
     }
 
     /**
-     * Cache async boolean.
+     * Write back and invalidate without waiting for Redis, through the async cache service.
+     * Writes dropped on overload leave the previous entry until its ttl. The list generation is
+     * always moved on the caller, a dropped move would leave every cached list stale.
      *
      * @return the boolean
      */
@@ -30,6 +32,16 @@ public interface CacheConfigFactory<M> {
         return true;
     }
 
+    /**
+     * Store single models as Redis hashes, one encoded field per property, so an update writes
+     * only the fields it changed and a projection reads only the fields it needs.
+     *
+     * @return the boolean
+     */
+    default boolean cacheAsHash() {
+        return false;
+    }
+
     /**
      * Gets model class.
      *
@@ -54,4 +66,90 @@ public interface CacheConfigFactory<M> {
     default Duration cacheListTtl() {
         return Duration.ofSeconds(60);
     }
+
+    /**
+     * Keep an in-process (L1) copy of single models in front of Redis.
+     *
+     * @return the boolean
+     */
+    default boolean localCache() {
+        return false;
+    }
+
+    /**
+     * Maximum number of models held in the local cache.
+     *
+     * @return the int
+     */
+    default int localCacheMaxSize() {
+        return 1000;
+    }
+
+    /**
+     * Local cache ttl, also the upper bound a replica may serve a stale model
+     * when an invalidation message is lost.
+     *
+     * @return the duration
+     */
+    default Duration localCacheTtl() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * Refresh-ahead: entries past their ttl are still served for {@link #staleTtl()} while
+     * a background load refreshes them.
+     *
+     * @return the boolean
+     */
+    default boolean refreshAhead() {
+        return false;
+    }
+
+    /**
+     * How long an entry may be served stale after its ttl, when refresh-ahead is on.
+     *
+     * @return the duration
+     */
+    default Duration staleTtl() {
+        return Duration.ofMinutes(5);
+    }
+
+    /**
+     * Weight of the probabilistic early refresh (XFetch beta), 0 refreshes only once stale.
+     * Higher values refresh earlier, scaled by how long the entry took to load.
+     *
+     * @return the double
+     */
+    default double earlyRefreshBeta() {
+        return 1.0;
+    }
+
+    /**
+     * Fraction of the ttl randomly added or removed on each write, so entries written
+     * together do not all expire together.
+     *
+     * @return the double
+     */
+    default double ttlJitter() {
+        return 0.1;
+    }
+
+    /**
+     * Cache not-found lookups as short-lived tombstones, so repeated lookups of a missing
+     * key cost a cache read instead of a query.
+     *
+     * @return the boolean
+     */
+    default boolean negativeCache() {
+        return false;
+    }
+
+    /**
+     * Tombstone ttl, the longest a model created outside this factory may be reported missing.
+     *
+     * @return the duration
+     */
+    default Duration negativeCacheTtl() {
+        return Duration.ofSeconds(30);
+    }
 }
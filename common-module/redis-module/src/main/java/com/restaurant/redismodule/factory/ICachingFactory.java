@@ -2,6 +2,7 @@ package com.restaurant.redismodule.factory;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.utils.MapperUtil;
@@ -17,6 +18,26 @@ public interface ICachingFactory<M> {
      */
     String PREFIX_CACHE_LIST = "cache_list";
 
+    /**
+     * The constant SUFFIX_GENERATION.
+     */
+    String SUFFIX_GENERATION = "gen";
+
+    /**
+     * Value cached in place of a model that was looked up and not found.
+     */
+    String TOMBSTONE = "__not_found__";
+
+    /**
+     * The constant PREFIX_INVALIDATION_CHANNEL.
+     */
+    String PREFIX_INVALIDATION_CHANNEL = "cache_invalidation";
+
+    /**
+     * The constant PREFIX_INDEX, for entries mapping a secondary key to the model id.
+     */
+    String PREFIX_INDEX = "idx";
+
     /**
      * Cache put.
      *
@@ -64,6 +85,91 @@ public interface ICachingFactory<M> {
         return (modelClass.getSimpleName() + getSpecial() + key).toLowerCase();
     }
 
+    /**
+     * Make key of the list cache generation counter, bumped on every write of the model.
+     *
+     * @param modelClass the model class
+     * @return the string
+     */
+    default String makeKeyCacheListGeneration(Class<M> modelClass) {
+        return (modelClass.getSimpleName() + getSpecial() + PREFIX_CACHE_LIST + getSpecial() + SUFFIX_GENERATION)
+                .toLowerCase();
+    }
+
+    /**
+     * Make key cache list string within a generation, entries of older generations are
+     * never read again and expire with their ttl.
+     *
+     * @param mClass     the m class
+     * @param iFilter    the iFilter
+     * @param generation the generation
+     * @return the string
+     */
+    default String makeKeyCacheList(Class<M> mClass, IFilter iFilter, long generation) {
+        return (mClass.getSimpleName() + getSpecial() + PREFIX_CACHE_LIST + getSpecial()
+                + "g" + generation + getSpecial() + makeKeyCacheList(mClass, iFilter)).toLowerCase();
+    }
+
+    /**
+     * Make the full key of a filter: its class and its properties as JSON with sorted keys, case
+     * kept. Unlike {@link #makeKeyCacheList(Class, IFilter)} it is not a hash, so two different
+     * filters never share it; keys standing for the result of one lookup by filter are built on it.
+     *
+     * @param mClass  the m class
+     * @param iFilter the iFilter
+     * @return the string, null when the filter cannot be written as JSON
+     */
+    default String makeKeyFilter(Class<M> mClass, IFilter iFilter) {
+        String prefix = (mClass.getSimpleName() + getSpecial() + "filter").toLowerCase() + getSpecial();
+        if (iFilter == null) {
+            return prefix + "null";
+        }
+        try {
+            final Map<String, Object> map = MapperUtil.convertValue(
+                    iFilter,
+                    new TypeReference<>() {
+                    }
+            );
+            return prefix + iFilter.getClass().getName() + getSpecial()
+                    + MapperUtil.mapper.writer(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsString(map);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Make pattern matching every cache key of the model.
+     *
+     * @param modelClass the model class
+     * @return the string
+     */
+    default String makeKeyPattern(Class<M> modelClass) {
+        return (modelClass.getSimpleName() + getSpecial() + "*").toLowerCase();
+    }
+
+    /**
+     * Make invalidation channel string.
+     *
+     * @param modelClass the model class
+     * @return the string
+     */
+    default String makeInvalidationChannel(Class<M> modelClass) {
+        return (PREFIX_INVALIDATION_CHANNEL + getSpecial() + modelClass.getSimpleName()).toLowerCase();
+    }
+
+    /**
+     * Make key of the index entry of a secondary key value.
+     *
+     * @param modelClass the model class
+     * @param name       the secondary key name
+     * @param value      the secondary key value
+     * @return the string
+     */
+    default String makeKeyIndex(Class<M> modelClass, String name, Object value) {
+        return (modelClass.getSimpleName() + getSpecial() + PREFIX_INDEX + getSpecial() + name + getSpecial() + value)
+                .toLowerCase();
+    }
+
     /**
      * Gets special.
      *
@@ -0,0 +1,217 @@
+package com.restaurant.redismodule.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.restaurant.utils.MapperUtil;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.restaurant.redismodule.factory.ICachingFactory.TOMBSTONE;
+
+/**
+ * Typed read of a cached value that may be stored plain, in a {@link CacheEnvelope},
+ * or as the not-found tombstone. The value is decoded straight into its type.
+ * <p>
+ * Models may also be stored as a hash of their properties, see {@link #toHash}, with the
+ * envelope metadata and the tombstone held in reserved fields.
+ *
+ * @param <T> the value type
+ * @author namdx.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonDeserialize(using = CacheEntry.Deserializer.class)
+public class CacheEntry<T> {
+
+    /**
+     * Hash field of the soft expiry, for a model stored as a hash.
+     */
+    public static final String HASH_SOFT_EXPIRE_AT = "@" + CacheEnvelope.SOFT_EXPIRE_AT;
+
+    /**
+     * Hash field of the load millis, for a model stored as a hash.
+     */
+    public static final String HASH_LOAD_MILLIS = "@" + CacheEnvelope.LOAD_MILLIS;
+
+    private static final TypeReference<Map<String, Object>> FIELDS_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * The value, null for a tombstone.
+     */
+    private final T value;
+
+    /**
+     * The envelope metadata, null when the value was stored plain. Its value is not set.
+     */
+    private final CacheEnvelope envelope;
+
+    /**
+     * Whether the key is cached as not found.
+     */
+    private final boolean tombstone;
+
+    /**
+     * Type of an entry holding the value type.
+     *
+     * @param valueType the value type
+     * @return the java type
+     */
+    public static JavaType type(JavaType valueType) {
+        return TypeFactory.defaultInstance().constructParametricType(CacheEntry.class, valueType);
+    }
+
+    /**
+     * Type of an entry holding the value class.
+     *
+     * @param valueType the value class
+     * @return the java type
+     */
+    public static JavaType type(Class<?> valueType) {
+        return type(TypeFactory.defaultInstance().constructType(valueType));
+    }
+
+    /**
+     * Hash fields of a value, one per non-null property, with the envelope metadata when given.
+     *
+     * @param value    the value
+     * @param envelope the envelope, null when stored plain
+     * @return the fields
+     */
+    public static Map<String, Object> toHash(Object value, CacheEnvelope envelope) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        MapperUtil.convertValue(value, FIELDS_TYPE).forEach((field, fieldValue) -> {
+            if (fieldValue != null) {
+                fields.put(field, fieldValue);
+            }
+        });
+        if (envelope != null) {
+            fields.put(HASH_SOFT_EXPIRE_AT, envelope.getSoftExpireAt());
+            fields.put(HASH_LOAD_MILLIS, envelope.getLoadMillis());
+        }
+        return fields;
+    }
+
+    /**
+     * Hash fields of the not-found tombstone.
+     *
+     * @return the fields
+     */
+    public static Map<String, Object> tombstoneHash() {
+        return Map.of(TOMBSTONE, true);
+    }
+
+    /**
+     * Entry of a model stored as a hash.
+     *
+     * @param <T>       the type parameter
+     * @param fields    the hash fields
+     * @param valueType the value class
+     * @return the entry, null when the hash is missing
+     */
+    public static <T> CacheEntry<T> fromHash(Map<String, Object> fields, Class<T> valueType) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        if (fields.containsKey(TOMBSTONE)) {
+            return new CacheEntry<>(null, null, true);
+        }
+        Map<String, Object> properties = new LinkedHashMap<>(fields);
+        Object softExpireAt = properties.remove(HASH_SOFT_EXPIRE_AT);
+        Object loadMillis = properties.remove(HASH_LOAD_MILLIS);
+        CacheEnvelope envelope = softExpireAt instanceof Number soft
+                ? new CacheEnvelope(null, soft.longValue(), loadMillis instanceof Number load ? load.longValue() : 0L)
+                : null;
+        return new CacheEntry<>(MapperUtil.convertValue(properties, valueType), envelope, false);
+    }
+
+    /**
+     * Reads tombstones and envelopes by their first token or field, and anything else
+     * as the value itself.
+     */
+    static class Deserializer extends JsonDeserializer<CacheEntry<?>> implements ContextualDeserializer {
+
+        private final JavaType valueType;
+
+        Deserializer() {
+            this(TypeFactory.unknownType());
+        }
+
+        private Deserializer(JavaType valueType) {
+            this.valueType = valueType;
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) {
+            JavaType type = ctxt.getContextualType();
+            return new Deserializer(type == null ? TypeFactory.unknownType() : type.containedTypeOrUnknown(0));
+        }
+
+        @Override
+        public CacheEntry<?> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_STRING && TOMBSTONE.equals(p.getText())) {
+                return new CacheEntry<>(null, null, true);
+            }
+            if (token != JsonToken.START_OBJECT) {
+                return plain(ctxt.readValue(p, valueType));
+            }
+            String first = p.nextFieldName();
+            if (CacheEnvelope.SOFT_EXPIRE_AT.equals(first)) {
+                return readEnvelope(p, ctxt, first);
+            }
+            if (first == null) {
+                return plain(ctxt.readTreeAsValue(ctxt.getNodeFactory().objectNode(), valueType));
+            }
+            if (CacheEnvelope.VALUE.equals(first)) {
+                // Envelopes written before the field order was fixed start with their value
+                JsonNode node = ctxt.readTree(p);
+                if (node.size() == 3 && node.path(CacheEnvelope.SOFT_EXPIRE_AT).isNumber()
+                        && node.path(CacheEnvelope.LOAD_MILLIS).isNumber()) {
+                    return new CacheEntry<>(
+                            ctxt.readTreeAsValue(node.get(CacheEnvelope.VALUE), valueType),
+                            new CacheEnvelope(null, node.get(CacheEnvelope.SOFT_EXPIRE_AT).asLong(),
+                                    node.get(CacheEnvelope.LOAD_MILLIS).asLong()),
+                            false
+                    );
+                }
+                return plain(ctxt.readTreeAsValue(node, valueType));
+            }
+            return plain(ctxt.readValue(p, valueType));
+        }
+
+        private CacheEntry<?> readEnvelope(JsonParser p, DeserializationContext ctxt, String first) throws IOException {
+            Object value = null;
+            long softExpireAt = 0L;
+            long loadMillis = 0L;
+            for (String name = first; name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                switch (name) {
+                    case CacheEnvelope.SOFT_EXPIRE_AT -> softExpireAt = p.getValueAsLong();
+                    case CacheEnvelope.LOAD_MILLIS -> loadMillis = p.getValueAsLong();
+                    case CacheEnvelope.VALUE -> value = token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, valueType);
+                    default -> p.skipChildren();
+                }
+            }
+            return new CacheEntry<>(value, new CacheEnvelope(null, softExpireAt, loadMillis), false);
+        }
+
+        private static CacheEntry<?> plain(Object value) {
+            return new CacheEntry<>(value, null, false);
+        }
+    }
+}
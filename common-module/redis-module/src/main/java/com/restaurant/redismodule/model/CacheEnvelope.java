@@ -0,0 +1,58 @@
+package com.restaurant.redismodule.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Cached value with the metadata needed for refresh-ahead. The metadata is written first,
+ * so a typed read can tell an envelope from a model on its first field.
+ *
+ * @author namdx.
+ */
+@Data
+@JsonPropertyOrder({CacheEnvelope.SOFT_EXPIRE_AT, CacheEnvelope.LOAD_MILLIS, CacheEnvelope.VALUE})
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+
+    static final String VALUE = "value";
+    static final String SOFT_EXPIRE_AT = "softExpireAt";
+    static final String LOAD_MILLIS = "loadMillis";
+
+    /**
+     * The cached value.
+     */
+    private Object value;
+
+    /**
+     * Epoch millis after which the value is stale, it is still served until the key expires.
+     */
+    private long softExpireAt;
+
+    /**
+     * Millis it took to load the value, scales the probabilistic early refresh.
+     */
+    private long loadMillis;
+
+    /**
+     * Read an envelope from a cached value, which comes back from Redis as a plain map.
+     *
+     * @param cached the cached value
+     * @return the envelope, or null when the value is not one
+     */
+    public static CacheEnvelope from(Object cached) {
+        if (cached instanceof CacheEnvelope envelope) {
+            return envelope;
+        }
+        if (cached instanceof Map<?, ?> map && map.size() == 3 && map.containsKey(VALUE)
+                && map.get(SOFT_EXPIRE_AT) instanceof Number softExpireAt
+                && map.get(LOAD_MILLIS) instanceof Number loadMillis) {
+            return new CacheEnvelope(map.get(VALUE), softExpireAt.longValue(), loadMillis.longValue());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.restaurant.redismodule.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Progress of a pattern deletion on one node, reported after every scanned batch.
+ *
+ * @author namdx.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ScanProgress {
+
+    /**
+     * Node being scanned, host:port of a cluster master or "default" outside a cluster.
+     */
+    private final String node;
+
+    /**
+     * Keys matched on the node so far.
+     */
+    private final long scanned;
+
+    /**
+     * Keys unlinked on the node so far.
+     */
+    private final long deleted;
+
+    /**
+     * Whether the scan of the node is complete.
+     */
+    private final boolean finished;
+}
@@ -0,0 +1,421 @@
+package com.restaurant.redismodule.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.embedded.EmbeddedRedisStore;
+import com.restaurant.redismodule.factory.ICachingFactory;
+import com.restaurant.redismodule.model.ScanProgress;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Redis operations on the in-process {@link EmbeddedRedisStore}, used in EMBEDDED mode in place
+ * of {@link RedisService}. Values go through the cache codec as they would on the wire, so callers
+ * see the same types and copies they get from a Redis server.
+ *
+ * @author namdx.
+ */
+@Service
+@Conditional(RedisModeCondition.Embedded.class)
+public class EmbeddedRedisService implements IRedisService {
+
+    private static final String EMBEDDED_NODE = "embedded";
+
+    private final EmbeddedRedisStore store;
+    private final CacheCodec cacheCodec;
+    private final Map<MessageListener, Runnable> subscriptions = new ConcurrentHashMap<>();
+
+    public EmbeddedRedisService(EmbeddedRedisStore store, CacheCodec cacheCodec) {
+        this.store = store;
+        this.cacheCodec = cacheCodec;
+    }
+
+    @Override
+    public void set(String key, Object value) {
+        store.set(key, encode(value), null);
+    }
+
+    @Override
+    public void set(String key, Object value, Duration timeout) {
+        store.set(key, encode(value), timeout);
+    }
+
+    @Override
+    public Object get(String key) {
+        return decode(store.get(key));
+    }
+
+    @Override
+    public <T> T get(String key, JavaType type) {
+        byte[] raw = store.get(key);
+        return raw == null || raw.length == 0 ? null : cacheCodec.decode(raw, type);
+    }
+
+    @Override
+    public List<Object> mGet(Collection<String> keys) {
+        List<Object> values = new ArrayList<>(keys.size());
+        for (byte[] value : store.mGet(keys)) {
+            values.add(decode(value));
+        }
+        return values;
+    }
+
+    @Override
+    public <T> List<T> mGet(Collection<String> keys, JavaType type) {
+        List<T> values = new ArrayList<>(keys.size());
+        for (byte[] value : store.mGet(keys)) {
+            values.add(value == null || value.length == 0 ? null : cacheCodec.decode(value, type));
+        }
+        return values;
+    }
+
+    @Override
+    public void mSetWithTtl(Map<String, ?> values, Duration timeout) {
+        values.forEach((key, value) -> store.set(key, encode(value), timeout));
+    }
+
+    @Override
+    public long deleteMany(Collection<String> keys) {
+        return store.delete(keys);
+    }
+
+    @Override
+    public long expireMany(Collection<String> keys, Duration timeout) {
+        long updated = 0;
+        for (String key : keys) {
+            updated += store.expire(key, timeout) ? 1 : 0;
+        }
+        return updated;
+    }
+
+    @Override
+    public long[] takeTokens(String key, long capacity, Duration interval, long requested) {
+        return store.takeTokens(key, capacity, interval, requested);
+    }
+
+    @Override
+    public Boolean setIfAbsent(String key, Object value) {
+        return store.setIfAbsent(key, encode(value), null);
+    }
+
+    @Override
+    public Boolean setIfAbsent(String key, Object value, Duration timeout) {
+        return store.setIfAbsent(key, encode(value), timeout);
+    }
+
+    @Override
+    public Long increment(String key) {
+        return store.incrBy(key, 1);
+    }
+
+    @Override
+    public Long increment(String key, long delta) {
+        return store.incrBy(key, delta);
+    }
+
+    @Override
+    public Long decrement(String key) {
+        return store.incrBy(key, -1);
+    }
+
+    @Override
+    public Long decrement(String key, long delta) {
+        return store.incrBy(key, -delta);
+    }
+
+    // ========== Hash Operations ==========
+
+    @Override
+    public void hSet(String key, String field, Object value) {
+        store.hSet(key, field, encode(value));
+    }
+
+    @Override
+    public Object hGet(String key, String field) {
+        return decode(store.hGet(key, field));
+    }
+
+    @Override
+    public void hSetAll(String key, Map<String, Object> map) {
+        store.hSetAll(key, encodeFields(map));
+    }
+
+    @Override
+    public Map<Object, Object> hGetAll(String key) {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        store.hGetAll(key).forEach((field, value) -> entries.put(field, decode(value)));
+        return entries;
+    }
+
+    @Override
+    public Long hDelete(String key, Object... fields) {
+        return store.hDelete(key, Arrays.stream(fields).map(String::valueOf).toList());
+    }
+
+    @Override
+    public Boolean hExists(String key, String field) {
+        return store.hExists(key, field);
+    }
+
+    @Override
+    public List<Object> hMultiGet(String key, Collection<String> fields) {
+        List<Object> values = new ArrayList<>(fields.size());
+        for (byte[] value : store.hMGet(key, fields)) {
+            values.add(decode(value));
+        }
+        return values;
+    }
+
+    @Override
+    public List<Map<Object, Object>> hGetAllMany(Collection<String> keys) {
+        List<Map<Object, Object>> hashes = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            hashes.add(hGetAll(key));
+        }
+        return hashes;
+    }
+
+    @Override
+    public void hReplace(String key, Map<String, ?> fields, Duration timeout) {
+        store.hReplace(key, encodeFields(fields), timeout);
+    }
+
+    @Override
+    public void hReplaceMany(Map<String, ? extends Map<String, ?>> hashes, Duration timeout) {
+        hashes.forEach((key, fields) -> store.hReplace(key, encodeFields(fields), timeout));
+    }
+
+    @Override
+    public boolean hUpdateIfExists(String key, Map<String, ?> fields, Collection<String> removed, Duration timeout) {
+        return store.hUpdateIfExists(key, encodeFields(fields), removed, timeout, ICachingFactory.TOMBSTONE);
+    }
+
+    // ========== List Operations ==========
+
+    @Override
+    public Long lPush(String key, Object value) {
+        return store.lPush(key, List.of(encode(value)));
+    }
+
+    @Override
+    public Long lPushAll(String key, Object... values) {
+        return store.lPush(key, encodeAll(values));
+    }
+
+    @Override
+    public Long rPush(String key, Object value) {
+        return store.rPush(key, List.of(encode(value)));
+    }
+
+    @Override
+    public Long rPushAll(String key, Object... values) {
+        return store.rPush(key, encodeAll(values));
+    }
+
+    @Override
+    public Object lPop(String key) {
+        return decode(store.lPop(key));
+    }
+
+    @Override
+    public Object rPop(String key) {
+        return decode(store.rPop(key));
+    }
+
+    @Override
+    public List<Object> lRange(String key, long start, long end) {
+        return store.lRange(key, start, end).stream().map(this::decode).toList();
+    }
+
+    @Override
+    public Long lSize(String key) {
+        return store.lLen(key);
+    }
+
+    // ========== Set Operations ==========
+
+    @Override
+    public Long sAdd(String key, Object... values) {
+        return store.sAdd(key, encodeAll(values));
+    }
+
+    @Override
+    public Set<Object> sMembers(String key) {
+        return decodeAll(store.sMembers(key));
+    }
+
+    @Override
+    public Boolean sIsMember(String key, Object value) {
+        return store.sIsMember(key, encode(value));
+    }
+
+    @Override
+    public Long sRemove(String key, Object... values) {
+        return store.sRemove(key, encodeAll(values));
+    }
+
+    @Override
+    public Long sSize(String key) {
+        return store.sCard(key);
+    }
+
+    // ========== Sorted Set Operations ==========
+
+    @Override
+    public Boolean zAdd(String key, Object value, double score) {
+        return store.zAdd(key, encode(value), score);
+    }
+
+    @Override
+    public Set<Object> zRangeByScore(String key, double min, double max) {
+        return decodeAll(store.zRangeByScore(key, min, max));
+    }
+
+    @Override
+    public Set<Object> zRange(String key, long start, long end) {
+        return decodeAll(store.zRange(key, start, end));
+    }
+
+    @Override
+    public Long zRemove(String key, Object... values) {
+        return store.zRemove(key, encodeAll(values));
+    }
+
+    @Override
+    public Long zSize(String key) {
+        return store.zCard(key);
+    }
+
+    // ========== Key Operations ==========
+
+    @Override
+    public Boolean delete(String key) {
+        return store.delete(key);
+    }
+
+    @Override
+    public Long delete(Collection<String> keys) {
+        return store.delete(keys);
+    }
+
+    @Override
+    public Boolean hasKey(String key) {
+        return store.exists(key);
+    }
+
+    @Override
+    public Boolean expire(String key, Duration timeout) {
+        return store.expire(key, timeout);
+    }
+
+    @Override
+    public Boolean expire(String key, long timeout, TimeUnit unit) {
+        return store.expire(key, Duration.of(timeout, unit.toChronoUnit()));
+    }
+
+    @Override
+    public Long getExpire(String key) {
+        return getExpire(key, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public Long getExpire(String key, TimeUnit unit) {
+        long ttl = store.ttlMillis(key);
+        return ttl < 0 ? ttl : unit.convert(ttl, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Boolean persist(String key) {
+        return store.persist(key);
+    }
+
+    @Override
+    public Set<String> keys(String pattern) {
+        return store.keys(pattern);
+    }
+
+    /**
+     * Delete keys matching pattern, segment by segment so other callers keep going in between.
+     */
+    @Override
+    public long deletePattern(String pattern, int batchSize, Consumer<ScanProgress> progress) {
+        long deleted = store.deletePattern(pattern);
+        progress.accept(new ScanProgress(EMBEDDED_NODE, deleted, deleted, true));
+        return deleted;
+    }
+
+    // ========== Pub/Sub Operations ==========
+
+    @Override
+    public Long publish(String channel, String message) {
+        return store.publish(channel, encode(message));
+    }
+
+    /**
+     * Subscribe to channel, messages are delivered on the embedded publisher thread
+     */
+    @Override
+    public MessageListener subscribe(String channel, Consumer<String> listener) {
+        byte[] rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+        MessageListener messageListener = (message, pattern) -> {
+            Object body = decode(message.getBody());
+            if (body != null) {
+                listener.accept(body.toString());
+            }
+        };
+        subscriptions.put(messageListener, store.subscribe(channel,
+                body -> messageListener.onMessage(new DefaultMessage(rawChannel, body), null)));
+        return messageListener;
+    }
+
+    @Override
+    public void unsubscribe(MessageListener listener) {
+        Runnable subscription = subscriptions.remove(listener);
+        if (subscription != null) {
+            subscription.run();
+        }
+    }
+
+    private byte[] encode(Object value) {
+        return value == null ? new byte[0] : cacheCodec.encode(value);
+    }
+
+    private List<byte[]> encodeAll(Object... values) {
+        return Arrays.stream(values).map(this::encode).toList();
+    }
+
+    private Map<String, byte[]> encodeFields(Map<String, ?> fields) {
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        fields.forEach((field, value) -> values.put(field, encode(value)));
+        return values;
+    }
+
+    private Object decode(byte[] value) {
+        return value == null || value.length == 0 ? null : cacheCodec.decode(value);
+    }
+
+    private Set<Object> decodeAll(List<byte[]> values) {
+        Set<Object> decoded = new LinkedHashSet<>();
+        for (byte[] value : values) {
+            decoded.add(decode(value));
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,120 @@
+package com.restaurant.redismodule.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link ICacheService}. Commands are sent on the shared Lettuce
+ * connection, so commands issued by one thread reach Redis in order and concurrent reads
+ * are pipelined. In-flight commands are bounded: once the bound is hit new commands are
+ * dropped, as they are while the Redis circuit is open.
+ * <p>
+ * Futures never complete exceptionally: a dropped or failed read completes as a miss,
+ * a dropped or failed write completes with false.
+ *
+ * @author namdx.
+ */
+public interface IAsyncCacheService {
+
+    /**
+     * Gets cache decoded into the type, null on miss.
+     *
+     * @param <T>  the type parameter
+     * @param key  the key
+     * @param type the type
+     * @return the future
+     */
+    <T> CompletableFuture<T> getCacheAsync(String key, JavaType type);
+
+    /**
+     * Gets caches of several keys with one MGET.
+     *
+     * @param <T>  the type parameter
+     * @param keys the keys
+     * @param type the type
+     * @return the future of the values in key order, null for each miss
+     */
+    <T> CompletableFuture<List<T>> multiGetAsync(List<String> keys, JavaType type);
+
+    /**
+     * Set a value with ttl.
+     *
+     * @param key   the key
+     * @param value the value
+     * @param ttl   the ttl
+     * @return the future, true once Redis acknowledged the write
+     */
+    CompletableFuture<Boolean> setAsync(String key, Object value, Duration ttl);
+
+    /**
+     * Set several values with one ttl.
+     *
+     * @param values the values by key
+     * @param ttl    the ttl
+     * @return the future, true once Redis acknowledged every write
+     */
+    CompletableFuture<Boolean> multiSetAsync(Map<String, ?> values, Duration ttl);
+
+    /**
+     * Replace a hash with the given fields, one encoded value per field.
+     *
+     * @param key    the key
+     * @param fields the fields
+     * @param ttl    the ttl
+     * @return the future, true once Redis acknowledged the write
+     */
+    CompletableFuture<Boolean> setHashAsync(String key, Map<String, ?> fields, Duration ttl);
+
+    /**
+     * Replace several hashes with one ttl.
+     *
+     * @param hashes the fields by key
+     * @param ttl    the ttl
+     * @return the future, true once Redis acknowledged every write
+     */
+    CompletableFuture<Boolean> multiSetHashAsync(Map<String, ? extends Map<String, ?>> hashes, Duration ttl);
+
+    /**
+     * Set and delete fields of a hash and reset its ttl, only when the hash exists. Unlike
+     * the other writes, a dropped or failed update completes with null, so the caller can
+     * tell it from a missing hash.
+     *
+     * @param key     the key
+     * @param fields  the fields to set
+     * @param removed the fields to delete
+     * @param ttl     the ttl
+     * @return the future, true when updated, false when the hash does not exist
+     */
+    CompletableFuture<Boolean> updateHashAsync(String key, Map<String, ?> fields, Collection<String> removed,
+                                               Duration ttl);
+
+    /**
+     * Delete a key.
+     *
+     * @param key the key
+     * @return the future, true once Redis acknowledged the delete
+     */
+    CompletableFuture<Boolean> deleteAsync(String key);
+
+    /**
+     * Increment a counter.
+     *
+     * @param key the key
+     * @return the future of the new value, null when dropped or failed
+     */
+    CompletableFuture<Long> incrementAsync(String key);
+
+    /**
+     * Publish a message.
+     *
+     * @param channel the channel
+     * @param message the message
+     * @return the future, true once Redis acknowledged the publish
+     */
+    CompletableFuture<Boolean> publishAsync(String channel, String message);
+}
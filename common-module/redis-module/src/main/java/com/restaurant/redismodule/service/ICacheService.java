@@ -1,9 +1,13 @@
 package com.restaurant.redismodule.service;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.restaurant.redismodule.exception.CacheException;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ICacheService {
     /**
@@ -16,6 +20,16 @@ public interface ICacheService {
      */
     <T> T getCache(String key, Class<T> type) throws CacheException;
 
+    /**
+     * Gets cache decoded straight into a generic type.
+     *
+     * @param <T>  the type parameter
+     * @param key  the key
+     * @param type the type
+     * @return the cache
+     */
+    <T> T getCache(String key, JavaType type) throws CacheException;
+
     /**
      * Gets list.
      *
@@ -26,6 +40,34 @@ public interface ICacheService {
      */
     <T> List<T> getList(String key, Class<T> type);
 
+    /**
+     * Gets caches of several keys in one round trip.
+     *
+     * @param <T>  the type parameter
+     * @param keys the keys
+     * @param type the type
+     * @return the values in key order, null for each miss
+     */
+    <T> List<T> multiGet(List<String> keys, Class<T> type);
+
+    /**
+     * Gets caches of several keys in one round trip, decoded straight into a generic type.
+     *
+     * @param <T>  the type parameter
+     * @param keys the keys
+     * @param type the type
+     * @return the values in key order, null for each miss
+     */
+    <T> List<T> multiGet(List<String> keys, JavaType type);
+
+    /**
+     * Set several keys with the same ttl in one round trip.
+     *
+     * @param values the values by key
+     * @param ttl    the ttl
+     */
+    void multiSet(Map<String, ?> values, Duration ttl);
+
     /**
      * Set.
      *
@@ -43,6 +85,60 @@ public interface ICacheService {
      */
     void set(String key, Object value, Duration ttl);
 
+    /**
+     * Gets all fields of a hash, decoded without a target type.
+     *
+     * @param key the key
+     * @return the fields, empty on miss
+     * @throws CacheException the cache exception
+     */
+    Map<String, Object> getHash(String key) throws CacheException;
+
+    /**
+     * Gets all fields of several hashes in one round trip.
+     *
+     * @param keys the keys
+     * @return the fields in key order, empty for each miss
+     */
+    List<Map<String, Object>> multiGetHash(List<String> keys);
+
+    /**
+     * Gets some fields of a hash with one HMGET.
+     *
+     * @param key    the key
+     * @param fields the fields
+     * @return the values in field order, null for each missing field
+     */
+    List<Object> getHashFields(String key, List<String> fields);
+
+    /**
+     * Replace a hash with the given fields, one encoded value per field.
+     *
+     * @param key    the key
+     * @param fields the fields
+     * @param ttl    the ttl
+     */
+    void setHash(String key, Map<String, ?> fields, Duration ttl);
+
+    /**
+     * Replace several hashes with the same ttl in one round trip.
+     *
+     * @param hashes the fields by key
+     * @param ttl    the ttl
+     */
+    void multiSetHash(Map<String, ? extends Map<String, ?>> hashes, Duration ttl);
+
+    /**
+     * Set and delete fields of a hash and reset its ttl, only when the hash exists.
+     *
+     * @param key     the key
+     * @param fields  the fields to set
+     * @param removed the fields to delete
+     * @param ttl     the ttl
+     * @return true when updated, false when the hash does not exist, null when the update failed
+     */
+    Boolean updateHash(String key, Map<String, ?> fields, Collection<String> removed, Duration ttl);
+
     /**
      * Delete.
      *
@@ -51,12 +147,20 @@ public interface ICacheService {
     void delete(String key);
 
     /**
-     * Delete pattern.
+     * Delete pattern, scanning the keyspace incrementally on every cluster master.
      *
      * @param pattern the pattern
      */
     void deletePattern(String pattern);
 
+    /**
+     * Increment a counter, creating it at 1 when absent.
+     *
+     * @param key the key
+     * @return the new value, or null when the increment failed
+     */
+    Long increment(String key);
+
     /**
      * Exists boolean.
      *
@@ -66,7 +170,30 @@ public interface ICacheService {
     boolean exists(String key);
 
     /**
-     * Clear all.
+     * Clear all, scanning the keyspace incrementally on every cluster master.
      */
     void clearAll();
+
+    /**
+     * Publish a message to a channel.
+     *
+     * @param channel the channel
+     * @param message the message
+     */
+    void publish(String channel, String message);
+
+    /**
+     * Subscribe to a channel.
+     *
+     * @param channel  the channel
+     * @param listener the listener
+     */
+    void subscribe(String channel, Consumer<String> listener);
+
+    /**
+     * Non-blocking variant of this service.
+     *
+     * @return the async cache service
+     */
+    IAsyncCacheService async();
 }
@@ -0,0 +1,149 @@
+package com.restaurant.redismodule.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive variant of {@link ICacheService} for WebFlux callers, nothing blocks the event loop.
+ * Keys and value encoding are the same as {@link ICacheService}, so both read each other's entries.
+ * <p>
+ * Only {@link #getCache} signals errors, with a CacheException, so a caller can tell a failing
+ * cache from a miss; the other calls complete empty, false or with a miss when Redis fails or
+ * the Redis circuit is open.
+ *
+ * @author namdx.
+ */
+public interface IReactiveCacheService {
+
+    /**
+     * Gets cache, empty on miss.
+     *
+     * @param <T>  the type parameter
+     * @param key  the key
+     * @param type the type
+     * @return the mono
+     */
+    <T> Mono<T> getCache(String key, Class<T> type);
+
+    /**
+     * Gets cache decoded into the type, empty on miss.
+     *
+     * @param <T>  the type parameter
+     * @param key  the key
+     * @param type the type
+     * @return the mono
+     */
+    <T> Mono<T> getCache(String key, JavaType type);
+
+    /**
+     * Gets list, empty list on miss.
+     *
+     * @param <T>  the type parameter
+     * @param key  the key
+     * @param type the element type
+     * @return the mono
+     */
+    <T> Mono<List<T>> getList(String key, Class<T> type);
+
+    /**
+     * Gets caches of several keys with one MGET.
+     *
+     * @param <T>  the type parameter
+     * @param keys the keys
+     * @param type the type
+     * @return the values in key order, null for each miss
+     */
+    <T> Mono<List<T>> multiGet(List<String> keys, JavaType type);
+
+    /**
+     * Set a value with ttl.
+     *
+     * @param key   the key
+     * @param value the value
+     * @param ttl   the ttl
+     * @return true once Redis acknowledged the write
+     */
+    Mono<Boolean> set(String key, Object value, Duration ttl);
+
+    /**
+     * Set a value with ttl unless the key exists.
+     *
+     * @param key   the key
+     * @param value the value
+     * @param ttl   the ttl
+     * @return true when the value was set
+     */
+    Mono<Boolean> setIfAbsent(String key, Object value, Duration ttl);
+
+    /**
+     * Set several values with one ttl.
+     *
+     * @param values the values by key
+     * @param ttl    the ttl
+     * @return true once Redis acknowledged every write
+     */
+    Mono<Boolean> multiSet(Map<String, ?> values, Duration ttl);
+
+    /**
+     * Delete.
+     *
+     * @param key the key
+     * @return true when the key existed
+     */
+    Mono<Boolean> delete(String key);
+
+    /**
+     * Delete pattern, scanning the keyspace incrementally.
+     *
+     * @param pattern the pattern
+     * @return the number of keys deleted
+     */
+    Mono<Long> deletePattern(String pattern);
+
+    /**
+     * Increment a counter, creating it at 1 when absent.
+     *
+     * @param key the key
+     * @return the new value, empty when the increment failed
+     */
+    Mono<Long> increment(String key);
+
+    /**
+     * Set expiration of a key.
+     *
+     * @param key the key
+     * @param ttl the ttl
+     * @return true when the key exists
+     */
+    Mono<Boolean> expire(String key, Duration ttl);
+
+    /**
+     * Exists boolean.
+     *
+     * @param key the key
+     * @return the mono
+     */
+    Mono<Boolean> exists(String key);
+
+    /**
+     * Publish a message to a channel.
+     *
+     * @param channel the channel
+     * @param message the message
+     * @return the number of subscribers that received it
+     */
+    Mono<Long> publish(String channel, String message);
+
+    /**
+     * Subscribe to a channel, messages are delivered while the flux is subscribed.
+     *
+     * @param channel the channel
+     * @return the messages
+     */
+    Flux<String> subscribe(String channel);
+}
@@ -0,0 +1,340 @@
+package com.restaurant.redismodule.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.restaurant.redismodule.model.ScanProgress;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Redis operations, on a Redis server ({@link RedisService}) or on the in-process store in
+ * EMBEDDED mode ({@link EmbeddedRedisService}).
+ *
+ * @author namdx.
+ */
+public interface IRedisService {
+
+    /**
+     * Set a key-value pair
+     */
+    void set(String key, Object value);
+
+    /**
+     * Set a key-value pair with expiration
+     */
+    void set(String key, Object value, Duration timeout);
+
+    /**
+     * Get value by key
+     */
+    Object get(String key);
+
+    /**
+     * Get value by key, decoded straight into the given type
+     */
+    <T> T get(String key, JavaType type);
+
+    /**
+     * Get values of multiple keys in one round trip, null for each missing key
+     */
+    List<Object> mGet(Collection<String> keys);
+
+    /**
+     * Get values of multiple keys in one round trip, decoded straight into the given type, null for
+     * each missing key
+     */
+    <T> List<T> mGet(Collection<String> keys, JavaType type);
+
+    /**
+     * Set multiple key-value pairs with expiration in one round trip
+     */
+    void mSetWithTtl(Map<String, ?> values, Duration timeout);
+
+    /**
+     * Delete multiple keys in one round trip
+     *
+     * @return the number of keys deleted
+     */
+    long deleteMany(Collection<String> keys);
+
+    /**
+     * Set expiration for multiple keys in one round trip
+     *
+     * @return the number of keys whose expiration was set
+     */
+    long expireMany(Collection<String> keys, Duration timeout);
+
+    /**
+     * Set value if key doesn't exist
+     */
+    Boolean setIfAbsent(String key, Object value);
+
+    /**
+     * Set value if key doesn't exist with expiration
+     */
+    Boolean setIfAbsent(String key, Object value, Duration timeout);
+
+    /**
+     * Increment value by 1
+     */
+    Long increment(String key);
+
+    /**
+     * Increment value by delta
+     */
+    Long increment(String key, long delta);
+
+    /**
+     * Decrement value by 1
+     */
+    Long decrement(String key);
+
+    /**
+     * Decrement value by delta
+     */
+    Long decrement(String key, long delta);
+
+    // ========== Hash Operations ==========
+
+    /**
+     * Set hash field
+     */
+    void hSet(String key, String field, Object value);
+
+    /**
+     * Get hash field value
+     */
+    Object hGet(String key, String field);
+
+    /**
+     * Set multiple hash fields
+     */
+    void hSetAll(String key, Map<String, Object> map);
+
+    /**
+     * Get all hash fields and values
+     */
+    Map<Object, Object> hGetAll(String key);
+
+    /**
+     * Delete hash fields
+     */
+    Long hDelete(String key, Object... fields);
+
+    /**
+     * Check if hash field exists
+     */
+    Boolean hExists(String key, String field);
+
+    /**
+     * Get values of several hash fields with one HMGET, null for each missing field
+     */
+    List<Object> hMultiGet(String key, Collection<String> fields);
+
+    /**
+     * Get all fields of several hashes in one round trip, an empty map for each missing hash
+     */
+    List<Map<Object, Object>> hGetAllMany(Collection<String> keys);
+
+    /**
+     * Replace a hash with the given fields and expiration. Readers never see a mix of old and new
+     * fields
+     */
+    void hReplace(String key, Map<String, ?> fields, Duration timeout);
+
+    /**
+     * Replace several hashes with the given fields and expiration, in one round trip
+     */
+    void hReplaceMany(Map<String, ? extends Map<String, ?>> hashes, Duration timeout);
+
+    /**
+     * Set and delete fields of a hash and reset its expiration, only when the hash exists,
+     * so a partial update never creates a hash missing the other fields. A tombstone hash is
+     * deleted instead
+     *
+     * @return true when the hash existed and was updated
+     */
+    boolean hUpdateIfExists(String key, Map<String, ?> fields, Collection<String> removed, Duration timeout);
+
+    /**
+     * Take up to a number of tokens from a token bucket of capacity tokens refilled every interval,
+     * atomically so every client draws from the same bucket
+     *
+     * @return the tokens granted, the tokens left and the milliseconds until the bucket is refilled
+     */
+    long[] takeTokens(String key, long capacity, Duration interval, long requested);
+
+    // ========== List Operations ==========
+
+    /**
+     * Push value to the left of the list
+     */
+    Long lPush(String key, Object value);
+
+    /**
+     * Push multiple values to the left of the list
+     */
+    Long lPushAll(String key, Object... values);
+
+    /**
+     * Push value to the right of the list
+     */
+    Long rPush(String key, Object value);
+
+    /**
+     * Push multiple values to the right of the list
+     */
+    Long rPushAll(String key, Object... values);
+
+    /**
+     * Pop value from the left of the list
+     */
+    Object lPop(String key);
+
+    /**
+     * Pop value from the right of the list
+     */
+    Object rPop(String key);
+
+    /**
+     * Get list range
+     */
+    List<Object> lRange(String key, long start, long end);
+
+    /**
+     * Get list size
+     */
+    Long lSize(String key);
+
+    // ========== Set Operations ==========
+
+    /**
+     * Add members to set
+     */
+    Long sAdd(String key, Object... values);
+
+    /**
+     * Get all members of set
+     */
+    Set<Object> sMembers(String key);
+
+    /**
+     * Check if member exists in set
+     */
+    Boolean sIsMember(String key, Object value);
+
+    /**
+     * Remove members from set
+     */
+    Long sRemove(String key, Object... values);
+
+    /**
+     * Get set size
+     */
+    Long sSize(String key);
+
+    // ========== Sorted Set Operations ==========
+
+    /**
+     * Add member to sorted set with score
+     */
+    Boolean zAdd(String key, Object value, double score);
+
+    /**
+     * Get range of sorted set by score
+     */
+    Set<Object> zRangeByScore(String key, double min, double max);
+
+    /**
+     * Get range of sorted set
+     */
+    Set<Object> zRange(String key, long start, long end);
+
+    /**
+     * Remove member from sorted set
+     */
+    Long zRemove(String key, Object... values);
+
+    /**
+     * Get sorted set size
+     */
+    Long zSize(String key);
+
+    // ========== Key Operations ==========
+
+    /**
+     * Delete key(s)
+     */
+    Boolean delete(String key);
+
+    /**
+     * Delete multiple keys
+     */
+    Long delete(Collection<String> keys);
+
+    /**
+     * Check if key exists
+     */
+    Boolean hasKey(String key);
+
+    /**
+     * Set expiration for key
+     */
+    Boolean expire(String key, Duration timeout);
+
+    /**
+     * Set expiration for key
+     */
+    Boolean expire(String key, long timeout, TimeUnit unit);
+
+    /**
+     * Get remaining time to live for key
+     */
+    Long getExpire(String key);
+
+    /**
+     * Get remaining time to live for key in specified time unit
+     */
+    Long getExpire(String key, TimeUnit unit);
+
+    /**
+     * Remove expiration from key
+     */
+    Boolean persist(String key);
+
+    /**
+     * Get keys matching pattern, blocking the store while it runs; prefer deletePattern for invalidation
+     */
+    Set<String> keys(String pattern);
+
+    /**
+     * Delete keys matching pattern in batches of batchSize, so other clients keep being served in
+     * between. Progress may be reported from several threads.
+     *
+     * @return the number of keys deleted
+     */
+    long deletePattern(String pattern, int batchSize, Consumer<ScanProgress> progress);
+
+    // ========== Pub/Sub Operations ==========
+
+    /**
+     * Publish message to channel
+     */
+    Long publish(String channel, String message);
+
+    /**
+     * Subscribe to channel
+     */
+    MessageListener subscribe(String channel, Consumer<String> listener);
+
+    /**
+     * Unsubscribe a listener returned by subscribe
+     */
+    void unsubscribe(MessageListener listener);
+}
@@ -1,31 +1,146 @@
 package com.restaurant.redismodule.service;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.factory.ICachingFactory;
+import com.restaurant.redismodule.model.ScanProgress;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Service class providing convenient Redis operations
  */
 @Service
-public class RedisService {
+@Conditional(RedisModeCondition.Remote.class)
+public class RedisService implements IRedisService {
+    
+    private static final String DEFAULT_NODE = "default";
+    
+    /**
+     * Partial hash update, applied only when the hash exists, see {@link #hashUpdateArgs}. A hash
+     * holding the tombstone field is a cached not-found lookup rather than a partial model, it is
+     * deleted instead of updated
+     */
+    public static final RedisScript<Long> HASH_UPDATE_SCRIPT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            if redis.call('HEXISTS', KEYS[1], ARGV[2]) == 1 then
+                redis.call('DEL', KEYS[1])
+                return 0
+            end
+            local set = tonumber(ARGV[3])
+            for i = 4, 3 + set * 2, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            for i = 4 + set * 2, #ARGV do
+                redis.call('HDEL', KEYS[1], ARGV[i])
+            end
+            if tonumber(ARGV[1]) > 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+    
+    /**
+     * Replace a hash with the field and value pairs from ARGV[2] on, expiring in ARGV[1] milliseconds,
+     * see {@link #hashReplaceArgs}. Without fields the hash is only deleted. Runs as one command, so
+     * readers see either the old hash or the new one, never a missing key or a mix of both
+     */
+    public static final RedisScript<Long> HASH_REPLACE_SCRIPT = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            if #ARGV < 3 then
+                return 0
+            end
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+    
+    /**
+     * Take up to ARGV[3] tokens from a bucket of ARGV[1] tokens refilled every ARGV[2] milliseconds.
+     * The bucket is a counter created full that expires at the end of its interval, the next take
+     * after that starts a full one. Returns the tokens granted, the tokens left and the milliseconds
+     * until the refill, at least 1: Redis keeps a key up to and including its expiry millisecond,
+     * so a bucket at its boundary is still empty for that millisecond. A bucket that lost its
+     * expiry is given a new one rather than never refilling
+     */
+    @SuppressWarnings("rawtypes")
+    public static final RedisScript<List> TAKE_TOKENS_SCRIPT = RedisScript.of("""
+            local tokens = redis.call('GET', KEYS[1])
+            if tokens then
+                tokens = tonumber(tokens)
+            else
+                tokens = tonumber(ARGV[1])
+                redis.call('SET', KEYS[1], tokens, 'PX', ARGV[2])
+            end
+            local granted = math.min(tokens, tonumber(ARGV[3]))
+            if granted > 0 then
+                redis.call('DECRBY', KEYS[1], granted)
+            end
+            local ttl = redis.call('PTTL', KEYS[1])
+            if ttl < 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                ttl = tonumber(ARGV[2])
+            end
+            return {granted, tokens - granted, math.max(ttl, 1)}
+            """, List.class);
     
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final CacheCodec cacheCodec;
     
-    public RedisService(RedisTemplate<String, Object> redisTemplate) {
+    public RedisService(RedisTemplate<String, Object> redisTemplate,
+                        RedisMessageListenerContainer listenerContainer,
+                        CacheCodec cacheCodec) {
         this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.cacheCodec = cacheCodec;
     }
 
     
     /**
      * Set a key-value pair
      */
+    @Override
     public void set(String key, Object value) {
         redisTemplate.opsForValue().set(key, value);
     }
@@ -33,6 +148,7 @@ public class RedisService {
     /**
      * Set a key-value pair with expiration
      */
+    @Override
     public void set(String key, Object value, Duration timeout) {
         redisTemplate.opsForValue().set(key, value, timeout);
     }
@@ -40,13 +156,174 @@ public class RedisService {
     /**
      * Get value by key
      */
+    @Override
     public Object get(String key) {
         return redisTemplate.opsForValue().get(key);
     }
     
+    /**
+     * Get value by key, decoded straight into the given type
+     */
+    @Override
+    public <T> T get(String key, JavaType type) {
+        byte[] raw = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(rawKey(key)));
+        return raw == null || raw.length == 0 ? null : cacheCodec.decode(raw, type);
+    }
+    
+    /**
+     * Get values of multiple keys with one MGET (one per hash slot on a cluster), null for each missing key
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object> mGet(Collection<String> keys) {
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        List<Object> values = new ArrayList<>(keys.size());
+        for (byte[] value : rawMGet(keys)) {
+            values.add(value == null || value.length == 0 ? null : valueSerializer.deserialize(value));
+        }
+        return values;
+    }
+    
+    /**
+     * Get values of multiple keys with one MGET (one per hash slot on a cluster), decoded straight into
+     * the given type, null for each missing key
+     */
+    @Override
+    public <T> List<T> mGet(Collection<String> keys, JavaType type) {
+        List<T> values = new ArrayList<>(keys.size());
+        for (byte[] value : rawMGet(keys)) {
+            values.add(value == null || value.length == 0 ? null : cacheCodec.decode(value, type));
+        }
+        return values;
+    }
+
+    /**
+     * Set multiple key-value pairs with expiration in one pipeline
+     */
+    @Override
+    public void mSetWithTtl(Map<String, ?> values, Duration timeout) {
+        pipeline(ops -> values.forEach((key, value) -> ops.opsForValue().set(key, value, timeout)));
+    }
+    
+    /**
+     * Delete multiple keys with UNLINK, one per hash slot on a cluster, in one pipeline
+     *
+     * @return the number of keys deleted
+     */
+    @Override
+    public long deleteMany(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        byte[][] rawKeys = rawKeys(keys);
+        Long deleted = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            if (!(connection instanceof RedisClusterConnection)) {
+                return connection.keyCommands().unlink(rawKeys);
+            }
+            long count = 0;
+            for (Object slotCount : pipelinePerSlot(connection, rawKeys, connection.keyCommands()::unlink).results()) {
+                count += slotCount instanceof Long value ? value : 0;
+            }
+            return count;
+        });
+        return deleted == null ? 0 : deleted;
+    }
+    
+    /**
+     * Set expiration for multiple keys in one pipeline
+     *
+     * @return the number of keys whose expiration was set
+     */
+    @Override
+    public long expireMany(Collection<String> keys, Duration timeout) {
+        long updated = 0;
+        for (Object result : redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] rawKey : rawKeys(keys)) {
+                connection.keyCommands().pExpire(rawKey, timeout.toMillis());
+            }
+            return null;
+        })) {
+            updated += Boolean.TRUE.equals(result) ? 1 : 0;
+        }
+        return updated;
+    }
+    
+    /**
+     * Run commands in one pipeline, one network flush instead of a round-trip per command;
+     * a cluster connection routes every command to the node owning its key
+     *
+     * @return the results of the commands, in command order
+     */
+    public List<Object> pipeline(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+    
+    private List<byte[]> rawMGet(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        byte[][] rawKeys = rawKeys(keys);
+        List<byte[]> raw = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> {
+            if (!(connection instanceof RedisClusterConnection)) {
+                return connection.stringCommands().mGet(rawKeys);
+            }
+            // Put the per slot MGET replies back in key order
+            SlotPipeline pipeline = pipelinePerSlot(connection, rawKeys, connection.stringCommands()::mGet);
+            byte[][] values = new byte[rawKeys.length][];
+            for (int group = 0; group < pipeline.slots().size(); group++) {
+                List<?> slotValues = (List<?>) pipeline.results().get(group);
+                List<Integer> indexes = pipeline.slots().get(group);
+                for (int i = 0; i < indexes.size() && i < slotValues.size(); i++) {
+                    values[indexes.get(i)] = (byte[]) slotValues.get(i);
+                }
+            }
+            return Arrays.asList(values);
+        });
+        List<byte[]> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            values.add(raw == null || i >= raw.size() ? null : raw.get(i));
+        }
+        return values;
+    }
+    
+    /**
+     * Run a multi-key command once per hash slot, all in one pipeline, so no command crosses slots
+     */
+    private static SlotPipeline pipelinePerSlot(RedisConnection connection, byte[][] rawKeys,
+                                                Consumer<byte[][]> command) {
+        Map<Integer, List<Integer>> bySlot = new LinkedHashMap<>();
+        for (int i = 0; i < rawKeys.length; i++) {
+            bySlot.computeIfAbsent(ClusterSlotHashUtil.calculateSlot(rawKeys[i]), slot -> new ArrayList<>()).add(i);
+        }
+        List<List<Integer>> slots = new ArrayList<>(bySlot.values());
+        connection.openPipeline();
+        try {
+            for (List<Integer> indexes : slots) {
+                command.accept(indexes.stream().map(i -> rawKeys[i]).toArray(byte[][]::new));
+            }
+        } catch (RuntimeException e) {
+            connection.closePipeline();
+            throw e;
+        }
+        // Closing flushes the pipeline, results are in slot group order
+        return new SlotPipeline(slots, connection.closePipeline());
+    }
+    
+    private record SlotPipeline(List<List<Integer>> slots, List<Object> results) {
+    }
+
     /**
      * Set value if key doesn't exist
      */
+    @Override
     public Boolean setIfAbsent(String key, Object value) {
         return redisTemplate.opsForValue().setIfAbsent(key, value);
     }
@@ -54,6 +331,7 @@ public class RedisService {
     /**
      * Set value if key doesn't exist with expiration
      */
+    @Override
     public Boolean setIfAbsent(String key, Object value, Duration timeout) {
         return redisTemplate.opsForValue().setIfAbsent(key, value, timeout);
     }
@@ -61,6 +339,7 @@ public class RedisService {
     /**
      * Increment value by 1
      */
+    @Override
     public Long increment(String key) {
         return redisTemplate.opsForValue().increment(key);
     }
@@ -68,6 +347,7 @@ public class RedisService {
     /**
      * Increment value by delta
      */
+    @Override
     public Long increment(String key, long delta) {
         return redisTemplate.opsForValue().increment(key, delta);
     }
@@ -75,6 +355,7 @@ public class RedisService {
     /**
      * Decrement value by 1
      */
+    @Override
     public Long decrement(String key) {
         return redisTemplate.opsForValue().decrement(key);
     }
@@ -82,6 +363,7 @@ public class RedisService {
     /**
      * Decrement value by delta
      */
+    @Override
     public Long decrement(String key, long delta) {
         return redisTemplate.opsForValue().decrement(key, delta);
     }
@@ -91,6 +373,7 @@ public class RedisService {
     /**
      * Set hash field
      */
+    @Override
     public void hSet(String key, String field, Object value) {
         redisTemplate.opsForHash().put(key, field, value);
     }
@@ -98,6 +381,7 @@ public class RedisService {
     /**
      * Get hash field value
      */
+    @Override
     public Object hGet(String key, String field) {
         return redisTemplate.opsForHash().get(key, field);
     }
@@ -105,6 +389,7 @@ public class RedisService {
     /**
      * Set multiple hash fields
      */
+    @Override
     public void hSetAll(String key, Map<String, Object> map) {
         redisTemplate.opsForHash().putAll(key, map);
     }
@@ -112,6 +397,7 @@ public class RedisService {
     /**
      * Get all hash fields and values
      */
+    @Override
     public Map<Object, Object> hGetAll(String key) {
         return redisTemplate.opsForHash().entries(key);
     }
@@ -119,6 +405,7 @@ public class RedisService {
     /**
      * Delete hash fields
      */
+    @Override
     public Long hDelete(String key, Object... fields) {
         return redisTemplate.opsForHash().delete(key, fields);
     }
@@ -126,15 +413,157 @@ public class RedisService {
     /**
      * Check if hash field exists
      */
+    @Override
     public Boolean hExists(String key, String field) {
         return redisTemplate.opsForHash().hasKey(key, field);
     }
     
+    /**
+     * Get values of several hash fields with one HMGET, null for each missing field
+     */
+    @Override
+    public List<Object> hMultiGet(String key, Collection<String> fields) {
+        return redisTemplate.<String, Object>opsForHash().multiGet(key, fields);
+    }
+    
+    /**
+     * Get all fields of several hashes in one pipeline, an empty map for each missing hash
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Map<Object, Object>> hGetAllMany(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<Map<Object, Object>> hashes = new ArrayList<>(keys.size());
+        for (Object hash : pipeline(ops -> keys.forEach(key -> ops.opsForHash().entries(key)))) {
+            hashes.add(hash instanceof Map<?, ?> entries ? (Map<Object, Object>) entries : Map.of());
+        }
+        return hashes;
+    }
+    
+    /**
+     * Replace a hash with the given fields and expiration, atomically with {@link #HASH_REPLACE_SCRIPT}.
+     * Readers never see a mix of old and new fields
+     */
+    @Override
+    public void hReplace(String key, Map<String, ?> fields, Duration timeout) {
+        redisTemplate.execute(HASH_REPLACE_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(key), hashReplaceArgs(encode(fields), timeout).toArray());
+    }
+    
+    /**
+     * Replace several hashes with the given fields and expiration, one {@link #HASH_REPLACE_SCRIPT}
+     * per hash sent in one pipeline. EVAL rather than EVALSHA, a pipeline cannot fall back on a
+     * NOSCRIPT reply
+     */
+    @Override
+    public void hReplaceMany(Map<String, ? extends Map<String, ?>> hashes, Duration timeout) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        if (hashes.size() == 1) {
+            hashes.forEach((key, fields) -> hReplace(key, fields, timeout));
+            return;
+        }
+        byte[] script = HASH_REPLACE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            hashes.forEach((key, fields) -> {
+                List<byte[]> args = hashReplaceArgs(encode(fields), timeout);
+                byte[][] keyAndArgs = new byte[args.size() + 1][];
+                keyAndArgs[0] = rawKey(key);
+                for (int i = 0; i < args.size(); i++) {
+                    keyAndArgs[i + 1] = args.get(i);
+                }
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1, keyAndArgs);
+            });
+            return null;
+        });
+    }
+    
+    /**
+     * Arguments of {@link #HASH_REPLACE_SCRIPT}: the ttl, then the fields and encoded values to set
+     */
+    public static List<byte[]> hashReplaceArgs(Map<String, byte[]> fields, Duration timeout) {
+        List<byte[]> args = new ArrayList<>(1 + fields.size() * 2);
+        args.add(ascii(timeout.toMillis()));
+        fields.forEach((field, value) -> {
+            args.add(field.getBytes(StandardCharsets.UTF_8));
+            args.add(value);
+        });
+        return args;
+    }
+    
+    private Map<String, byte[]> encode(Map<String, ?> fields) {
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        fields.forEach((field, value) -> encoded.put(field, cacheCodec.encode(value)));
+        return encoded;
+    }
+    
+    /**
+     * Set and delete fields of a hash and reset its expiration, only when the hash exists,
+     * so a partial update never creates a hash missing the other fields. A tombstone hash is
+     * deleted instead
+     *
+     * @return true when the hash existed and was updated
+     */
+    @Override
+    public boolean hUpdateIfExists(String key, Map<String, ?> fields, Collection<String> removed, Duration timeout) {
+        Long updated = redisTemplate.execute(HASH_UPDATE_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(key), hashUpdateArgs(encode(fields), removed, timeout).toArray());
+        return updated != null && updated == 1;
+    }
+    
+    /**
+     * Arguments of {@link #HASH_UPDATE_SCRIPT}: the ttl, the tombstone field, the number of fields
+     * set, the fields and encoded values to set, then the fields to delete
+     */
+    public static List<byte[]> hashUpdateArgs(Map<String, byte[]> fields, Collection<String> removed, Duration timeout) {
+        List<byte[]> args = new ArrayList<>(3 + fields.size() * 2 + removed.size());
+        args.add(ascii(timeout.toMillis()));
+        args.add(ICachingFactory.TOMBSTONE.getBytes(StandardCharsets.UTF_8));
+        args.add(ascii(fields.size()));
+        fields.forEach((field, value) -> {
+            args.add(field.getBytes(StandardCharsets.UTF_8));
+            args.add(value);
+        });
+        for (String field : removed) {
+            args.add(field.getBytes(StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+    
+    /**
+     * Take up to a number of tokens from a shared token bucket, atomically on the Redis server so
+     * every instance draws from the same bucket, see {@link #TAKE_TOKENS_SCRIPT}
+     *
+     * @return the tokens granted, the tokens left and the milliseconds until the bucket is refilled
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public long[] takeTokens(String key, long capacity, Duration interval, long requested) {
+        // Integer replies come back as Long, the result serializer only applies to bulk strings
+        List<?> result = redisTemplate.execute(TAKE_TOKENS_SCRIPT, RedisSerializer.string(), (RedisSerializer) RedisSerializer.string(),
+                List.of(key), Long.toString(capacity), Long.toString(interval.toMillis()), Long.toString(requested));
+        if (result == null || result.size() < 3) {
+            throw new IllegalStateException("Unexpected token bucket reply for key: " + key);
+        }
+        return new long[]{((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue(),
+                ((Number) result.get(2)).longValue()};
+    }
+    
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+    
     // ========== List Operations ==========
     
     /**
      * Push value to the left of the list
      */
+    @Override
     public Long lPush(String key, Object value) {
         return redisTemplate.opsForList().leftPush(key, value);
     }
@@ -142,6 +571,7 @@ public class RedisService {
     /**
      * Push multiple values to the left of the list
      */
+    @Override
     public Long lPushAll(String key, Object... values) {
         return redisTemplate.opsForList().leftPushAll(key, values);
     }
@@ -149,6 +579,7 @@ public class RedisService {
     /**
      * Push value to the right of the list
      */
+    @Override
     public Long rPush(String key, Object value) {
         return redisTemplate.opsForList().rightPush(key, value);
     }
@@ -156,6 +587,7 @@ public class RedisService {
     /**
      * Push multiple values to the right of the list
      */
+    @Override
     public Long rPushAll(String key, Object... values) {
         return redisTemplate.opsForList().rightPushAll(key, values);
     }
@@ -163,6 +595,7 @@ public class RedisService {
     /**
      * Pop value from the left of the list
      */
+    @Override
     public Object lPop(String key) {
         return redisTemplate.opsForList().leftPop(key);
     }
@@ -170,6 +603,7 @@ public class RedisService {
     /**
      * Pop value from the right of the list
      */
+    @Override
     public Object rPop(String key) {
         return redisTemplate.opsForList().rightPop(key);
     }
@@ -177,6 +611,7 @@ public class RedisService {
     /**
      * Get list range
      */
+    @Override
     public List<Object> lRange(String key, long start, long end) {
         return redisTemplate.opsForList().range(key, start, end);
     }
@@ -184,6 +619,7 @@ public class RedisService {
     /**
      * Get list size
      */
+    @Override
     public Long lSize(String key) {
         return redisTemplate.opsForList().size(key);
     }
@@ -193,6 +629,7 @@ public class RedisService {
     /**
      * Add members to set
      */
+    @Override
     public Long sAdd(String key, Object... values) {
         return redisTemplate.opsForSet().add(key, values);
     }
@@ -200,6 +637,7 @@ public class RedisService {
     /**
      * Get all members of set
      */
+    @Override
     public Set<Object> sMembers(String key) {
         return redisTemplate.opsForSet().members(key);
     }
@@ -207,6 +645,7 @@ public class RedisService {
     /**
      * Check if member exists in set
      */
+    @Override
     public Boolean sIsMember(String key, Object value) {
         return redisTemplate.opsForSet().isMember(key, value);
     }
@@ -214,6 +653,7 @@ public class RedisService {
     /**
      * Remove members from set
      */
+    @Override
     public Long sRemove(String key, Object... values) {
         return redisTemplate.opsForSet().remove(key, values);
     }
@@ -221,6 +661,7 @@ public class RedisService {
     /**
      * Get set size
      */
+    @Override
     public Long sSize(String key) {
         return redisTemplate.opsForSet().size(key);
     }
@@ -230,6 +671,7 @@ public class RedisService {
     /**
      * Add member to sorted set with score
      */
+    @Override
     public Boolean zAdd(String key, Object value, double score) {
         return redisTemplate.opsForZSet().add(key, value, score);
     }
@@ -237,6 +679,7 @@ public class RedisService {
     /**
      * Get range of sorted set by score
      */
+    @Override
     public Set<Object> zRangeByScore(String key, double min, double max) {
         return redisTemplate.opsForZSet().rangeByScore(key, min, max);
     }
@@ -244,6 +687,7 @@ public class RedisService {
     /**
      * Get range of sorted set
      */
+    @Override
     public Set<Object> zRange(String key, long start, long end) {
         return redisTemplate.opsForZSet().range(key, start, end);
     }
@@ -251,6 +695,7 @@ public class RedisService {
     /**
      * Remove member from sorted set
      */
+    @Override
     public Long zRemove(String key, Object... values) {
         return redisTemplate.opsForZSet().remove(key, values);
     }
@@ -258,6 +703,7 @@ public class RedisService {
     /**
      * Get sorted set size
      */
+    @Override
     public Long zSize(String key) {
         return redisTemplate.opsForZSet().size(key);
     }
@@ -267,6 +713,7 @@ public class RedisService {
     /**
      * Delete key(s)
      */
+    @Override
     public Boolean delete(String key) {
         return redisTemplate.delete(key);
     }
@@ -274,6 +721,7 @@ public class RedisService {
     /**
      * Delete multiple keys
      */
+    @Override
     public Long delete(Collection<String> keys) {
         return redisTemplate.delete(keys);
     }
@@ -281,6 +729,7 @@ public class RedisService {
     /**
      * Check if key exists
      */
+    @Override
     public Boolean hasKey(String key) {
         return redisTemplate.hasKey(key);
     }
@@ -288,6 +737,7 @@ public class RedisService {
     /**
      * Set expiration for key
      */
+    @Override
     public Boolean expire(String key, Duration timeout) {
         return redisTemplate.expire(key, timeout);
     }
@@ -295,6 +745,7 @@ public class RedisService {
     /**
      * Set expiration for key
      */
+    @Override
     public Boolean expire(String key, long timeout, TimeUnit unit) {
         return redisTemplate.expire(key, timeout, unit);
     }
@@ -302,6 +753,7 @@ public class RedisService {
     /**
      * Get remaining time to live for key
      */
+    @Override
     public Long getExpire(String key) {
         return redisTemplate.getExpire(key);
     }
@@ -309,6 +761,7 @@ public class RedisService {
     /**
      * Get remaining time to live for key in specified time unit
      */
+    @Override
     public Long getExpire(String key, TimeUnit unit) {
         return redisTemplate.getExpire(key, unit);
     }
@@ -316,15 +769,143 @@ public class RedisService {
     /**
      * Remove expiration from key
      */
+    @Override
     public Boolean persist(String key) {
         return redisTemplate.persist(key);
     }
     
     /**
-     * Get keys matching pattern
+     * Get keys matching pattern, with a blocking KEYS on a single node; prefer deletePattern for invalidation
      */
+    @Override
     public Set<String> keys(String pattern) {
         return redisTemplate.keys(pattern);
     }
+    
+    /**
+     * Delete keys matching pattern with SCAN and batched UNLINK, so Redis keeps serving other clients
+     * in between. In a cluster every master is scanned in parallel and progress is reported from
+     * several threads.
+     *
+     * @return the number of keys deleted
+     */
+    @Override
+    public long deletePattern(String pattern, int batchSize, Consumer<ScanProgress> progress) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        List<RedisClusterNode> masters = redisTemplate.execute((RedisCallback<List<RedisClusterNode>>) connection ->
+                connection instanceof RedisClusterConnection cluster ? masters(cluster) : null);
+        if (masters == null) {
+            return redisTemplate.execute((RedisCallback<Long>) connection -> unlinkScanned(
+                    connection, connection.keyCommands().scan(options), DEFAULT_NODE, batchSize, progress));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> nodes = masters.stream()
+                    .map(node -> executor.submit(() -> redisTemplate.execute((RedisCallback<Long>) connection ->
+                            unlinkScanned(connection, ((RedisClusterConnection) connection).scan(node, options),
+                                    node.asString(), batchSize, progress))))
+                    .toList();
+            long deleted = 0;
+            for (Future<Long> node : nodes) {
+                deleted += await(node);
+            }
+            return deleted;
+        }
+    }
+    
+    private static List<RedisClusterNode> masters(RedisClusterConnection cluster) {
+        List<RedisClusterNode> masters = new ArrayList<>();
+        for (RedisClusterNode node : cluster.clusterGetNodes()) {
+            if (node.isMaster()) {
+                masters.add(node);
+            }
+        }
+        return masters;
+    }
+    
+    private static long unlinkScanned(RedisConnection connection, Cursor<byte[]> cursor, String node,
+                                      int batchSize, Consumer<ScanProgress> progress) {
+        long scanned = 0;
+        long deleted = 0;
+        List<byte[]> batch = new ArrayList<>(batchSize);
+        try (cursor) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                scanned++;
+                if (batch.size() >= batchSize) {
+                    deleted += unlink(connection, batch);
+                    batch.clear();
+                    progress.accept(new ScanProgress(node, scanned, deleted, false));
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += unlink(connection, batch);
+        }
+        progress.accept(new ScanProgress(node, scanned, deleted, true));
+        return deleted;
+    }
+    
+    private static long unlink(RedisConnection connection, List<byte[]> keys) {
+        // Lettuce splits a cross-slot UNLINK by slot on a cluster connection
+        Long unlinked = connection.keyCommands().unlink(keys.toArray(byte[][]::new));
+        return unlinked == null ? 0 : unlinked;
+    }
+    
+    private static long await(Future<Long> future) {
+        try {
+            Long value = future.get();
+            return value == null ? 0 : value;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RedisSystemException("Pattern deletion failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RedisSystemException("Pattern deletion interrupted", e);
+        }
+    }
+    
+    // ========== Pub/Sub Operations ==========
+    
+    /**
+     * Publish message to channel
+     */
+    @Override
+    public Long publish(String channel, String message) {
+        return redisTemplate.convertAndSend(channel, message);
+    }
+    
+    /**
+     * Subscribe to channel, messages are delivered on the listener container threads
+     */
+    @Override
+    public MessageListener subscribe(String channel, Consumer<String> listener) {
+        MessageListener messageListener = (Message message, byte[] pattern) -> {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (body != null) {
+                listener.accept(body.toString());
+            }
+        };
+        listenerContainer.addMessageListener(messageListener, new ChannelTopic(channel));
+        return messageListener;
+    }
+    
+    /**
+     * Unsubscribe a listener returned by subscribe
+     */
+    @Override
+    public void unsubscribe(MessageListener listener) {
+        listenerContainer.removeMessageListener(listener);
+    }
+    
+    private byte[][] rawKeys(Collection<String> keys) {
+        return keys.stream().map(this::rawKey).toArray(byte[][]::new);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(String key) {
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        return keySerializer == null ? key.getBytes(StandardCharsets.UTF_8) : keySerializer.serialize(key);
+    }
 }
-
@@ -0,0 +1,199 @@
+package com.restaurant.redismodule.service.impl;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.config.RedisProperties;
+import com.restaurant.redismodule.service.IAsyncCacheService;
+import com.restaurant.redismodule.service.RedisService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
+import com.restaurant.redismodule.support.RedisNearCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.restaurant.utils.MapperUtil.log;
+
+@Service
+@Conditional(RedisModeCondition.Remote.class)
+public class AsyncCacheService implements IAsyncCacheService {
+
+    /**
+     * Metric name of the counter of commands dropped because too many were in flight.
+     */
+    public static final String METRIC_DROPPED = "redis.async.dropped";
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final CacheCodec cacheCodec;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisNearCache nearCache;
+    private final Semaphore inFlight;
+    private final LongAdder dropped = new LongAdder();
+
+    public AsyncCacheService(@Qualifier("cacheReactiveRedisTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate,
+                             CacheCodec cacheCodec,
+                             RedisCircuitBreaker circuitBreaker,
+                             RedisProperties redisProperties,
+                             RedisNearCache nearCache) {
+        this.redisTemplate = redisTemplate;
+        this.cacheCodec = cacheCodec;
+        this.circuitBreaker = circuitBreaker;
+        this.nearCache = nearCache;
+        this.inFlight = new Semaphore(redisProperties.getAsyncMaxInFlight());
+        FunctionCounter.builder(METRIC_DROPPED, dropped, LongAdder::sum)
+                .description("Async cache commands dropped because too many were in flight")
+                .register(Metrics.globalRegistry);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getCacheAsync(String key, JavaType type) {
+        return submit("get", key, () -> redisTemplate.opsForValue().get(key)
+                .mapNotNull(bytes -> bytes.length == 0 ? null : cacheCodec.<T>decode(bytes, type)), null);
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> multiGetAsync(List<String> keys, JavaType type) {
+        List<T> misses = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(misses);
+        }
+        return submit("mget", keys.size() + " keys", () -> redisTemplate.opsForValue().multiGet(keys)
+                .map(values -> {
+                    List<T> result = new ArrayList<>(keys.size());
+                    for (byte[] bytes : values) {
+                        result.add(bytes == null || bytes.length == 0 ? null : cacheCodec.decode(bytes, type));
+                    }
+                    return result;
+                }), misses);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAsync(String key, Object value, Duration ttl) {
+        nearCache.invalidate(key);
+        return submit("set", key, () -> redisTemplate.opsForValue().set(key, cacheCodec.encode(value), ttl), false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> multiSetAsync(Map<String, ?> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        values.keySet().forEach(nearCache::invalidate);
+        return submit("set", values.size() + " keys", () -> Flux.fromIterable(values.entrySet())
+                .flatMap(entry -> redisTemplate.opsForValue()
+                        .set(entry.getKey(), cacheCodec.encode(entry.getValue()), ttl))
+                .all(Boolean::booleanValue), false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setHashAsync(String key, Map<String, ?> fields, Duration ttl) {
+        return multiSetHashAsync(Map.of(key, fields), ttl);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> multiSetHashAsync(Map<String, ? extends Map<String, ?>> hashes, Duration ttl) {
+        if (hashes.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        hashes.keySet().forEach(nearCache::invalidate);
+        // Each hash is replaced by one script, readers never see it deleted but not yet refilled
+        return submit("hset", hashes.size() + " keys", () -> Flux.fromIterable(hashes.entrySet())
+                .flatMap(entry -> redisTemplate.execute(RedisService.HASH_REPLACE_SCRIPT, List.of(entry.getKey()),
+                        RedisService.hashReplaceArgs(encode(entry.getValue()), ttl)))
+                .then().thenReturn(true), false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateHashAsync(String key, Map<String, ?> fields, Collection<String> removed,
+                                                      Duration ttl) {
+        nearCache.invalidate(key);
+        List<byte[]> args = RedisService.hashUpdateArgs(encode(fields), removed, ttl);
+        return submit("hupdate", key, () -> redisTemplate.execute(RedisService.HASH_UPDATE_SCRIPT, List.of(key), args)
+                .next()
+                .map(updated -> updated == 1), null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(String key) {
+        nearCache.invalidate(key);
+        return submit("delete", key, () -> redisTemplate.delete(key).thenReturn(true), false);
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementAsync(String key) {
+        nearCache.invalidate(key);
+        return submit("increment", key, () -> redisTemplate.opsForValue().increment(key), null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> publishAsync(String channel, String message) {
+        // Encoded like synchronous publishes, subscribers decode with the same codec
+        return submit("publish", channel,
+                () -> redisTemplate.convertAndSend(channel, cacheCodec.encode(message)).thenReturn(true), false);
+    }
+
+    private Map<String, byte[]> encode(Map<String, ?> fields) {
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        fields.forEach((field, value) -> encoded.put(field, cacheCodec.encode(value)));
+        return encoded;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Send a command unless too many are in flight or the circuit is open, in which case
+     * the future completes with the fallback right away, as it does when the command fails.
+     */
+    private <T> CompletableFuture<T> submit(String operation, Object target, Supplier<Mono<T>> command, T fallback) {
+        if (!inFlight.tryAcquire()) {
+            dropped.increment();
+            log.debug("Dropped async cache {} {}, too many in flight", operation, target);
+            return CompletableFuture.completedFuture(fallback);
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            inFlight.release();
+            log.debug("Skipped async cache {} {} (circuit open)", operation, target);
+            return CompletableFuture.completedFuture(fallback);
+        }
+        Mono<T> mono;
+        try {
+            mono = command.get();
+        } catch (Exception e) {
+            inFlight.release();
+            circuitBreaker.onFailure(e);
+            log.error("Error in async cache {} {}", operation, target, e);
+            return CompletableFuture.completedFuture(fallback);
+        }
+        return mono.toFuture().handle((value, error) -> {
+            inFlight.release();
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                return value == null ? fallback : value;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            circuitBreaker.onFailure(cause instanceof Exception exception ? exception : new IllegalStateException(cause));
+            log.error("Error in async cache {} {}", operation, target, cause);
+            return fallback;
+        });
+    }
+}
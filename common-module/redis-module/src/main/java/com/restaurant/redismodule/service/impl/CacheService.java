@@ -1,59 +1,118 @@
 package com.restaurant.redismodule.service.impl;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.restaurant.redismodule.config.RedisProperties;
 import com.restaurant.redismodule.exception.CacheException;
+import com.restaurant.redismodule.model.ScanProgress;
+import com.restaurant.redismodule.service.IAsyncCacheService;
 import com.restaurant.redismodule.service.ICacheService;
-import com.restaurant.redismodule.service.RedisService;
-import com.restaurant.utils.MapperUtil;
+import com.restaurant.redismodule.service.IRedisService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
+import com.restaurant.redismodule.support.RedisNearCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static com.restaurant.utils.MapperUtil.log;
 
 @Service
 public class CacheService implements ICacheService {
 
-    private final RedisService redisService;
+    private final IRedisService redisService;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final IAsyncCacheService asyncCacheService;
+    private final RedisProperties redisProperties;
+    private final RedisNearCache nearCache;
     private static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+    static final String CIRCUIT_OPEN = "CIRCUIT_OPEN";
 
     @Autowired
-    public CacheService(RedisService redisService) {
+    public CacheService(IRedisService redisService, RedisCircuitBreaker circuitBreaker,
+                        IAsyncCacheService asyncCacheService, RedisProperties redisProperties,
+                        RedisNearCache nearCache) {
         this.redisService = redisService;
+        this.circuitBreaker = circuitBreaker;
+        this.asyncCacheService = asyncCacheService;
+        this.redisProperties = redisProperties;
+        this.nearCache = nearCache;
     }
 
     @Override
-    public Object getCache(String key, Class type) throws CacheException {
+    public <T> T getCache(String key, Class<T> type) throws CacheException {
+        return getCache(key, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    @Override
+    public <T> T getCache(String key, JavaType type) throws CacheException {
         try {
-            Object cachedValue = redisService.get(key);
-            if (cachedValue == null) {
-                return null;
-            }
-            return MapperUtil.convertValue(cachedValue, type);
+            return call(() -> read(key, type));
+        } catch (CacheException e) {
+            throw e;
         } catch (Exception e) {
             throw new CacheException(e.getMessage(), e.getMessage());
         }
     }
 
     @Override
-    public List getList(String key, Class type) {
+    public <T> List<T> getList(String key, Class<T> type) {
+        try {
+            List<T> cached = call(() -> read(
+                    key, TypeFactory.defaultInstance().constructCollectionType(List.class, type)));
+            return cached == null ? Collections.emptyList() : cached;
+        } catch (Exception e) {
+            logFailure(e, "Error getting cache list for key: {}", key);
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public <T> List<T> multiGet(List<String> keys, Class<T> type) {
+        return multiGet(keys, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    @Override
+    public <T> List<T> multiGet(List<String> keys, JavaType type) {
+        List<T> result = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (keys.isEmpty()) {
+            return result;
+        }
         try {
-            Object cached = redisService.get(key);
-            if (cached == null) {
-                return Collections.emptyList();
+            List<T> cached = call(() -> redisService.<T>mGet(keys, type));
+            for (int i = 0; i < cached.size(); i++) {
+                result.set(i, cached.get(i));
             }
+        } catch (Exception e) {
+            logFailure(e, "Error getting cache for {} keys", keys.size());
+        }
+        return result;
+    }
 
-            return MapperUtil.convertValue(
-                    cached,
-                    MapperUtil.getTypeFactoryToConvertList(type)
-            );
+    @Override
+    public void multiSet(Map<String, ?> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return;
+        }
+        values.keySet().forEach(nearCache::invalidate);
+        try {
+            call(() -> {
+                redisService.mSetWithTtl(values, ttl);
+                return null;
+            });
+            log.debug("Cached {} values with TTL: {}", values.size(), ttl);
         } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            return Collections.emptyList();
+            logFailure(e, "Error setting cache for {} keys", values.size());
         }
     }
 
@@ -64,58 +123,228 @@ public class CacheService implements ICacheService {
 
     @Override
     public void set(String key, Object value, Duration ttl) {
+        nearCache.invalidate(key);
         try {
-           redisService.set(key, value, ttl);
+            call(() -> {
+                redisService.set(key, value, ttl);
+                return null;
+            });
             log.debug("Cached value for key: {} with TTL: {}", key, ttl);
         } catch (Exception e) {
-            log.error("Error setting cache for key: {}", key, e);
+            logFailure(e, "Error setting cache for key: {}", key);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getHash(String key) throws CacheException {
+        try {
+            return call(() -> fields(redisService.hGetAll(key)));
+        } catch (CacheException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CacheException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> multiGetHash(List<String> keys) {
+        List<Map<String, Object>> result = new ArrayList<>(Collections.nCopies(keys.size(), Map.of()));
+        if (keys.isEmpty()) {
+            return result;
+        }
+        try {
+            List<Map<Object, Object>> hashes = call(() -> redisService.hGetAllMany(keys));
+            for (int i = 0; i < hashes.size() && i < keys.size(); i++) {
+                result.set(i, fields(hashes.get(i)));
+            }
+        } catch (Exception e) {
+            logFailure(e, "Error getting cache hashes for {} keys", keys.size());
+        }
+        return result;
+    }
+
+    @Override
+    public List<Object> getHashFields(String key, List<String> fields) {
+        try {
+            List<Object> values = call(() -> redisService.hMultiGet(key, fields));
+            if (values != null && values.size() == fields.size()) {
+                return values;
+            }
+        } catch (Exception e) {
+            logFailure(e, "Error getting cache hash fields for key: {}", key);
+        }
+        return new ArrayList<>(Collections.nCopies(fields.size(), null));
+    }
+
+    @Override
+    public void setHash(String key, Map<String, ?> fields, Duration ttl) {
+        multiSetHash(Map.of(key, fields), ttl);
+    }
+
+    @Override
+    public void multiSetHash(Map<String, ? extends Map<String, ?>> hashes, Duration ttl) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        hashes.keySet().forEach(nearCache::invalidate);
+        try {
+            call(() -> {
+                redisService.hReplaceMany(hashes, ttl);
+                return null;
+            });
+            log.debug("Cached {} hashes with TTL: {}", hashes.size(), ttl);
+        } catch (Exception e) {
+            logFailure(e, "Error setting cache hashes for {} keys", hashes.size());
+        }
+    }
+
+    @Override
+    public Boolean updateHash(String key, Map<String, ?> fields, Collection<String> removed, Duration ttl) {
+        nearCache.invalidate(key);
+        try {
+            return call(() -> redisService.hUpdateIfExists(key, fields, removed, ttl));
+        } catch (Exception e) {
+            logFailure(e, "Error updating cache hash for key: {}", key);
+            return null;
         }
     }
 
     @Override
     public void delete(String key) {
+        nearCache.invalidate(key);
         try {
-           redisService.delete(key);
+            call(() -> redisService.delete(key));
             log.debug("Deleted cache for key: {}", key);
         } catch (Exception e) {
-            log.error("Error deleting cache for key: {}", key, e);
+            logFailure(e, "Error deleting cache for key: {}", key);
         }
     }
 
     @Override
     public void deletePattern(String pattern) {
+        nearCache.invalidateAll();
         try {
-            Set<String> keys = redisService.keys(pattern);
-            if (!keys.isEmpty()) {
-                redisService.delete(keys);
-                log.debug("Deleted {} keys matching pattern: {}", keys.size(), pattern);
-            }
+            long deleted = call(() -> redisService.deletePattern(
+                    pattern, redisProperties.getScanBatchSize(), progress -> logProgress(pattern, progress)));
+            log.debug("Deleted {} keys matching pattern: {}", deleted, pattern);
+        } catch (Exception e) {
+            logFailure(e, "Error deleting cache pattern: {}", pattern);
+        }
+    }
+
+    @Override
+    public Long increment(String key) {
+        nearCache.invalidate(key);
+        try {
+            return call(() -> redisService.increment(key));
         } catch (Exception e) {
-            log.error("Error deleting cache pattern: {}", pattern, e);
+            logFailure(e, "Error incrementing key: {}", key);
+            return null;
         }
     }
 
     @Override
     public boolean exists(String key) {
         try {
-            return redisService.hasKey(key);
+            return Boolean.TRUE.equals(call(() -> redisService.hasKey(key)));
         } catch (Exception e) {
-            log.error("Error checking cache existence for key: {}", key, e);
+            logFailure(e, "Error checking cache existence for key: {}", key);
             return false;
         }
     }
 
     @Override
     public void clearAll() {
+        nearCache.invalidateAll();
         try {
-            Set<String> keys = redisService.keys("*");
-            if (!keys.isEmpty()) {
-                redisService.delete(keys);
-                log.info("Cleared all cache, {} keys deleted", keys.size());
-            }
+            long deleted = call(() -> redisService.deletePattern(
+                    "*", redisProperties.getScanBatchSize(), progress -> logProgress("*", progress)));
+            log.info("Cleared all cache, {} keys deleted", deleted);
         } catch (Exception e) {
-            log.error("Error clearing all cache", e);
+            logFailure(e, "Error clearing all cache");
         }
     }
+
+    @Override
+    public void publish(String channel, String message) {
+        try {
+            call(() -> redisService.publish(channel, message));
+        } catch (Exception e) {
+            logFailure(e, "Error publishing to channel: {}", channel);
+        }
     }
 
+    @Override
+    public void subscribe(String channel, Consumer<String> listener) {
+        try {
+            redisService.subscribe(channel, listener);
+            log.info("Subscribed to channel: {}", channel);
+        } catch (Exception e) {
+            log.error("Error subscribing to channel: {}", channel, e);
+        }
+    }
+
+    @Override
+    public IAsyncCacheService async() {
+        return asyncCacheService;
+    }
+
+    /**
+     * Hash entries keyed by field name.
+     */
+    private static Map<String, Object> fields(Map<Object, Object> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        hash.forEach((field, value) -> fields.put(String.valueOf(field), value));
+        return fields;
+    }
+
+    /**
+     * Read a key from the near cache when it covers the key, else from Redis.
+     */
+    private <T> T read(String key, JavaType type) {
+        return nearCache.covers(key) ? nearCache.get(key, type) : redisService.get(key, type);
+    }
+
+    /**
+     * Run a Redis command through the circuit breaker, failing fast while the circuit is open.
+     */
+    private <T> T call(Callable<T> command) throws Exception {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new CacheException(CIRCUIT_OPEN, "Redis circuit is open");
+        }
+        try {
+            T result = command.call();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (Exception e) {
+            circuitBreaker.onFailure(e);
+            throw e;
+        }
+    }
+
+    private static void logProgress(String pattern, ScanProgress progress) {
+        if (progress.isFinished()) {
+            log.info("Deleted {} of {} keys matching pattern: {} on node: {}",
+                    progress.getDeleted(), progress.getScanned(), pattern, progress.getNode());
+        } else {
+            log.debug("Deleting keys matching pattern: {} on node: {}, {} deleted so far",
+                    pattern, progress.getNode(), progress.getDeleted());
+        }
+    }
+
+    /**
+     * Log a failed call, quietly when it was skipped by the open circuit.
+     */
+    static void logFailure(Throwable e, String message, Object... args) {
+        if (e instanceof CacheException cacheException && CIRCUIT_OPEN.equals(cacheException.getCode())) {
+            log.debug(message + " (circuit open)", args);
+            return;
+        }
+        Object[] withCause = Arrays.copyOf(args, args.length + 1);
+        withCause[args.length] = e;
+        log.error(message, withCause);
+    }
+}
@@ -0,0 +1,116 @@
+package com.restaurant.redismodule.service.impl;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.service.IAsyncCacheService;
+import com.restaurant.redismodule.service.IRedisService;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static com.restaurant.utils.MapperUtil.log;
+
+/**
+ * {@link IAsyncCacheService} in EMBEDDED mode. Commands on the in-process keyspace take
+ * microseconds, so they run on the calling thread and the futures come back completed.
+ *
+ * @author namdx.
+ */
+@Service
+@Conditional(RedisModeCondition.Embedded.class)
+public class EmbeddedAsyncCacheService implements IAsyncCacheService {
+
+    private final IRedisService redisService;
+
+    public EmbeddedAsyncCacheService(IRedisService redisService) {
+        this.redisService = redisService;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getCacheAsync(String key, JavaType type) {
+        return submit("get", key, () -> redisService.<T>get(key, type), null);
+    }
+
+    @Override
+    public <T> CompletableFuture<List<T>> multiGetAsync(List<String> keys, JavaType type) {
+        List<T> misses = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        return submit("mget", keys.size() + " keys", () -> redisService.<T>mGet(keys, type), misses);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setAsync(String key, Object value, Duration ttl) {
+        return submit("set", key, () -> {
+            redisService.set(key, value, ttl);
+            return true;
+        }, false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> multiSetAsync(Map<String, ?> values, Duration ttl) {
+        return submit("set", values.size() + " keys", () -> {
+            redisService.mSetWithTtl(values, ttl);
+            return true;
+        }, false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> setHashAsync(String key, Map<String, ?> fields, Duration ttl) {
+        return submit("hset", key, () -> {
+            redisService.hReplace(key, fields, ttl);
+            return true;
+        }, false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> multiSetHashAsync(Map<String, ? extends Map<String, ?>> hashes, Duration ttl) {
+        return submit("hset", hashes.size() + " keys", () -> {
+            redisService.hReplaceMany(hashes, ttl);
+            return true;
+        }, false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateHashAsync(String key, Map<String, ?> fields, Collection<String> removed,
+                                                      Duration ttl) {
+        return submit("hupdate", key, () -> redisService.hUpdateIfExists(key, fields, removed, ttl), null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteAsync(String key) {
+        return submit("delete", key, () -> {
+            redisService.delete(key);
+            return true;
+        }, false);
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementAsync(String key) {
+        return submit("increment", key, () -> redisService.increment(key), null);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> publishAsync(String channel, String message) {
+        return submit("publish", channel, () -> {
+            redisService.publish(channel, message);
+            return true;
+        }, false);
+    }
+
+    private static <T> CompletableFuture<T> submit(String operation, Object target, Callable<T> command, T fallback) {
+        try {
+            T value = command.call();
+            return CompletableFuture.completedFuture(value == null ? fallback : value);
+        } catch (Exception e) {
+            log.error("Error in async cache {} {}", operation, target, e);
+            return CompletableFuture.completedFuture(fallback);
+        }
+    }
+}
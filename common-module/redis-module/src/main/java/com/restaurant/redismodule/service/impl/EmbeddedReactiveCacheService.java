@@ -0,0 +1,141 @@
+package com.restaurant.redismodule.service.impl;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.config.RedisProperties;
+import com.restaurant.redismodule.exception.CacheException;
+import com.restaurant.redismodule.service.IReactiveCacheService;
+import com.restaurant.redismodule.service.IRedisService;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static com.restaurant.utils.MapperUtil.log;
+
+/**
+ * {@link IReactiveCacheService} in EMBEDDED mode. Commands on the in-process keyspace never
+ * wait on I/O, so they run on the subscribing thread without blocking the event loop.
+ *
+ * @author namdx.
+ */
+@Service
+@Conditional(RedisModeCondition.Embedded.class)
+public class EmbeddedReactiveCacheService implements IReactiveCacheService {
+
+    private final IRedisService redisService;
+    private final RedisProperties redisProperties;
+
+    public EmbeddedReactiveCacheService(IRedisService redisService, RedisProperties redisProperties) {
+        this.redisService = redisService;
+        this.redisProperties = redisProperties;
+    }
+
+    @Override
+    public <T> Mono<T> getCache(String key, Class<T> type) {
+        return getCache(key, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    @Override
+    public <T> Mono<T> getCache(String key, JavaType type) {
+        return Mono.<T>fromCallable(() -> redisService.get(key, type))
+                .onErrorMap(e -> new CacheException(e.getMessage(), e.getMessage()));
+    }
+
+    @Override
+    public <T> Mono<List<T>> getList(String key, Class<T> type) {
+        JavaType listType = TypeFactory.defaultInstance().constructCollectionType(List.class, type);
+        return orElse(() -> redisService.<List<T>>get(key, listType), Collections.emptyList(),
+                "Error getting cache list for key: {}", key);
+    }
+
+    @Override
+    public <T> Mono<List<T>> multiGet(List<String> keys, JavaType type) {
+        List<T> misses = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        return orElse(() -> redisService.<T>mGet(keys, type), misses, "Error getting cache for {} keys", keys.size());
+    }
+
+    @Override
+    public Mono<Boolean> set(String key, Object value, Duration ttl) {
+        return orElse(() -> {
+            redisService.set(key, value, ttl);
+            return true;
+        }, false, "Error setting cache for key: {}", key);
+    }
+
+    @Override
+    public Mono<Boolean> setIfAbsent(String key, Object value, Duration ttl) {
+        return orElse(() -> redisService.setIfAbsent(key, value, ttl), false,
+                "Error setting cache if absent for key: {}", key);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, ?> values, Duration ttl) {
+        return orElse(() -> {
+            redisService.mSetWithTtl(values, ttl);
+            return true;
+        }, false, "Error setting cache for {} keys", values.size());
+    }
+
+    @Override
+    public Mono<Boolean> delete(String key) {
+        return orElse(() -> redisService.delete(key), false, "Error deleting cache for key: {}", key);
+    }
+
+    @Override
+    public Mono<Long> deletePattern(String pattern) {
+        return orElse(() -> redisService.deletePattern(pattern, redisProperties.getScanBatchSize(), progress -> {
+        }), 0L, "Error deleting cache pattern: {}", pattern);
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        return Mono.fromCallable(() -> redisService.increment(key))
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, "Error incrementing key: {}", key);
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration ttl) {
+        return orElse(() -> redisService.expire(key, ttl), false, "Error setting expiration for key: {}", key);
+    }
+
+    @Override
+    public Mono<Boolean> exists(String key) {
+        return orElse(() -> redisService.hasKey(key), false, "Error checking cache existence for key: {}", key);
+    }
+
+    @Override
+    public Mono<Long> publish(String channel, String message) {
+        return orElse(() -> redisService.publish(channel, message), 0L, "Error publishing to channel: {}", channel);
+    }
+
+    @Override
+    public Flux<String> subscribe(String channel) {
+        return Flux.create(sink -> {
+            MessageListener listener = redisService.subscribe(channel, sink::next);
+            sink.onDispose(() -> redisService.unsubscribe(listener));
+            log.info("Subscribed to channel: {}", channel);
+        });
+    }
+
+    private static <T> Mono<T> orElse(Callable<T> command, T fallback, String message, Object... args) {
+        return Mono.fromCallable(command)
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, message, args);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(fallback);
+    }
+}
@@ -0,0 +1,212 @@
+package com.restaurant.redismodule.service.impl;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.config.RedisModeCondition;
+import com.restaurant.redismodule.config.RedisProperties;
+import com.restaurant.redismodule.exception.CacheException;
+import com.restaurant.redismodule.service.IReactiveCacheService;
+import com.restaurant.redismodule.support.RedisCircuitBreaker;
+import com.restaurant.redismodule.support.RedisNearCache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.restaurant.utils.MapperUtil.log;
+
+@Service
+@Conditional(RedisModeCondition.Remote.class)
+public class ReactiveCacheService implements IReactiveCacheService {
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final CacheCodec cacheCodec;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisNearCache nearCache;
+    private final RedisProperties redisProperties;
+
+    public ReactiveCacheService(@Qualifier("cacheReactiveRedisTemplate") ReactiveRedisTemplate<String, byte[]> redisTemplate,
+                                CacheCodec cacheCodec,
+                                RedisCircuitBreaker circuitBreaker,
+                                RedisProperties redisProperties,
+                                RedisNearCache nearCache) {
+        this.redisTemplate = redisTemplate;
+        this.cacheCodec = cacheCodec;
+        this.circuitBreaker = circuitBreaker;
+        this.nearCache = nearCache;
+        this.redisProperties = redisProperties;
+    }
+
+    @Override
+    public <T> Mono<T> getCache(String key, Class<T> type) {
+        return getCache(key, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    @Override
+    public <T> Mono<T> getCache(String key, JavaType type) {
+        return call(() -> redisTemplate.opsForValue().get(key))
+                .mapNotNull(bytes -> bytes.length == 0 ? null : cacheCodec.<T>decode(bytes, type))
+                .onErrorMap(e -> !(e instanceof CacheException), e -> new CacheException(e.getMessage(), e.getMessage()));
+    }
+
+    @Override
+    public <T> Mono<List<T>> getList(String key, Class<T> type) {
+        JavaType listType = TypeFactory.defaultInstance().constructCollectionType(List.class, type);
+        return call(() -> redisTemplate.opsForValue().get(key))
+                .mapNotNull(bytes -> bytes.length == 0 ? null : cacheCodec.<List<T>>decode(bytes, listType))
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, "Error getting cache list for key: {}", key);
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Collections.emptyList());
+    }
+
+    @Override
+    public <T> Mono<List<T>> multiGet(List<String> keys, JavaType type) {
+        List<T> misses = new ArrayList<>(Collections.nCopies(keys.size(), null));
+        if (keys.isEmpty()) {
+            return Mono.just(misses);
+        }
+        return call(() -> redisTemplate.opsForValue().multiGet(keys))
+                .map(values -> {
+                    List<T> result = new ArrayList<>(misses);
+                    for (int i = 0; i < values.size() && i < keys.size(); i++) {
+                        byte[] bytes = values.get(i);
+                        result.set(i, bytes == null || bytes.length == 0 ? null : cacheCodec.decode(bytes, type));
+                    }
+                    return result;
+                })
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, "Error getting cache for {} keys", keys.size());
+                    return Mono.just(misses);
+                });
+    }
+
+    @Override
+    public Mono<Boolean> set(String key, Object value, Duration ttl) {
+        nearCache.invalidate(key);
+        return orFalse(call(() -> redisTemplate.opsForValue().set(key, cacheCodec.encode(value), ttl)),
+                "Error setting cache for key: {}", key);
+    }
+
+    @Override
+    public Mono<Boolean> setIfAbsent(String key, Object value, Duration ttl) {
+        nearCache.invalidate(key);
+        return orFalse(call(() -> redisTemplate.opsForValue().setIfAbsent(key, cacheCodec.encode(value), ttl)),
+                "Error setting cache if absent for key: {}", key);
+    }
+
+    @Override
+    public Mono<Boolean> multiSet(Map<String, ?> values, Duration ttl) {
+        if (values.isEmpty()) {
+            return Mono.just(true);
+        }
+        values.keySet().forEach(nearCache::invalidate);
+        // Sent concurrently on the shared connection, so the writes go out pipelined
+        return orFalse(call(() -> Flux.fromIterable(values.entrySet())
+                        .flatMap(entry -> redisTemplate.opsForValue()
+                                .set(entry.getKey(), cacheCodec.encode(entry.getValue()), ttl))
+                        .all(Boolean::booleanValue)),
+                "Error setting cache for {} keys", values.size());
+    }
+
+    @Override
+    public Mono<Boolean> delete(String key) {
+        nearCache.invalidate(key);
+        return orFalse(call(() -> redisTemplate.delete(key).map(count -> count > 0)),
+                "Error deleting cache for key: {}", key);
+    }
+
+    @Override
+    public Mono<Long> deletePattern(String pattern) {
+        nearCache.invalidateAll();
+        int batchSize = redisProperties.getScanBatchSize();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        return call(() -> redisTemplate.scan(options)
+                        .buffer(batchSize)
+                        .concatMap(keys -> redisTemplate.unlink(keys.toArray(String[]::new)))
+                        .reduce(0L, Long::sum))
+                .doOnNext(deleted -> log.debug("Deleted {} keys matching pattern: {}", deleted, pattern))
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, "Error deleting cache pattern: {}", pattern);
+                    return Mono.just(0L);
+                });
+    }
+
+    @Override
+    public Mono<Long> increment(String key) {
+        nearCache.invalidate(key);
+        return call(() -> redisTemplate.opsForValue().increment(key))
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, "Error incrementing key: {}", key);
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Boolean> expire(String key, Duration ttl) {
+        return orFalse(call(() -> redisTemplate.expire(key, ttl)), "Error setting expiration for key: {}", key);
+    }
+
+    @Override
+    public Mono<Boolean> exists(String key) {
+        return orFalse(call(() -> redisTemplate.hasKey(key)), "Error checking cache existence for key: {}", key);
+    }
+
+    @Override
+    public Mono<Long> publish(String channel, String message) {
+        // Encoded like synchronous publishes, subscribers decode with the same codec
+        return call(() -> redisTemplate.convertAndSend(channel, cacheCodec.encode(message)))
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, "Error publishing to channel: {}", channel);
+                    return Mono.just(0L);
+                });
+    }
+
+    @Override
+    public Flux<String> subscribe(String channel) {
+        return redisTemplate.listenToChannel(channel)
+                .mapNotNull(message -> {
+                    byte[] body = message.getMessage();
+                    Object decoded = body == null || body.length == 0 ? null : cacheCodec.decode(body);
+                    return decoded == null ? null : decoded.toString();
+                })
+                .doOnSubscribe(subscription -> log.info("Subscribed to channel: {}", channel));
+    }
+
+    /**
+     * Send a command through the circuit breaker, failing fast with a CacheException while the circuit is open.
+     */
+    private <T> Mono<T> call(Supplier<Mono<T>> command) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                return Mono.error(new CacheException(CacheService.CIRCUIT_OPEN, "Redis circuit is open"));
+            }
+            return command.get()
+                    .doOnSuccess(value -> circuitBreaker.onSuccess())
+                    .doOnError(e -> circuitBreaker.onFailure(e instanceof Exception exception
+                            ? exception : new IllegalStateException(e)))
+                    .doOnCancel(circuitBreaker::release);
+        });
+    }
+
+    private static Mono<Boolean> orFalse(Mono<Boolean> command, String message, Object... args) {
+        return command
+                .onErrorResume(e -> {
+                    CacheService.logFailure(e, message, args);
+                    return Mono.just(false);
+                })
+                .defaultIfEmpty(false);
+    }
+}
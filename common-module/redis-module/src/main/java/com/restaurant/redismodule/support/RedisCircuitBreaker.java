@@ -0,0 +1,173 @@
+package com.restaurant.redismodule.support;
+
+import com.restaurant.redismodule.config.RedisProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker around Redis calls. It opens after consecutive failures so callers go
+ * straight to the database, and after the open duration lets a few probe calls through
+ * (half-open) to decide whether to close again.
+ *
+ * @author namdx.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+
+    /**
+     * Metric name of the state gauge: 0 closed, 1 half-open, 2 open.
+     */
+    public static final String METRIC_STATE = "redis.circuit.state";
+
+    /**
+     * Metric name of the counter of calls rejected while open.
+     */
+    public static final String METRIC_REJECTED = "redis.circuit.rejected";
+
+    /**
+     * The circuit states, the ordinal is the gauge value.
+     */
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final RedisProperties.Breaker config;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger probes = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongSupplier nanoClock;
+    private volatile long openedAt;
+
+    /**
+     * Instantiates a new Redis circuit breaker and registers its metrics.
+     *
+     * @param redisProperties the redis properties
+     */
+    @Autowired
+    public RedisCircuitBreaker(RedisProperties redisProperties) {
+        this(redisProperties, System::nanoTime);
+    }
+
+    /**
+     * Instantiates a new Redis circuit breaker reading time from the given clock.
+     *
+     * @param redisProperties the redis properties
+     * @param nanoClock       the clock, in nanoseconds
+     */
+    RedisCircuitBreaker(RedisProperties redisProperties, LongSupplier nanoClock) {
+        this.config = redisProperties.getBreaker();
+        this.nanoClock = nanoClock;
+        Gauge.builder(METRIC_STATE, this, breaker -> breaker.getState().ordinal())
+                .description("Redis circuit state: 0 closed, 1 half-open, 2 open")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder(METRIC_REJECTED, rejected, LongAdder::sum)
+                .description("Redis calls skipped while the circuit was open")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Whether a call may go to Redis now. Every permitted call must be followed by
+     * {@link #onSuccess()}, {@link #onFailure(Exception)} or {@link #release()}.
+     *
+     * @return the boolean
+     */
+    public boolean tryAcquire() {
+        if (!config.isEnabled()) {
+            return true;
+        }
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < config.getOpenDuration().toNanos()) {
+                rejected.increment();
+                return false;
+            }
+            if (state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                log.info("Redis circuit half-open, probing");
+            }
+        }
+        if (probes.incrementAndGet() <= config.getHalfOpenProbes()) {
+            return true;
+        }
+        probes.decrementAndGet();
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Give back the permit of a call cancelled before Redis answered, so it does not hold a probe.
+     */
+    public void release() {
+        if (config.isEnabled() && state.get() == State.HALF_OPEN) {
+            probes.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+
+    /**
+     * Record a call that Redis answered.
+     */
+    public void onSuccess() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            if (failures.get() != 0) {
+                failures.set(0);
+            }
+        } else if (current == State.HALF_OPEN && state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            failures.set(0);
+            log.info("Redis circuit closed");
+        }
+    }
+
+    /**
+     * Record a failed call. Errors decoding a value Redis did return count as success.
+     *
+     * @param e the exception
+     */
+    public void onFailure(Exception e) {
+        if (e instanceof SerializationException) {
+            onSuccess();
+            return;
+        }
+        State current = state.get();
+        if (current == State.HALF_OPEN
+                || (current == State.CLOSED && failures.incrementAndGet() >= config.getFailureThreshold())) {
+            trip(current, e);
+        }
+    }
+
+    private void trip(State from, Exception e) {
+        probes.set(0);
+        openedAt = nanoClock.getAsLong();
+        if (state.compareAndSet(from, State.OPEN)) {
+            log.warn("Redis circuit opened for {} after: {}", config.getOpenDuration(), e.getMessage());
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public int getFailureCount() {
+        return failures.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,44 @@
+package com.restaurant.redismodule.support;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the Redis circuit. An open circuit is DEGRADED rather than DOWN: the cache
+ * is optional, requests are still served from the database.
+ *
+ * @author namdx.
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.boot.actuate.health.HealthIndicator")
+public class RedisCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    /**
+     * Status reported while the circuit is not closed.
+     */
+    public static final Status DEGRADED = new Status("DEGRADED", "Redis skipped, serving from the database");
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * Instantiates a new Redis circuit breaker health indicator.
+     *
+     * @param circuitBreaker the circuit breaker
+     */
+    public RedisCircuitBreakerHealthIndicator(RedisCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Health health() {
+        RedisCircuitBreaker.State state = circuitBreaker.getState();
+        return (state == RedisCircuitBreaker.State.CLOSED ? Health.up() : Health.status(DEGRADED))
+                .withDetail("state", state)
+                .withDetail("failures", circuitBreaker.getFailureCount())
+                .withDetail("rejected", circuitBreaker.getRejectedCount())
+                .build();
+    }
+}
@@ -0,0 +1,319 @@
+package com.restaurant.redismodule.support;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.restaurant.redismodule.codec.CacheCodec;
+import com.restaurant.redismodule.config.RedisProperties;
+import com.restaurant.utils.cache.BoundedLocalCache;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache of read-mostly keys, served from memory and kept coherent by Redis client tracking.
+ * <p>
+ * Keys under the configured prefixes are read on a dedicated RESP3 connection with
+ * {@code CLIENT TRACKING on}: Redis remembers the keys it served there and pushes an invalidation
+ * on that connection as soon as any client modifies one, so entries are dropped when the key
+ * changes rather than when a ttl runs out. While the connection is down, or when the server does
+ * not speak RESP3, nothing is served from memory and reads go to Redis as usual.
+ *
+ * @author namdx.
+ */
+@Slf4j
+@Component
+public class RedisNearCache {
+
+    /**
+     * Metric name of the near cache lookups, tagged by prefix and hit/miss result.
+     */
+    public static final String METRIC_REQUESTS = "redis.near.cache.requests";
+
+    /**
+     * Metric name of the invalidations pushed by Redis, tagged by prefix.
+     */
+    public static final String METRIC_INVALIDATIONS = "redis.near.cache.invalidations";
+
+    /**
+     * Metric name of the hit ratio, tagged by prefix.
+     */
+    public static final String METRIC_HIT_RATIO = "redis.near.cache.hit.ratio";
+
+    private static final String INVALIDATE = "invalidate";
+
+    /**
+     * Marks a key Redis does not hold, tracking covers missing keys as well.
+     */
+    private static final byte[] ABSENT = new byte[0];
+
+    private final RedisProperties redisProperties;
+    private final CacheCodec cacheCodec;
+
+    /**
+     * Stats by prefix, longest prefix first so a key is counted under its most specific prefix.
+     */
+    private final Map<String, PrefixStats> prefixes = new LinkedHashMap<>();
+
+    /**
+     * Loads in flight, an invalidation removes the token so the loaded value is not kept.
+     */
+    private final ConcurrentHashMap<String, Object> loading = new ConcurrentHashMap<>();
+
+    private BoundedLocalCache<String, byte[]> local;
+    private RedisClient client;
+    private StatefulRedisConnection<String, byte[]> connection;
+    private volatile boolean tracking;
+
+    public RedisNearCache(RedisProperties redisProperties, CacheCodec cacheCodec) {
+        this.redisProperties = redisProperties;
+        this.cacheCodec = cacheCodec;
+    }
+
+    /**
+     * Connect and enable tracking when the near cache is configured, else stay in normal mode.
+     */
+    @PostConstruct
+    public void start() {
+        RedisProperties.NearCache config = redisProperties.getNearCache();
+        if (!config.isEnabled() || config.getPrefixes().isEmpty()) {
+            return;
+        }
+        if (redisProperties.getMode() != RedisProperties.RedisMode.STANDALONE) {
+            log.warn("Near cache needs a standalone Redis, reads stay remote in {} mode", redisProperties.getMode());
+            return;
+        }
+        config.getPrefixes().stream()
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .forEach(prefix -> prefixes.put(prefix, new PrefixStats(prefix)));
+        local = new BoundedLocalCache<>(config.getMaxSize(), config.getTtl());
+        try {
+            client = RedisClient.create(redisUri());
+            client.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+            connection = client.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+            connection.setTimeout(redisProperties.getReadTimeout());
+            connection.addListener((PushListener) this::onPushMessage);
+            connection.addListener(new RedisConnectionStateListener() {
+                @Override
+                public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+                    enableTracking();
+                }
+
+                @Override
+                public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                    // Invalidations sent while disconnected are lost, start over once tracking is back
+                    tracking = false;
+                    clear();
+                }
+            });
+            connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+            tracking = true;
+            log.info("Near cache enabled for prefixes: {}", prefixes.keySet());
+        } catch (Exception e) {
+            log.warn("Near cache disabled, Redis does not support RESP3 client tracking: {}", e.getMessage());
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        tracking = false;
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        if (client != null) {
+            client.shutdown();
+            client = null;
+        }
+    }
+
+    /**
+     * Whether reads of the key are served by the near cache.
+     *
+     * @param key the key
+     * @return the boolean
+     */
+    public boolean covers(String key) {
+        return tracking && prefixOf(key) != null;
+    }
+
+    /**
+     * Gets the value of a covered key decoded into the type, from memory when present, else
+     * from Redis on the tracking connection, null when Redis does not hold the key.
+     *
+     * @param <T>  the type parameter
+     * @param key  the key
+     * @param type the type
+     * @return the value
+     */
+    public <T> T get(String key, JavaType type) {
+        byte[] raw = getRaw(key);
+        return raw == null || raw.length == 0 ? null : cacheCodec.decode(raw, type);
+    }
+
+    private byte[] getRaw(String key) {
+        PrefixStats stats = prefixes.get(prefixOf(key));
+        byte[] cached = local.get(key);
+        if (cached != null) {
+            stats.hits.increment();
+            return cached;
+        }
+        stats.misses.increment();
+        Object token = new Object();
+        loading.put(key, token);
+        try {
+            byte[] value = connection.sync().get(key);
+            // Kept only when no invalidation for the key arrived while the GET was in flight
+            if (tracking && loading.remove(key, token)) {
+                local.put(key, value == null ? ABSENT : value);
+            }
+            return value;
+        } finally {
+            loading.remove(key, token);
+        }
+    }
+
+    /**
+     * Drop a key this process modified, so its next read does not wait on the pushed invalidation.
+     *
+     * @param key the key
+     */
+    public void invalidate(String key) {
+        if (local != null) {
+            loading.remove(key);
+            local.invalidate(key);
+        }
+    }
+
+    /**
+     * Drop every key, e.g. after a pattern deletion.
+     */
+    public void invalidateAll() {
+        if (local != null) {
+            clear();
+        }
+    }
+
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    private void enableTracking() {
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current == null) {
+            return;
+        }
+        // Tracking is per connection, a reconnected one starts untracked
+        current.async().clientTracking(TrackingArgs.Builder.enabled()).whenComplete((result, error) -> {
+            if (error != null) {
+                log.warn("Near cache could not re-enable client tracking: {}", error.getMessage());
+                return;
+            }
+            clear();
+            tracking = true;
+            log.info("Near cache tracking re-enabled");
+        });
+    }
+
+    private void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (!(keys instanceof List<?> invalidated)) {
+            // A null key list means the server flushed its keyspace
+            clear();
+            return;
+        }
+        for (Object invalidatedKey : invalidated) {
+            String key = String.valueOf(invalidatedKey);
+            invalidate(key);
+            PrefixStats stats = prefixes.get(prefixOf(key));
+            if (stats != null) {
+                stats.invalidations.increment();
+            }
+        }
+    }
+
+    private void clear() {
+        loading.clear();
+        local.invalidateAll();
+    }
+
+    private String prefixOf(String key) {
+        for (String prefix : prefixes.keySet()) {
+            if (key.startsWith(prefix)) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    private RedisURI redisUri() {
+        RedisURI.Builder builder = RedisURI.builder()
+                .withHost(redisProperties.getStandalone().getHost())
+                .withPort(redisProperties.getStandalone().getPort())
+                .withDatabase(redisProperties.getDatabase())
+                .withTimeout(redisProperties.getTimeout());
+        if (redisProperties.getPassword() != null && !redisProperties.getPassword().isEmpty()) {
+            builder.withPassword(redisProperties.getPassword().toCharArray());
+        }
+        return builder.build();
+    }
+
+    private static final class PrefixStats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        private PrefixStats(String prefix) {
+            FunctionCounter.builder(METRIC_REQUESTS, hits, LongAdder::sum)
+                    .description("Near cache lookups served from memory")
+                    .tags("prefix", prefix, "result", "hit")
+                    .register(Metrics.globalRegistry);
+            FunctionCounter.builder(METRIC_REQUESTS, misses, LongAdder::sum)
+                    .description("Near cache lookups read from Redis")
+                    .tags("prefix", prefix, "result", "miss")
+                    .register(Metrics.globalRegistry);
+            FunctionCounter.builder(METRIC_INVALIDATIONS, invalidations, LongAdder::sum)
+                    .description("Near cache keys invalidated by Redis")
+                    .tags("prefix", prefix)
+                    .register(Metrics.globalRegistry);
+            Gauge.builder(METRIC_HIT_RATIO, this, PrefixStats::hitRatio)
+                    .description("Near cache hit ratio")
+                    .tags("prefix", prefix)
+                    .register(Metrics.globalRegistry);
+        }
+
+        private double hitRatio() {
+            long hit = hits.sum();
+            long total = hit + misses.sum();
+            return total == 0 ? 0 : (double) hit / total;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.restaurant.redismodule.embedded;
+
+import com.restaurant.redismodule.config.RedisProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedRedisStoreTest {
+
+    private static final Duration NO_SWEEP = Duration.ofHours(1);
+
+    private EmbeddedRedisStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void expiredKeyIsDroppedOnAccess() throws InterruptedException {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+        store.set("short", bytes("v"), Duration.ofMillis(20));
+        store.set("forever", bytes("v"), null);
+        assertTrue(store.exists("short"));
+
+        Thread.sleep(50);
+
+        assertNull(store.get("short"));
+        assertEquals(-2, store.ttlMillis("short"));
+        assertEquals(-1, store.ttlMillis("forever"));
+        assertEquals(1, store.getExpiredCount());
+        assertEquals(1, store.getKeyCount());
+    }
+
+    @Test
+    void sweepDropsExpiredKeysNobodyReads() throws InterruptedException {
+        store = store(100, DataSize.ofMegabytes(1), Duration.ofMillis(10));
+        for (int i = 0; i < 10; i++) {
+            store.set("sweep:" + i, bytes("v"), Duration.ofMillis(20));
+        }
+        store.set("kept", bytes("v"), null);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (store.getKeyCount() > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, store.getKeyCount());
+        assertEquals(10, store.getExpiredCount());
+        assertTrue(store.exists("kept"));
+    }
+
+    @Test
+    void keyBoundEvictsTheLeastRecentlyUsedKey() {
+        store = store(2, DataSize.ofMegabytes(1), NO_SWEEP);
+        List<String> keys = sameSegment(3);
+        store.set(keys.get(0), bytes("a"), null);
+        store.set(keys.get(1), bytes("b"), null);
+        // Reading the first key makes the second one the least recently used
+        store.get(keys.get(0));
+
+        store.set(keys.get(2), bytes("c"), null);
+
+        assertEquals(2, store.getKeyCount());
+        assertEquals(1, store.getEvictedCount());
+        assertTrue(store.exists(keys.get(0)));
+        assertFalse(store.exists(keys.get(1)));
+        assertTrue(store.exists(keys.get(2)));
+    }
+
+    @Test
+    void memoryBoundEvictsOldestKeysUntilUnderTheBound() {
+        store = store(100, DataSize.ofBytes(1_000), NO_SWEEP);
+        List<String> keys = sameSegment(5);
+        for (String key : keys) {
+            store.set(key, new byte[300], null);
+        }
+
+        assertTrue(store.getUsedMemory() <= 1_000);
+        assertTrue(store.getEvictedCount() > 0);
+        assertFalse(store.exists(keys.get(0)));
+        assertTrue(store.exists(keys.get(4)));
+    }
+
+    @Test
+    void deletedKeysGiveTheirMemoryBack() {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+        store.set("a", new byte[100], null);
+        store.hSetAll("h", Map.of("f", new byte[100]));
+
+        store.delete(List.of("a", "h"));
+
+        assertEquals(0, store.getKeyCount());
+        assertEquals(0, store.getUsedMemory());
+    }
+
+    @Test
+    void keysMatchRedisGlobPatterns() {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+        for (String key : List.of("user:1", "user:22", "ax", "bx", "cx", "a*b", "aXb")) {
+            store.set(key, bytes("v"), null);
+        }
+
+        assertEquals(Set.of("user:1", "user:22"), store.keys("user:*"));
+        assertEquals(Set.of("user:1"), store.keys("user:?"));
+        assertEquals(Set.of("ax", "bx"), store.keys("[ab]x"));
+        assertEquals(Set.of("bx", "cx"), store.keys("[^a]x"));
+        assertEquals(Set.of("a*b"), store.keys("a\\*b"));
+        assertEquals(Set.of("a*b", "aXb"), store.keys("a*b"));
+    }
+
+    @Test
+    void deletePatternRemovesOnlyMatchingKeys() {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+        for (int i = 0; i < 20; i++) {
+            store.set("order:" + i, bytes("v"), null);
+        }
+        store.set("orders", bytes("v"), null);
+
+        assertEquals(20, store.deletePattern("order:*"));
+
+        assertEquals(Set.of("orders"), store.keys("*"));
+        assertEquals(1, store.getKeyCount());
+    }
+
+    @Test
+    void wrongTypeIsRejected() {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+        store.hSet("hash", "f", bytes("v"));
+        store.set("string", bytes("v"), null);
+
+        InvalidDataAccessApiUsageException error =
+                assertThrows(InvalidDataAccessApiUsageException.class, () -> store.get("hash"));
+        assertTrue(error.getMessage().startsWith("WRONGTYPE"));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> store.hGet("string", "f"));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> store.lPush("hash", List.of(bytes("v"))));
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> store.incrBy("hash", 1));
+    }
+
+    @Test
+    void incrByKeepsTheTtl() {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+        store.set("counter", bytes("5"), Duration.ofSeconds(10));
+
+        assertEquals(8, store.incrBy("counter", 3));
+
+        long ttl = store.ttlMillis("counter");
+        assertTrue(ttl > 0 && ttl <= 10_000, "ttl " + ttl);
+        assertArrayEquals(bytes("8"), store.get("counter"));
+    }
+
+    @Test
+    void incrByCreatesAMissingCounterWithoutExpiry() {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+
+        assertEquals(-2, store.incrBy("counter", -2));
+
+        assertEquals(-1, store.ttlMillis("counter"));
+        store.set("text", bytes("abc"), null);
+        assertThrows(InvalidDataAccessApiUsageException.class, () -> store.incrBy("text", 1));
+    }
+
+    @Test
+    void takeTokensDrawsFromOneBucketUntilItExpires() throws InterruptedException {
+        store = store(100, DataSize.ofMegabytes(1), NO_SWEEP);
+
+        long[] first = store.takeTokens("bucket", 10, Duration.ofMillis(50), 4);
+        assertEquals(4, first[0]);
+        assertEquals(6, first[1]);
+        assertTrue(first[2] >= 1 && first[2] <= 50, "ttl " + first[2]);
+
+        long[] capped = store.takeTokens("bucket", 10, Duration.ofMillis(50), 8);
+        assertEquals(6, capped[0]);
+        assertEquals(0, capped[1]);
+        assertEquals(0, store.takeTokens("bucket", 10, Duration.ofMillis(50), 1)[0]);
+
+        Thread.sleep(80);
+
+        assertEquals(10, store.takeTokens("bucket", 10, Duration.ofMillis(50), 10)[0]);
+    }
+
+    private static EmbeddedRedisStore store(int maxKeys, DataSize maxMemory, Duration sweepInterval) {
+        RedisProperties.Embedded config = new RedisProperties.Embedded();
+        config.setMaxKeys(maxKeys);
+        config.setMaxMemory(maxMemory);
+        config.setSweepInterval(sweepInterval);
+        return new EmbeddedRedisStore(config);
+    }
+
+    /**
+     * Keys sharing one segment, so eviction follows their exact LRU order.
+     */
+    private static List<String> sameSegment(int count) {
+        List<String> keys = new ArrayList<>();
+        int segment = EmbeddedRedisStore.segmentIndex("key:0");
+        for (int i = 0; keys.size() < count; i++) {
+            if (EmbeddedRedisStore.segmentIndex("key:" + i) == segment) {
+                keys.add("key:" + i);
+            }
+        }
+        return keys;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,50 @@
+package com.restaurant.redismodule.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HashReplaceScriptTest {
+
+    private static final String KEY = "food::1";
+
+    private final LuaRedis redis = new LuaRedis();
+
+    @Test
+    void missingHashIsCreatedWithTtl() {
+        assertEquals(1L, replace(Map.of("name", "pho", "price", "1"), Duration.ofSeconds(5)));
+        assertEquals(Map.of("name", "pho", "price", "1"), redis.hgetAll(KEY));
+        assertEquals(5_000, redis.pttl(KEY));
+    }
+
+    @Test
+    void oldFieldsAreDroppedAndTtlReset() {
+        redis.hset(KEY, Map.of("name", "pho", "price", "1", "note", "hot"), 1_000);
+        redis.advance(900);
+
+        assertEquals(1L, replace(Map.of("name", "bun", "size", "L"), Duration.ofSeconds(5)));
+        assertEquals(Map.of("name", "bun", "size", "L"), redis.hgetAll(KEY));
+        assertEquals(5_000, redis.pttl(KEY));
+    }
+
+    @Test
+    void noFieldsOnlyDeletesTheHash() {
+        redis.hset(KEY, Map.of("name", "pho"), 1_000);
+
+        assertEquals(0L, replace(Map.of(), Duration.ofSeconds(5)));
+        assertFalse(redis.exists(KEY));
+    }
+
+    private Object replace(Map<String, String> fields, Duration ttl) {
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        fields.forEach((field, value) -> encoded.put(field, value.getBytes(StandardCharsets.UTF_8)));
+        return redis.eval(RedisService.HASH_REPLACE_SCRIPT, List.of(KEY), RedisService.hashReplaceArgs(encoded, ttl));
+    }
+}
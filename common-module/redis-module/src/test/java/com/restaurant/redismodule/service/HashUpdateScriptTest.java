@@ -0,0 +1,67 @@
+package com.restaurant.redismodule.service;
+
+import com.restaurant.redismodule.factory.ICachingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HashUpdateScriptTest {
+
+    private static final String KEY = "food::1";
+
+    private final LuaRedis redis = new LuaRedis();
+
+    @Test
+    void missingHashIsNotCreated() {
+        assertEquals(0L, update(Map.of("price", "2"), List.of("note"), Duration.ofSeconds(5)));
+        assertFalse(redis.exists(KEY));
+    }
+
+    @Test
+    void fieldsAreSetAndRemovedAndTtlReset() {
+        redis.hset(KEY, Map.of("name", "pho", "price", "1", "note", "hot"), 1_000);
+        redis.advance(900);
+
+        assertEquals(1L, update(Map.of("price", "2", "size", "L"), List.of("note"), Duration.ofSeconds(5)));
+        assertEquals(Map.of("name", "pho", "price", "2", "size", "L"), redis.hgetAll(KEY));
+        assertEquals(5_000, redis.pttl(KEY));
+    }
+
+    @Test
+    void removedFieldsAloneAreApplied() {
+        redis.hset(KEY, Map.of("name", "pho", "note", "hot", "tag", "new"), 1_000);
+
+        assertEquals(1L, update(Map.of(), List.of("note", "tag", "absent"), Duration.ofSeconds(5)));
+        assertEquals(Map.of("name", "pho"), redis.hgetAll(KEY));
+    }
+
+    @Test
+    void zeroTtlKeepsTheExpiry() {
+        redis.hset(KEY, Map.of("name", "pho"), 1_000);
+        redis.advance(400);
+
+        assertEquals(1L, update(Map.of("name", "bun"), List.of(), Duration.ZERO));
+        assertEquals(600, redis.pttl(KEY));
+    }
+
+    @Test
+    void tombstoneHashIsDeletedInsteadOfUpdated() {
+        redis.hset(KEY, Map.of(ICachingFactory.TOMBSTONE, "1"), 1_000);
+
+        assertEquals(0L, update(Map.of("price", "2"), List.of(), Duration.ofSeconds(5)));
+        assertFalse(redis.exists(KEY));
+    }
+
+    private Object update(Map<String, String> fields, List<String> removed, Duration ttl) {
+        Map<String, byte[]> encoded = new LinkedHashMap<>();
+        fields.forEach((field, value) -> encoded.put(field, value.getBytes(StandardCharsets.UTF_8)));
+        return redis.eval(RedisService.HASH_UPDATE_SCRIPT, List.of(KEY), RedisService.hashUpdateArgs(encoded, removed, ttl));
+    }
+}
@@ -0,0 +1,217 @@
+package com.restaurant.redismodule.service;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaString;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory keyspace running the Lua scripts of {@link RedisService} the way a Redis server does:
+ * the commands they call, replies converted as Redis converts them, and a clock that only moves
+ * when told to, so expiry boundaries can be hit exactly.
+ */
+final class LuaRedis {
+
+    private final Map<String, Object> values = new HashMap<>();
+    private final Map<String, Long> expireAt = new HashMap<>();
+    private long now;
+
+    /**
+     * Move the clock forward.
+     */
+    void advance(long millis) {
+        now += millis;
+    }
+
+    /**
+     * Run a script, args are strings or byte arrays.
+     *
+     * @return the reply: Long, String, List or null
+     */
+    Object eval(RedisScript<?> script, List<String> keys, List<?> args) {
+        Globals globals = JsePlatform.standardGlobals();
+        LuaTable keyTable = new LuaTable();
+        for (int i = 0; i < keys.size(); i++) {
+            keyTable.set(i + 1, LuaValue.valueOf(keys.get(i)));
+        }
+        LuaTable argTable = new LuaTable();
+        for (int i = 0; i < args.size(); i++) {
+            Object arg = args.get(i);
+            argTable.set(i + 1, arg instanceof byte[] bytes ? LuaValue.valueOf(bytes) : LuaValue.valueOf(String.valueOf(arg)));
+        }
+        LuaTable redis = new LuaTable();
+        redis.set("call", new VarArgFunction() {
+            @Override
+            public Varargs invoke(Varargs call) {
+                return LuaRedis.this.call(call);
+            }
+        });
+        globals.set("KEYS", keyTable);
+        globals.set("ARGV", argTable);
+        globals.set("redis", redis);
+        return reply(globals.load(script.getScriptAsString(), "script").call());
+    }
+
+    void set(String key, String value, long ttlMillis) {
+        values.put(key, LuaValue.valueOf(value));
+        expire(key, ttlMillis);
+    }
+
+    void hset(String key, Map<String, String> fields, long ttlMillis) {
+        Map<String, LuaString> hash = new LinkedHashMap<>();
+        fields.forEach((field, value) -> hash.put(field, LuaValue.valueOf(value)));
+        values.put(key, hash);
+        expire(key, ttlMillis);
+    }
+
+    String get(String key) {
+        return live(key) instanceof LuaString value ? value.tojstring() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, String> hgetAll(String key) {
+        if (!(live(key) instanceof Map<?, ?> hash)) {
+            return null;
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        ((Map<String, LuaString>) hash).forEach((field, value) -> fields.put(field, value.tojstring()));
+        return fields;
+    }
+
+    boolean exists(String key) {
+        return live(key) != null;
+    }
+
+    long pttl(String key) {
+        if (live(key) == null) {
+            return -2;
+        }
+        Long at = expireAt.get(key);
+        return at == null ? -1 : Math.max(0, at - now);
+    }
+
+    private void expire(String key, long ttlMillis) {
+        if (ttlMillis > 0) {
+            expireAt.put(key, now + ttlMillis);
+        } else {
+            expireAt.remove(key);
+        }
+    }
+
+    /**
+     * Gets the value unless expired, a key expires once the clock is past its expiry as in Redis.
+     */
+    private Object live(String key) {
+        Long at = expireAt.get(key);
+        if (at != null && now > at) {
+            values.remove(key);
+            expireAt.remove(key);
+        }
+        return values.get(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Varargs call(Varargs call) {
+        String command = call.checkjstring(1).toUpperCase();
+        String key = call.checkjstring(2);
+        Object value = live(key);
+        Map<String, LuaString> hash = value instanceof Map<?, ?> map ? (Map<String, LuaString>) map : null;
+        switch (command) {
+            case "EXISTS":
+                return LuaValue.valueOf(value == null ? 0 : 1);
+            case "DEL":
+                expireAt.remove(key);
+                return LuaValue.valueOf(values.remove(key) == null ? 0 : 1);
+            case "PTTL":
+                return LuaValue.valueOf(pttl(key));
+            case "PEXPIRE":
+                if (value == null) {
+                    return LuaValue.valueOf(0);
+                }
+                expireAt.put(key, now + Long.parseLong(call.checkjstring(3)));
+                return LuaValue.valueOf(1);
+            case "GET":
+                if (hash != null) {
+                    throw new LuaError("WRONGTYPE");
+                }
+                return value == null ? LuaValue.FALSE : (LuaString) value;
+            case "SET":
+                values.put(key, LuaValue.valueOf(call.checkjstring(3)));
+                expireAt.remove(key);
+                if (call.narg() >= 5 && "PX".equalsIgnoreCase(call.checkjstring(4))) {
+                    expireAt.put(key, now + Long.parseLong(call.checkjstring(5)));
+                }
+                return status("OK");
+            case "DECRBY":
+                if (hash != null) {
+                    throw new LuaError("WRONGTYPE");
+                }
+                long decremented = (value == null ? 0 : Long.parseLong(((LuaString) value).tojstring()))
+                        - Long.parseLong(call.checkjstring(3));
+                values.put(key, LuaValue.valueOf(Long.toString(decremented)));
+                return LuaValue.valueOf(decremented);
+            case "HEXISTS":
+                return LuaValue.valueOf(hash != null && hash.containsKey(call.checkjstring(3)) ? 1 : 0);
+            case "HSET":
+                if (value != null && hash == null) {
+                    throw new LuaError("WRONGTYPE");
+                }
+                if (hash == null) {
+                    hash = new LinkedHashMap<>();
+                    values.put(key, hash);
+                }
+                return LuaValue.valueOf(hash.put(call.checkjstring(3), call.checkstring(4)) == null ? 1 : 0);
+            case "HDEL":
+                if (hash == null || hash.remove(call.checkjstring(3)) == null) {
+                    return LuaValue.valueOf(0);
+                }
+                if (hash.isEmpty()) {
+                    values.remove(key);
+                    expireAt.remove(key);
+                }
+                return LuaValue.valueOf(1);
+            default:
+                throw new LuaError("Unknown command: " + command);
+        }
+    }
+
+    private static LuaValue status(String status) {
+        LuaTable reply = new LuaTable();
+        reply.set("ok", status);
+        return reply;
+    }
+
+    /**
+     * Convert a script result as Redis does: numbers truncated to integers, tables to arrays up
+     * to the first nil, false to nil.
+     */
+    private static Object reply(LuaValue value) {
+        switch (value.type()) {
+            case LuaValue.TNUMBER:
+                return (long) value.todouble();
+            case LuaValue.TSTRING:
+                return value.tojstring();
+            case LuaValue.TBOOLEAN:
+                return value.toboolean() ? 1L : null;
+            case LuaValue.TTABLE:
+                List<Object> list = new ArrayList<>();
+                for (int i = 1; !value.get(i).isnil(); i++) {
+                    list.add(reply(value.get(i)));
+                }
+                return list;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.restaurant.redismodule.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TakeTokensScriptTest {
+
+    private static final String KEY = "ratelimit:/orders|client|10/1";
+    private static final long CAPACITY = 10;
+    private static final long INTERVAL = 1_000;
+
+    private final LuaRedis redis = new LuaRedis();
+
+    @Test
+    void firstTakeStartsAFullBucket() {
+        assertEquals(List.of(4L, 6L, INTERVAL), take(4));
+        assertEquals("6", redis.get(KEY));
+    }
+
+    @Test
+    void takeIsCappedAtTheTokensLeft() {
+        take(8);
+        redis.advance(100);
+
+        assertEquals(List.of(2L, 0L, 900L), take(4));
+        assertEquals(List.of(0L, 0L, 900L), take(4));
+    }
+
+    @Test
+    void bucketRefillsOnceTheIntervalHasPassed() {
+        assertEquals(List.of(10L, 0L, INTERVAL), take(10));
+
+        redis.advance(INTERVAL - 1);
+        assertEquals(List.of(0L, 0L, 1L), take(1));
+
+        // Redis expires a key only once the clock is past its expiry, the bucket is still empty here
+        redis.advance(1);
+        assertEquals(List.of(0L, 0L, 1L), take(1));
+
+        redis.advance(1);
+        assertEquals(List.of(4L, 6L, INTERVAL), take(4));
+    }
+
+    @Test
+    void bucketWithoutExpiryIsGivenOne() {
+        redis.set(KEY, "0", 0);
+
+        assertEquals(List.of(0L, 0L, INTERVAL), take(1));
+        assertEquals(INTERVAL, redis.pttl(KEY));
+    }
+
+    private Object take(long requested) {
+        return redis.eval(RedisService.TAKE_TOKENS_SCRIPT, List.of(KEY),
+                List.of(Long.toString(CAPACITY), Long.toString(INTERVAL), Long.toString(requested)));
+    }
+}
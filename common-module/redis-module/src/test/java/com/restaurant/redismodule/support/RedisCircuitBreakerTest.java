@@ -0,0 +1,166 @@
+package com.restaurant.redismodule.support;
+
+import com.restaurant.redismodule.config.RedisProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisCircuitBreakerTest {
+
+    private static final Duration OPEN = Duration.ofSeconds(10);
+    private static final Exception DOWN = new IllegalStateException("connection refused");
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private RedisProperties properties;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RedisProperties();
+        properties.getBreaker().setFailureThreshold(3);
+        properties.getBreaker().setOpenDuration(OPEN);
+        properties.getBreaker().setHalfOpenProbes(2);
+        breaker = new RedisCircuitBreaker(properties, now::get);
+    }
+
+    @Test
+    void staysClosedBelowTheThreshold() {
+        breaker.onFailure(DOWN);
+        breaker.onFailure(DOWN);
+        assertEquals(2, breaker.getFailureCount());
+
+        breaker.onSuccess();
+        breaker.onFailure(DOWN);
+        breaker.onFailure(DOWN);
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void decodeErrorsDoNotCountAsFailures() {
+        breaker.onFailure(DOWN);
+        breaker.onFailure(DOWN);
+        breaker.onFailure(new SerializationException("bad payload"));
+
+        assertEquals(0, breaker.getFailureCount());
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensAtTheThresholdAndRejectsUntilTheDurationPasses() {
+        open();
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        advance(OPEN.minusNanos(1));
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.getRejectedCount());
+
+        advance(Duration.ofNanos(1));
+        assertTrue(breaker.tryAcquire());
+        assertEquals(RedisCircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheConfiguredProbesThrough() {
+        open();
+        advance(OPEN);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    void probeSuccessCloses() {
+        open();
+        advance(OPEN);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onSuccess();
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureCount());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void probeFailureReopensForAnotherFullDuration() {
+        open();
+        advance(OPEN);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure(DOWN);
+
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState());
+        advance(OPEN.minusNanos(1));
+        assertFalse(breaker.tryAcquire());
+        advance(Duration.ofNanos(1));
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void releaseGivesBackACancelledProbe() {
+        open();
+        advance(OPEN);
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.release();
+
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releaseNeverGoesBelowZero() {
+        open();
+        advance(OPEN);
+        breaker.tryAcquire();
+        breaker.release();
+        breaker.release();
+        breaker.release();
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void releaseWhileClosedChangesNothing() {
+        breaker.release();
+
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void disabledBreakerAlwaysPermits() {
+        properties.getBreaker().setEnabled(false);
+        open();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(0, breaker.getRejectedCount());
+    }
+
+    private void open() {
+        for (int i = 0; i < properties.getBreaker().getFailureThreshold(); i++) {
+            breaker.onFailure(DOWN);
+        }
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
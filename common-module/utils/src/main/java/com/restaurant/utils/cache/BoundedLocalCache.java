@@ -0,0 +1,286 @@
+package com.restaurant.utils.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-aware in-process cache.
+ * <p>
+ * Entries are spread over lock-striped segments, each segment keeps its own LRU order
+ * and evicts its least recently used entry once it is full. Expired entries are dropped
+ * lazily on access. Entries expire a ttl after they were written, or in expire-after-access
+ * mode a ttl after they were last read.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedLocalCache<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+    private final long defaultTtlNanos;
+    private final boolean expireAfterAccess;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Instantiates a new Bounded local cache.
+     *
+     * @param maxSize    the maximum number of entries
+     * @param defaultTtl the ttl used when none is given on put
+     */
+    public BoundedLocalCache(int maxSize, Duration defaultTtl) {
+        this(maxSize, defaultTtl, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * Instantiates a new Bounded local cache.
+     *
+     * @param maxSize      the maximum number of entries
+     * @param defaultTtl   the ttl used when none is given on put
+     * @param segmentCount the number of lock stripes
+     */
+    public BoundedLocalCache(int maxSize, Duration defaultTtl, int segmentCount) {
+        this(maxSize, defaultTtl, segmentCount, false);
+    }
+
+    /**
+     * Instantiates a new Bounded local cache.
+     *
+     * @param maxSize           the maximum number of entries
+     * @param defaultTtl        the ttl used when none is given on put
+     * @param segmentCount      the number of lock stripes
+     * @param expireAfterAccess whether reads restart the ttl of an entry
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedLocalCache(int maxSize, Duration defaultTtl, int segmentCount, boolean expireAfterAccess) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        int count = Math.max(1, Math.min(segmentCount, maxSize));
+        int perSegment = Math.max(1, maxSize / count);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment, evictions);
+        }
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    /**
+     * Gets value, or null when absent or expired.
+     *
+     * @param key the key
+     * @return the value
+     */
+    public V get(K key) {
+        V value = segmentFor(key).get(key, System.nanoTime(), expireAfterAccess);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Put with the default ttl.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultTtlNanos);
+    }
+
+    /**
+     * Put with a ttl, capped by the default ttl of this cache.
+     *
+     * @param key   the key
+     * @param value the value
+     * @param ttl   the ttl
+     */
+    public void put(K key, V value, Duration ttl) {
+        long ttlNanos = ttl == null ? defaultTtlNanos : Math.min(ttl.toNanos(), defaultTtlNanos);
+        put(key, value, ttlNanos);
+    }
+
+    private void put(K key, V value, long ttlNanos) {
+        if (value == null || ttlNanos <= 0) {
+            invalidate(key);
+            return;
+        }
+        segmentFor(key).put(key, value, System.nanoTime(), ttlNanos);
+    }
+
+    /**
+     * Gets the value or computes it atomically within the key's segment.
+     *
+     * @param key             the key
+     * @param mappingFunction the mapping function
+     * @return the value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return segmentFor(key).computeIfAbsent(key, mappingFunction, System.nanoTime(), defaultTtlNanos, this);
+    }
+
+    /**
+     * Gets the value or computes it atomically within the key's segment, a computed value is kept
+     * for the ttl, capped by the default ttl of this cache.
+     *
+     * @param key             the key
+     * @param mappingFunction the mapping function
+     * @param ttl             the ttl
+     * @return the value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction, Duration ttl) {
+        long ttlNanos = ttl == null ? defaultTtlNanos : Math.min(ttl.toNanos(), defaultTtlNanos);
+        return segmentFor(key).computeIfAbsent(key, mappingFunction, System.nanoTime(), ttlNanos, this);
+    }
+
+    /**
+     * Invalidate one key.
+     *
+     * @param key the key
+     */
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Invalidate all keys.
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Current entry count, including entries that expired but were not yet dropped.
+     *
+     * @return the size
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long ttlNanos;
+        private long expireAtNanos;
+
+        Entry(V value, long now, long ttlNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+            this.expireAtNanos = now + ttlNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expireAtNanos >= 0;
+        }
+
+        /**
+         * Restart the ttl, called with the segment lock held.
+         */
+        void touch(long now) {
+            expireAtNanos = now + ttlNanos;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final LinkedHashMap<K, Entry<V>> map;
+
+        Segment(int maxSize, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized V get(K key, long now, boolean touch) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(now)) {
+                map.remove(key);
+                return null;
+            }
+            if (touch) {
+                entry.touch(now);
+            }
+            return entry.value;
+        }
+
+        synchronized void put(K key, V value, long now, long ttlNanos) {
+            map.put(key, new Entry<>(value, now, ttlNanos));
+        }
+
+        synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction,
+                                       long now, long ttlNanos, BoundedLocalCache<K, V> owner) {
+            Entry<V> entry = map.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                owner.hits.increment();
+                if (owner.expireAfterAccess) {
+                    entry.touch(now);
+                }
+                return entry.value;
+            }
+            owner.misses.increment();
+            V value = mappingFunction.apply(key);
+            if (value != null) {
+                map.put(key, new Entry<>(value, now, ttlNanos));
+            } else {
+                map.remove(key);
+            }
+            return value;
+        }
+
+        synchronized void remove(K key) {
+            map.remove(key);
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        synchronized int size() {
+            return map.size();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.restaurant.menuservice.controller;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.menuservice.dtos.CreateMenuRequest;
 import com.restaurant.menuservice.dtos.MenuDto;
 import com.restaurant.menuservice.dtos.UpdateMenuRequest;
@@ -62,6 +64,18 @@ public class MenuController {
         return ResponseEntity.ok(menus);
     }
 
+    /**
+     * Get all menu s page by page (Admin only)
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResult<MenuDto>> getMenusPage(PageQuery query)
+            throws CacheException, DataFactoryException {
+
+        log.info("GET /api/menu/page - Admin access");
+        return ResponseEntity.ok(menuService.getMenusPage(query));
+    }
+
     /**
      * Create new menu (Admin only)
      */
@@ -14,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.Set;
 
 @Slf4j
 @Component
@@ -90,6 +91,11 @@ public class MenuFactory extends BaseCrudFactory<Long, MenuDto, Long, MenuEntity
         return oldEntity;
     }
 
+    @Override
+    protected Set<String> sortableProperties() {
+        return Set.of("id", "name", "createdAt");
+    }
+
     @Override
     public CacheConfigFactory<MenuDto> cacheFactory() {
         return new CacheConfigFactory<MenuDto>() {
@@ -107,9 +113,29 @@ public class MenuFactory extends BaseCrudFactory<Long, MenuDto, Long, MenuEntity
             public Duration cacheListTtl() {
                 return Duration.ofMinutes(30); // Cache list for 30 minutes
             }
+
+            @Override
+            public boolean localCache() {
+                return true; // Menu items are read-mostly, keep a local copy in front of Redis
+            }
+
+            @Override
+            public Duration localCacheTtl() {
+                return Duration.ofSeconds(30); // Replicas serve a stale item for at most 30 seconds
+            }
+
+            @Override
+            public boolean refreshAhead() {
+                return true; // Hot menu lists are reloaded in the background instead of on a request
+            }
         };
     }
 
+    @Override
+    protected MenuDto copyModel(MenuDto model) {
+        return model.toBuilder().build();
+    }
+
     @Override
     public <F extends IFilter> MenuDto getModel(Long id, F filter) throws CacheException, DataFactoryException {
         Long resolvedId = id;
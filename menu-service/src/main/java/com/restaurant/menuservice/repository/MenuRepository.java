@@ -1,11 +1,12 @@
 package com.restaurant.menuservice.repository;
 
+import com.restaurant.factorymodule.repository.IScrollableRepository;
 import com.restaurant.menuservice.entity.MenuEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 
-public interface MenuRepository extends JpaRepository<MenuEntity, Long> {
+public interface MenuRepository extends JpaRepository<MenuEntity, Long>, IScrollableRepository<MenuEntity, Long> {
 
     boolean existsByName(String name);
 }
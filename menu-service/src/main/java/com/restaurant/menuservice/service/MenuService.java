@@ -1,6 +1,8 @@
 package com.restaurant.menuservice.service;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.menuservice.dtos.CreateMenuRequest;
 import com.restaurant.menuservice.dtos.MenuDto;
 import com.restaurant.menuservice.dtos.UpdateMenuRequest;
@@ -36,6 +38,11 @@ public interface MenuService {
      */
     List<MenuDto> getAllMenus(MenuFilter filter) throws CacheException, DataFactoryException;
 
+    /**
+     * Get one page of all menu s
+     */
+    PageResult<MenuDto> getMenusPage(PageQuery query) throws CacheException, DataFactoryException;
+
     /**
      * Get available menu s (for customers)
      */
@@ -1,6 +1,8 @@
 package com.restaurant.menuservice.service.impl;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.menuservice.dtos.CreateMenuRequest;
 import com.restaurant.menuservice.dtos.MenuDto;
 import com.restaurant.menuservice.dtos.UpdateMenuRequest;
@@ -108,6 +110,12 @@ public class MenuServiceImpl implements MenuService {
         return menuFactory.getList(filter);
     }
 
+    @Override
+    public PageResult<MenuDto> getMenusPage(PageQuery query) throws CacheException, DataFactoryException {
+        log.info("Getting menu items page");
+        return menuFactory.getPage(null, query);
+    }
+
     @Override
     public List<MenuDto> getAvailableMenus(String category) throws CacheException, DataFactoryException {
         log.info("Getting available menu items for category: {}", category);
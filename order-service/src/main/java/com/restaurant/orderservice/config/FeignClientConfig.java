@@ -27,13 +27,15 @@ public class FeignClientConfig {
         return (RequestTemplate template) -> {
             ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder
                     .getRequestAttributes();
+            // Set by filter-module, also on executor threads the request handed work to; peeked so
+            // background threads without one are not left holding an empty context
+            SecurityContext securityContext = SecurityContextHolder.peekContext();
+            boolean authenticated = securityContext != null && securityContext.getUserId() != null;
 
-            if (attributes != null) {
+            if (attributes != null || authenticated) {
                 // CASE 1: Real User Request
                 // Extract user info from SecurityContext (set by filter-module)
-                SecurityContext securityContext = SecurityContextHolder.getContext();
-
-                if (securityContext != null && securityContext.getUserId() != null) {
+                if (authenticated) {
                     String userId = String.valueOf(securityContext.getUserId());
                     String userEmail = securityContext.getUserEmail() != null
                             && !securityContext.getUserEmail().isEmpty()
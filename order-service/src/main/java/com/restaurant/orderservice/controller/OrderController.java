@@ -1,6 +1,8 @@
 package com.restaurant.orderservice.controller;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.filter_module.core.context.SecurityContext;
 import com.restaurant.filter_module.core.context.SecurityContextHolder;
 import com.restaurant.orderservice.dto.*;
@@ -125,6 +127,18 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Get all orders page by page (Admin only)
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResult<OrderDto>> getOrdersPage(PageQuery query)
+            throws CacheException, DataFactoryException {
+
+        log.info("GET /api/orders/page - Admin access");
+        return ResponseEntity.ok(orderService.getOrdersPage(query));
+    }
+
     /**
      * Update order status (Admin/Staff)
      */
@@ -14,12 +14,19 @@ import com.restaurant.redismodule.factory.CacheConfigFactory;
 import com.restaurant.redismodule.service.ICacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.query.Order;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -154,6 +161,11 @@ public class OrderFactory extends BaseCrudFactory<Long, OrderDto, Long, OrderEnt
         return oldEntity;
     }
 
+    @Override
+    protected Set<String> sortableProperties() {
+        return Set.of("id", "createdAt");
+    }
+
     @Override
     public CacheConfigFactory<OrderDto> cacheFactory() {
         return new CacheConfigFactory<OrderDto>() {
@@ -171,6 +183,26 @@ public class OrderFactory extends BaseCrudFactory<Long, OrderDto, Long, OrderEnt
             public Duration cacheListTtl() {
                 return Duration.ofMinutes(5); // Cache list for 5 minutes
             }
+
+            @Override
+            public boolean refreshAhead() {
+                return true; // Serve the previous order while it is reloaded in the background
+            }
+
+            @Override
+            public Duration staleTtl() {
+                return Duration.ofMinutes(2);
+            }
+
+            @Override
+            public boolean negativeCache() {
+                return true; // Nonexistent order ids cost a cache read, not a query
+            }
+
+            @Override
+            public boolean cacheAsHash() {
+                return true; // Status transitions rewrite a few fields, not the order and its items
+            }
         };
     }
 
@@ -187,6 +219,25 @@ public class OrderFactory extends BaseCrudFactory<Long, OrderDto, Long, OrderEnt
 
     }
 
+    @Override
+    protected Iterable<OrderEntity> getListEntityByIds(Collection<Long> ids) {
+        // Same JOIN FETCH as getEntity, for batch reads
+        return crudRepository.findAllByIdWithItems(ids);
+    }
+
+    @Override
+    protected <F extends IFilter> Window<OrderEntity> getWindowEntity(F filter, ScrollPosition position, Sort sort, int limit)
+            throws DataFactoryException {
+        Window<OrderEntity> window = super.getWindowEntity(filter, position, sort, limit);
+        // Items cannot be fetch-joined into a limited query, load them for the whole window at once
+        Map<Long, OrderEntity> withItems = new HashMap<>();
+        List<Long> ids = window.stream().map(OrderEntity::getId).toList();
+        for (OrderEntity entity : crudRepository.findAllByIdWithItems(ids)) {
+            withItems.put(entity.getId(), entity);
+        }
+        return window.map(entity -> withItems.getOrDefault(entity.getId(), entity));
+    }
+
     @Override
     public <F extends IFilter> OrderDto getModel(Long id, F filter) throws CacheException, DataFactoryException {
 
@@ -1,5 +1,6 @@
 package com.restaurant.orderservice.repository;
 
+import com.restaurant.factorymodule.repository.IScrollableRepository;
 import com.restaurant.orderservice.entity.OrderEntity;
 import com.restaurant.orderservice.enums.OrderStatus;
 import com.restaurant.orderservice.enums.OrderType;
@@ -9,10 +10,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+public interface OrderRepository extends JpaRepository<OrderEntity, Long>, IScrollableRepository<OrderEntity, Long> {
     // Find orders by user
     List<OrderEntity> findByUserIdOrderByCreatedAtDesc(Long userId);
 
@@ -52,4 +54,8 @@ public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
     // Find order by ID with items eagerly loaded
     @Query("SELECT DISTINCT o FROM OrderEntity o LEFT JOIN FETCH o.orderItems WHERE o.id = :orderId")
     java.util.Optional<OrderEntity> findByIdWithItems(@Param("orderId") Long orderId);
+
+    // Find orders by IDs with items eagerly loaded
+    @Query("SELECT DISTINCT o FROM OrderEntity o LEFT JOIN FETCH o.orderItems WHERE o.id IN :orderIds")
+    List<OrderEntity> findAllByIdWithItems(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,6 +1,8 @@
 package com.restaurant.orderservice.service;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.orderservice.dto.*;
 import com.restaurant.orderservice.enums.OrderStatus;
 import com.restaurant.orderservice.filter.OrderFilter;
@@ -49,6 +51,11 @@ public interface OrderService {
      */
     List<OrderDto> getAllOrders(OrderFilter filter) throws CacheException, DataFactoryException;
 
+    /**
+     * Get one page of all orders (Admin only)
+     */
+    PageResult<OrderDto> getOrdersPage(PageQuery query) throws CacheException, DataFactoryException;
+
     /**
      * Update order status
      */
@@ -1,6 +1,8 @@
 package com.restaurant.orderservice.service.impl;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.orderservice.dto.*;
 import com.restaurant.orderservice.enums.OrderStatus;
 import com.restaurant.orderservice.enums.OrderType;
@@ -31,6 +33,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    /**
+     * Properties status transitions check, read without loading the order and its items.
+     */
+    private static final List<String> TRANSITION_FIELDS = List.of("userId", "driverId", "status", "orderType");
+
     private final OrderFactory orderFactory;
 
     private final MenuServiceClient menuServiceClient;
@@ -153,7 +160,7 @@ public class OrderServiceImpl implements OrderService {
     public void cancelOrder(Long id, Long userId) throws CacheException, DataFactoryException {
         log.info("Cancelling order: {} by user: {}", id, userId);
 
-        OrderDto order = orderFactory.getModel(id, null);
+        OrderDto order = orderFactory.getModelFields(id, TRANSITION_FIELDS);
 
         // Validate ownership
         if (!order.getUserId().equals(userId)) {
@@ -166,9 +173,9 @@ public class OrderServiceImpl implements OrderService {
         }
 
         order.setStatus(OrderStatus.CANCELLED);
-        orderFactory.update(order, null);
+        OrderDto cancelledOrder = orderFactory.update(order, null);
 
-        orderProducerService.publishOrderCancelledEvent(order, "Cancelled by customer");
+        orderProducerService.publishOrderCancelledEvent(cancelledOrder, "Cancelled by customer");
     }
 
     @Override
@@ -178,12 +185,19 @@ public class OrderServiceImpl implements OrderService {
         return orderFactory.getList(filter);
     }
 
+    @Override
+    @Transactional
+    public PageResult<OrderDto> getOrdersPage(PageQuery query) throws CacheException, DataFactoryException {
+        log.info("Getting orders page");
+        return orderFactory.getPage(null, query);
+    }
+
     @Override
     public OrderDto updateOrderStatus(Long id, UpdateOrderStatusRequest request)
             throws CacheException, DataFactoryException {
         log.info("Updating order status: {} to {}", id, request.getNewStatus());
 
-        OrderDto order = orderFactory.getModel(id, null);
+        OrderDto order = orderFactory.getModelFields(id, TRANSITION_FIELDS);
         OrderStatus oldStatus = order.getStatus();
 
         validateStatusTransition(oldStatus, request.getNewStatus());
@@ -206,7 +220,7 @@ public class OrderServiceImpl implements OrderService {
             throws CacheException, DataFactoryException {
         log.info("Assigning driver {} to order {}", request.getDriverId(), orderId);
 
-        OrderDto order = orderFactory.getModel(orderId, null);
+        OrderDto order = orderFactory.getModelFields(orderId, TRANSITION_FIELDS);
 
         if (order.getOrderType() != OrderType.DELIVERY) {
             throw new DataFactoryException("Can only assign driver to delivery orders");
@@ -245,7 +259,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto markOutForDelivery(Long orderId, Long driverId) throws CacheException, DataFactoryException {
         log.info("Marking order {} as out for delivery by driver {}", orderId, driverId);
 
-        OrderDto order = orderFactory.getModel(orderId, null);
+        OrderDto order = orderFactory.getModelFields(orderId, TRANSITION_FIELDS);
 
         // Validate driver assignment
         if (!driverId.equals(order.getDriverId())) {
@@ -269,7 +283,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto markDelivered(Long orderId, Long driverId) throws CacheException, DataFactoryException {
         log.info("Marking order {} as delivered by driver {}", orderId, driverId);
 
-        OrderDto order = orderFactory.getModel(orderId, null);
+        OrderDto order = orderFactory.getModelFields(orderId, TRANSITION_FIELDS);
 
         // Validate driver assignment
         if (!driverId.equals(order.getDriverId())) {
@@ -312,7 +326,7 @@ public class OrderServiceImpl implements OrderService {
     public void confirmPreOrder(Long orderId) throws CacheException, DataFactoryException {
         log.info("Confirming pre-order: {} (triggered by CustomerSeatedEvent)", orderId);
 
-        OrderDto order = orderFactory.getModel(orderId, null);
+        OrderDto order = orderFactory.getModelFields(orderId, TRANSITION_FIELDS);
 
         // Only confirm if order is in PENDING status
         if (order.getStatus() != OrderStatus.PENDING) {
@@ -336,7 +350,7 @@ public class OrderServiceImpl implements OrderService {
     public void cancelOrder(Long orderId, String reason) throws CacheException, DataFactoryException {
         log.info("Cancelling order: {} with reason: {} (triggered by event)", orderId, reason);
 
-        OrderDto order = orderFactory.getModel(orderId, null);
+        OrderDto order = orderFactory.getModelFields(orderId, TRANSITION_FIELDS);
 
         // Can only cancel PENDING or CONFIRMED orders
         if (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.CONFIRMED) {
@@ -345,9 +359,9 @@ public class OrderServiceImpl implements OrderService {
         }
 
         order.setStatus(OrderStatus.CANCELLED);
-        orderFactory.update(order, null);
+        OrderDto cancelledOrder = orderFactory.update(order, null);
 
-        orderProducerService.publishOrderCancelledEvent(order, reason);
+        orderProducerService.publishOrderCancelledEvent(cancelledOrder, reason);
         log.info("Order {} cancelled successfully", orderId);
     }
 
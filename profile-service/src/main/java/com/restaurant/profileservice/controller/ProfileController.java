@@ -1,6 +1,8 @@
 package com.restaurant.profileservice.controller;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.filter_module.core.context.SecurityContext;
 import com.restaurant.filter_module.core.context.SecurityContextHolder;
 import com.restaurant.profileservice.dto.CreateProfileRequest;
@@ -112,6 +114,18 @@ public class ProfileController {
         return ResponseEntity.ok(profiles);
     }
 
+    /**
+     * Get all profiles page by page (Admin only)
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/page")
+    public ResponseEntity<PageResult<ProfileDto>> getProfilesPage(PageQuery query)
+            throws CacheException, DataFactoryException {
+
+        log.info("GET /profiles/page - Admin access");
+        return ResponseEntity.ok(profileService.getProfilesPage(query));
+    }
+
     /**
      * Update any profile by ID (Admin only)
      */
@@ -3,6 +3,7 @@ package com.restaurant.profileservice.factory;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.factorymodule.BaseCrudFactory;
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.SecondaryKey;
 import com.restaurant.profileservice.dto.ProfileDto;
 import com.restaurant.profileservice.entity.ProfileEntity;
 import com.restaurant.profileservice.filter.ProfileFilter;
@@ -13,7 +14,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Component
@@ -70,6 +73,23 @@ public class ProfileFactory extends BaseCrudFactory<Long, ProfileDto, Long, Prof
         return oldEntity;
     }
 
+    @Override
+    protected List<SecondaryKey<ProfileDto>> secondaryKeys() {
+        // Same precedence as getEntity: userId first, then email
+        return List.of(
+                SecondaryKey.of("user_id",
+                        filter -> filter instanceof ProfileFilter profileFilter ? profileFilter.getUserId() : null,
+                        ProfileDto::getUserId),
+                SecondaryKey.of("email",
+                        filter -> filter instanceof ProfileFilter profileFilter ? profileFilter.getEmail() : null,
+                        ProfileDto::getEmail));
+    }
+
+    @Override
+    protected Set<String> sortableProperties() {
+        return Set.of("id", "createdAt");
+    }
+
     @Override
     public CacheConfigFactory<ProfileDto> cacheFactory() {
         return new CacheConfigFactory<ProfileDto>() {
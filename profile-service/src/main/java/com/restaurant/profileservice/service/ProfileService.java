@@ -1,6 +1,8 @@
 package com.restaurant.profileservice.service;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.profileservice.dto.CreateProfileRequest;
 import com.restaurant.profileservice.dto.ProfileDto;
 import com.restaurant.profileservice.dto.UpdateProfileRequest;
@@ -40,6 +42,11 @@ public interface ProfileService {
      */
     List<ProfileDto> getAllProfiles(ProfileFilter filter) throws CacheException, DataFactoryException;
 
+    /**
+     * Get one page of all profiles (admin only)
+     */
+    PageResult<ProfileDto> getProfilesPage(PageQuery query) throws CacheException, DataFactoryException;
+
     /**
      * Auto-create profile from user registration event
      */
@@ -1,6 +1,8 @@
 package com.restaurant.profileservice.service.impl;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.profileservice.dto.CreateProfileRequest;
 import com.restaurant.profileservice.dto.ProfileDto;
 import com.restaurant.profileservice.dto.UpdateProfileRequest;
@@ -68,8 +70,7 @@ public class ProfileServiceImpl implements ProfileService {
         ProfileFilter filter = ProfileFilter.builder()
                 .userId(userId)
                 .build();
-        ProfileDto profileDto = profileFactory.getModel(filter);
-        return profileFactory.getModel(profileDto.getId());
+        return profileFactory.getModel(filter);
     }
 
     @Override
@@ -124,6 +125,12 @@ public class ProfileServiceImpl implements ProfileService {
         return profileFactory.getList(filter);
     }
 
+    @Override
+    public PageResult<ProfileDto> getProfilesPage(PageQuery query) throws CacheException, DataFactoryException {
+        log.info("Getting profiles page");
+        return profileFactory.getPage(null, query);
+    }
+
     @Override
     @Transactional
     public void createProfileFromUserRegistration(Long userId, String email, String fullName, String phone, String address) throws DataFactoryException {
@@ -2,6 +2,8 @@
 package com.restaurant.reservationservice.controller;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.reservationservice.dto.*;
 import com.restaurant.securitymodule.model.UserPrincipal;
@@ -130,6 +132,15 @@ public class ReservationController {
         return ResponseEntity.ok(reservations);
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResult<ReservationDto>> getReservationsPage(PageQuery query)
+            throws CacheException, DataFactoryException {
+
+        log.info("GET /api/reservations/page - Admin access");
+        return ResponseEntity.ok(reservationService.getReservationsPage(query));
+    }
+
     @GetMapping("/today")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ReservationDto>> getTodayReservations() {
@@ -4,6 +4,7 @@ package com.restaurant.reservationservice.factory;
 import com.restaurant.data.model.IFilter;
 import com.restaurant.factorymodule.BaseCrudFactory;
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.SecondaryKey;
 import com.restaurant.reservationservice.dto.ReservationDto;
 import com.restaurant.reservationservice.dto.TableDto;
 import com.restaurant.reservationservice.entity.ReservationEntity;
@@ -22,6 +23,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -142,6 +144,18 @@ public class ReservationFactory extends BaseCrudFactory<Long, ReservationDto, Lo
         return oldEntity;
     }
 
+    @Override
+    protected List<SecondaryKey<ReservationDto>> secondaryKeys() {
+        return List.of(SecondaryKey.of("confirmation_code",
+                filter -> filter instanceof ReservationFilter rf ? rf.getConfirmationCode() : null,
+                ReservationDto::getConfirmationCode));
+    }
+
+    @Override
+    protected Set<String> sortableProperties() {
+        return Set.of("id", "reservationDate", "createdAt");
+    }
+
     @Override
     public CacheConfigFactory<ReservationDto> cacheFactory() {
         return new CacheConfigFactory<ReservationDto>() {
@@ -159,6 +173,16 @@ public class ReservationFactory extends BaseCrudFactory<Long, ReservationDto, Lo
             public Duration cacheListTtl() {
                 return Duration.ofMinutes(5);
             }
+
+            @Override
+            public boolean negativeCache() {
+                return true; // Unknown confirmation codes are probed repeatedly
+            }
+
+            @Override
+            public boolean cacheAsHash() {
+                return true; // Status and table changes rewrite only those fields
+            }
         };
     }
 
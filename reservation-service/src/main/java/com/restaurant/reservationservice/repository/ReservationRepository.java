@@ -1,5 +1,6 @@
 package com.restaurant.reservationservice.repository;
 
+import com.restaurant.factorymodule.repository.IScrollableRepository;
 import com.restaurant.reservationservice.entity.ReservationEntity;
 import com.restaurant.reservationservice.enums.ReservationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -12,7 +13,7 @@ import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface ReservationRepository extends JpaRepository<ReservationEntity, Long>, JpaSpecificationExecutor<ReservationEntity> {
+public interface ReservationRepository extends JpaRepository<ReservationEntity, Long>, IScrollableRepository<ReservationEntity, Long>, JpaSpecificationExecutor<ReservationEntity> {
 
     // Find by confirmation code
     Optional<ReservationEntity> findByConfirmationCode(String confirmationCode);
@@ -2,6 +2,8 @@
 package com.restaurant.reservationservice.service;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.reservationservice.dto.*;
 import com.restaurant.reservationservice.enums.ReservationStatus;
@@ -32,6 +34,8 @@ public interface ReservationService {
     // ========== ADMIN OPERATIONS ==========
     List<ReservationDto> getAllReservations(ReservationFilter filter) throws CacheException, DataFactoryException;
 
+    PageResult<ReservationDto> getReservationsPage(PageQuery query) throws CacheException, DataFactoryException;
+
     List<ReservationDto> getTodayReservations();
 
     List<ReservationDto> getUpcomingReservations();
@@ -1,6 +1,8 @@
 package com.restaurant.reservationservice.service.impl;
 
 import com.restaurant.factorymodule.exception.DataFactoryException;
+import com.restaurant.factorymodule.model.PageQuery;
+import com.restaurant.factorymodule.model.PageResult;
 import com.restaurant.redismodule.exception.CacheException;
 import com.restaurant.reservationservice.dto.*;
 import com.restaurant.reservationservice.enums.ReservationStatus;
@@ -30,6 +32,8 @@ public class ReservationServiceImpl implements ReservationService {
 
     // Default reservation duration in minutes
     private static final int DEFAULT_DURATION_MINUTES = 120;
+    // Properties status transitions check, read without loading the whole reservation
+    private static final List<String> TRANSITION_FIELDS = List.of("userId", "status");
     private final ReservationFactory reservationFactory;
     private final ReservationProducerService reservationProducerService;
     private final AvailabilityService availabilityService;
@@ -200,7 +204,7 @@ public class ReservationServiceImpl implements ReservationService {
     public void cancelReservation(Long id, Long userId) throws CacheException, DataFactoryException {
         log.info("Cancelling reservation: {} by user: {}", id, userId);
 
-        ReservationDto reservation = reservationFactory.getModel(id, null);
+        ReservationDto reservation = reservationFactory.getModelFields(id, TRANSITION_FIELDS);
 
         // Validate ownership
         if (!reservation.getUserId().equals(userId)) {
@@ -214,14 +218,14 @@ public class ReservationServiceImpl implements ReservationService {
         }
 
         reservation.setStatus(ReservationStatus.CANCELLED);
-        reservationFactory.update(reservation, null);
+        ReservationDto cancelled = reservationFactory.update(reservation, null);
 
         // Note: We don't change table status here because canceling a future
         // reservation
         // doesn't affect the current physical state of the table
 
         // Publish cancellation event for order service to cancel pre-orders
-        reservationProducerService.publishReservationCancelledEvent(reservation, "Cancelled by customer");
+        reservationProducerService.publishReservationCancelledEvent(cancelled, "Cancelled by customer");
     }
 
     @Override
@@ -237,6 +241,14 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationFactory.getList(filter);
     }
 
+    @Override
+    @Transactional
+    public PageResult<ReservationDto> getReservationsPage(PageQuery query)
+            throws CacheException, DataFactoryException {
+        log.info("Getting reservations page");
+        return reservationFactory.getPage(null, query);
+    }
+
     @Override
     @Transactional
     public List<ReservationDto> getTodayReservations() {
@@ -257,7 +269,7 @@ public class ReservationServiceImpl implements ReservationService {
             throws CacheException, DataFactoryException {
         log.info("Updating reservation {} status to {}", id, request.getNewStatus());
 
-        ReservationDto reservation = reservationFactory.getModel(id, null);
+        ReservationDto reservation = reservationFactory.getModelFields(id, TRANSITION_FIELDS);
         ReservationStatus oldStatus = reservation.getStatus();
 
         validateStatusTransition(oldStatus, request.getNewStatus());